@@ -0,0 +1,117 @@
+package benchmarks;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import exceptions.EmptyQueueException;
+import structures.ITwoWayQueue;
+
+/**
+ * Presents java.util.ArrayDeque as an ITwoWayQueue so it can be benchmarked as a
+ * baseline next to the project's queues. The first element of the queue is the
+ * first element of the ArrayDeque.
+ */
+public class ArrayDequeAdapter<T> implements ITwoWayQueue<T>
+{
+	private final ArrayDeque<T> deque;
+
+	public ArrayDequeAdapter()
+	{
+		this.deque = new ArrayDeque<>();
+	}
+
+	@Override
+	public T dequeueFirst()
+	{
+		try
+		{
+			return deque.removeFirst();
+		} catch (NoSuchElementException ex)
+		{
+			throw EmptyQueueException.instance();
+		}
+	}
+
+	@Override
+	public T dequeueLast()
+	{
+		try
+		{
+			return deque.removeLast();
+		} catch (NoSuchElementException ex)
+		{
+			throw EmptyQueueException.instance();
+		}
+	}
+
+	@Override
+	public List<T> dequeueAll()
+	{
+		if (deque.isEmpty())
+		{
+			throw EmptyQueueException.instance();
+		}
+		List<T> list = new ArrayList<>(deque);
+		Collections.reverse(list);
+		deque.clear();
+		return list;
+	}
+
+	@Override
+	public void enqueueFirst(T element)
+	{
+		deque.addFirst(element);
+	}
+
+	@Override
+	public void enqueueLast(T element)
+	{
+		deque.addLast(element);
+	}
+
+	@Override
+	public void enqueueAllFirst(T[] elements)
+	{
+		for (T element : elements)
+		{
+			deque.addFirst(element);
+		}
+	}
+
+	@Override
+	public void enqueueAllLast(T[] elements)
+	{
+		for (T element : elements)
+		{
+			deque.addLast(element);
+		}
+	}
+
+	@Override
+	public int size()
+	{
+		return deque.size();
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return deque.isEmpty();
+	}
+
+	@Override
+	public void clear()
+	{
+		deque.clear();
+	}
+
+	@Override
+	public Iterator<T> iterator()
+	{
+		return deque.descendingIterator();
+	}
+}
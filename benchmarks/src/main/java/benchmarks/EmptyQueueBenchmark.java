@@ -0,0 +1,64 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import exceptions.EmptyQueueException;
+import structures.TwoWayQueue;
+
+/**
+ * Compares the ways a consumer can find out that a queue is empty: catching the
+ * exception from dequeueFirst() with and without stack traces, and pollFirst().
+ *
+ * java -jar benchmarks/target/benchmarks.jar EmptyQueueBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmptyQueueBenchmark
+{
+	private final TwoWayQueue<Integer> queue = new TwoWayQueue<>();
+
+	@Benchmark
+	public Integer dequeueFirst()
+	{
+		try
+		{
+			return queue.dequeueFirst();
+		} catch (EmptyQueueException ex)
+		{
+			return null;
+		}
+	}
+
+	@Benchmark
+	@Fork(value = 1, jvmArgsAppend = "-Dexceptions.EmptyQueueException.stackless=true")
+	public Integer dequeueFirstStackless()
+	{
+		try
+		{
+			return queue.dequeueFirst();
+		} catch (EmptyQueueException ex)
+		{
+			return null;
+		}
+	}
+
+	@Benchmark
+	public Integer pollFirst()
+	{
+		return queue.pollFirst();
+	}
+}
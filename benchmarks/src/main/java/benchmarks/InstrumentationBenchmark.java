@@ -0,0 +1,77 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import structures.ITwoWayQueue;
+import structures.TwoWayQueue;
+import structures.metrics.InstrumentedTwoWayQueue;
+
+/**
+ * Measures what instrumenting a queue costs per enqueue/dequeue pair. "plain" is
+ * the bare queue, "disabled" goes through InstrumentedTwoWayQueue.instrument()
+ * without the system property, "counters" counts operations only and
+ * "residence" also records residence times.
+ *
+ * java -jar benchmarks/target/benchmarks.jar InstrumentationBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstrumentationBenchmark
+{
+	@Param({ "plain", "disabled", "counters", "residence" })
+	public String mode;
+
+	@Param({ "1000" })
+	public int size;
+
+	private ITwoWayQueue<Integer> queue;
+
+	@Setup
+	public void setup()
+	{
+		switch (mode)
+		{
+			case "plain":
+				queue = new TwoWayQueue<>();
+				break;
+			case "disabled":
+				queue = InstrumentedTwoWayQueue.instrument(new TwoWayQueue<>(), "benchmark");
+				break;
+			case "counters":
+				queue = new InstrumentedTwoWayQueue<>(new TwoWayQueue<>(), false);
+				break;
+			case "residence":
+				queue = new InstrumentedTwoWayQueue<>(new TwoWayQueue<>(), true);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown mode: " + mode);
+		}
+		for (int i = 0; i < size; i++)
+		{
+			queue.enqueueLast(i);
+		}
+	}
+
+	@Benchmark
+	public int enqueueLastDequeueFirst()
+	{
+		queue.enqueueLast(queue.dequeueFirst());
+		return queue.size();
+	}
+}
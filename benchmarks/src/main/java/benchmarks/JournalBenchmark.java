@@ -0,0 +1,115 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import structures.TwoWayQueue;
+import structures.persistent.ElementSerializers;
+import structures.persistent.JournaledTwoWayQueue;
+
+/**
+ * Measures what journaling costs under each sync policy: -1 never syncs, 0 syncs
+ * after every change and a positive value syncs at most once per that many
+ * milliseconds. The unjournaled queue is measured as a baseline. Put the
+ * journal on the disk being evaluated with -Djava.io.tmpdir=...
+ *
+ * java -jar benchmarks/target/benchmarks.jar JournalBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JournalBenchmark
+{
+	private static final int BATCH = 100;
+
+	@Param({ "-1", "1", "10", "0" })
+	public long syncIntervalMillis;
+
+	@Param({ "1000" })
+	public int size;
+
+	private TwoWayQueue<Integer> plain;
+	private JournaledTwoWayQueue<Integer> journaled;
+	private Path directory;
+	private Integer[] batch;
+
+	@Setup
+	public void setup() throws IOException
+	{
+		directory = Files.createTempDirectory("journal-benchmark");
+		plain = new TwoWayQueue<>();
+		journaled = new JournaledTwoWayQueue<>(new TwoWayQueue<>(), directory, ElementSerializers.integers(),
+				syncIntervalMillis, 1_000_000);
+		for (int i = 0; i < size; i++)
+		{
+			plain.enqueueLast(i);
+			journaled.enqueueLast(i);
+		}
+		batch = new Integer[BATCH];
+		for (int i = 0; i < BATCH; i++)
+		{
+			batch[i] = i;
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException
+	{
+		journaled.close();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory))
+		{
+			for (Path file : files)
+			{
+				Files.delete(file);
+			}
+		}
+		Files.delete(directory);
+	}
+
+	@Benchmark
+	public Integer baseline()
+	{
+		plain.enqueueLast(plain.dequeueFirst());
+		return plain.size();
+	}
+
+	@Benchmark
+	public Integer enqueueLastDequeueFirst()
+	{
+		Integer element = journaled.dequeueFirst();
+		journaled.enqueueLast(element);
+		return element;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public int enqueueAllLast()
+	{
+		journaled.enqueueAllLast(batch);
+		for (int i = 0; i < BATCH; i++)
+		{
+			journaled.dequeueFirst();
+		}
+		return journaled.size();
+	}
+}
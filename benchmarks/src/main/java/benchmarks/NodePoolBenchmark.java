@@ -0,0 +1,90 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import structures.TwoWayQueue;
+
+/**
+ * Compares TwoWayQueue with and without a node pool. Run with the GC profiler to
+ * see the allocation rate per operation:
+ *
+ * java -jar benchmarks/target/benchmarks.jar NodePoolBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NodePoolBenchmark
+{
+	private static final int BATCH = 100;
+
+	@Param({ "0", "1024" })
+	public int maxPooledNodes;
+
+	@Param({ "1000" })
+	public int size;
+
+	private TwoWayQueue<Integer> queue;
+	private Integer[] contents;
+	private Integer[] batch;
+
+	@Setup
+	public void setup()
+	{
+		queue = new TwoWayQueue<>(maxPooledNodes);
+		contents = new Integer[size];
+		for (int i = 0; i < size; i++)
+		{
+			contents[i] = i;
+		}
+		batch = new Integer[BATCH];
+		for (int i = 0; i < BATCH; i++)
+		{
+			batch[i] = -i;
+		}
+		queue.enqueueAllLast(contents);
+	}
+
+	@Benchmark
+	public int enqueueFirstDequeueLast()
+	{
+		queue.enqueueFirst(queue.dequeueLast());
+		return queue.size();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void enqueueAllLast(Blackhole blackhole)
+	{
+		queue.enqueueAllLast(batch);
+		for (int i = 0; i < BATCH; i++)
+		{
+			blackhole.consume(queue.dequeueLast());
+		}
+	}
+
+	@Benchmark
+	public List<Integer> dequeueAll()
+	{
+		List<Integer> all = queue.dequeueAll();
+		queue.enqueueAllLast(contents);
+		return all;
+	}
+}
@@ -0,0 +1,106 @@
+package benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import structures.PriorityTwoWayQueue;
+import structures.TwoWayQueue;
+
+/**
+ * Compares one scheduling tick (take the highest and the lowest priority item,
+ * then add two new ones) on PriorityTwoWayQueue against emulating it on a
+ * TwoWayQueue by calling dequeueAll(), sorting and enqueueing everything again.
+ * Also compares bulk loading a priority queue with enqueueAllLast(), which
+ * rebuilds the heap, against inserting one element at a time.
+ *
+ * java -jar benchmarks/target/benchmarks.jar PriorityBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriorityBenchmark
+{
+	@Param({ "1000", "100000" })
+	public int size;
+
+	private final Random random = new Random(42);
+	private Integer[] contents;
+	private PriorityTwoWayQueue<Integer> priority;
+	private TwoWayQueue<Integer> sorted;
+
+	@Setup
+	public void setup()
+	{
+		contents = new Integer[size];
+		for (int i = 0; i < size; i++)
+		{
+			contents[i] = random.nextInt();
+		}
+		priority = new PriorityTwoWayQueue<>();
+		priority.enqueueAllLast(contents);
+
+		Integer[] copy = contents.clone();
+		Arrays.sort(copy);
+		sorted = new TwoWayQueue<>();
+		sorted.enqueueAllLast(copy);
+	}
+
+	@Benchmark
+	public int priorityTick()
+	{
+		int highest = priority.dequeueFirst();
+		int lowest = priority.dequeueLast();
+		priority.enqueueLast(random.nextInt());
+		priority.enqueueLast(random.nextInt());
+		return highest - lowest;
+	}
+
+	@Benchmark
+	public int sortTick()
+	{
+		// keep the queue sorted from the least at the front to the greatest at the end
+		sorted.enqueueLast(random.nextInt());
+		sorted.enqueueLast(random.nextInt());
+		List<Integer> all = sorted.dequeueAll();
+		Integer[] elements = all.toArray(new Integer[all.size()]);
+		Arrays.sort(elements);
+		sorted.enqueueAllLast(elements);
+		return sorted.dequeueLast() - sorted.dequeueFirst();
+	}
+
+	@Benchmark
+	public PriorityTwoWayQueue<Integer> bulkLoad()
+	{
+		PriorityTwoWayQueue<Integer> queue = new PriorityTwoWayQueue<>();
+		queue.enqueueAllLast(contents);
+		return queue;
+	}
+
+	@Benchmark
+	public PriorityTwoWayQueue<Integer> insertEach()
+	{
+		PriorityTwoWayQueue<Integer> queue = new PriorityTwoWayQueue<>();
+		for (Integer element : contents)
+		{
+			queue.enqueueLast(element);
+		}
+		return queue;
+	}
+}
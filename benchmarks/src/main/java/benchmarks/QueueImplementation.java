@@ -0,0 +1,86 @@
+package benchmarks;
+
+import structures.ArrayTwoWayQueue;
+import structures.ITwoWayQueue;
+import structures.TwoWayQueue;
+import structures.UnrolledTwoWayQueue;
+import structures.concurrent.BlockingTwoWayQueue;
+import structures.concurrent.ConcurrentTwoWayQueue;
+import structures.concurrent.StripedTwoWayQueue;
+
+/**
+ * Every general purpose ITwoWayQueue implementation, plus ArrayDeque as a
+ * baseline. Used as a JMH parameter so each benchmark runs against all of them.
+ *
+ * SpscTwoWayQueue only supports one end for each operation, so it has its own
+ * benchmark in SpscHandoffBenchmark.
+ */
+public enum QueueImplementation
+{
+	TWO_WAY_QUEUE
+	{
+		@Override
+		public <T> ITwoWayQueue<T> create(int capacity)
+		{
+			return new TwoWayQueue<>();
+		}
+	},
+	ARRAY_TWO_WAY_QUEUE
+	{
+		@Override
+		public <T> ITwoWayQueue<T> create(int capacity)
+		{
+			return new ArrayTwoWayQueue<>();
+		}
+	},
+	UNROLLED_TWO_WAY_QUEUE
+	{
+		@Override
+		public <T> ITwoWayQueue<T> create(int capacity)
+		{
+			return new UnrolledTwoWayQueue<>();
+		}
+	},
+	CONCURRENT_TWO_WAY_QUEUE
+	{
+		@Override
+		public <T> ITwoWayQueue<T> create(int capacity)
+		{
+			return new ConcurrentTwoWayQueue<>();
+		}
+	},
+	BLOCKING_TWO_WAY_QUEUE
+	{
+		@Override
+		public <T> ITwoWayQueue<T> create(int capacity)
+		{
+			return new BlockingTwoWayQueue<>(capacity);
+		}
+	},
+	STRIPED_TWO_WAY_QUEUE
+	{
+		@Override
+		public <T> ITwoWayQueue<T> create(int capacity)
+		{
+			return new StripedTwoWayQueue<>();
+		}
+	},
+	ARRAY_DEQUE
+	{
+		@Override
+		public <T> ITwoWayQueue<T> create(int capacity)
+		{
+			return new ArrayDequeAdapter<>();
+		}
+	};
+
+	/**
+	 * Creates an empty queue
+	 *
+	 * @param capacity
+	 *            the most elements the benchmark will hold at once, for bounded
+	 *            implementations
+	 * @return a new queue
+	 */
+	public abstract <T> ITwoWayQueue<T> create(int capacity);
+}
@@ -0,0 +1,91 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import structures.SlidingWindowTwoWayQueue;
+import structures.TwoWayQueue;
+
+/**
+ * Adds one event to a sliding window of the given number of events and reads the
+ * window's mean, on SlidingWindowTwoWayQueue and on a TwoWayQueue of events that
+ * evicts by hand and iterates to compute the mean.
+ *
+ * java -jar benchmarks/target/benchmarks.jar SlidingWindowBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlidingWindowBenchmark
+{
+	@Param({ "100", "10000" })
+	public int window;
+
+	private long time;
+	private SlidingWindowTwoWayQueue<Double> sliding;
+	private TwoWayQueue<Event> events;
+
+	@Setup
+	public void setup()
+	{
+		sliding = new SlidingWindowTwoWayQueue<>(window, () -> time, value -> value);
+		events = new TwoWayQueue<>();
+		for (time = 0; time < window; time++)
+		{
+			sliding.enqueueFirst((double) time);
+			events.enqueueFirst(new Event(time, time));
+		}
+	}
+
+	@Benchmark
+	public double slidingWindow()
+	{
+		time++;
+		sliding.enqueueFirst((double) time);
+		return sliding.getMean();
+	}
+
+	@Benchmark
+	public double iterate()
+	{
+		time++;
+		while (!events.isEmpty() && time - events.peekLast().time >= window)
+		{
+			events.dequeueLast();
+		}
+		events.enqueueFirst(new Event(time, time));
+
+		double sum = 0;
+		for (Event event : events)
+		{
+			sum += event.value;
+		}
+		return sum / events.size();
+	}
+
+	private static final class Event
+	{
+		private final long time;
+		private final double value;
+
+		private Event(long time, double value)
+		{
+			this.time = time;
+			this.value = value;
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import structures.concurrent.SpscTwoWayQueue;
+
+/**
+ * Measures one producer thread handing elements to one consumer thread through
+ * SpscTwoWayQueue. A failed offer or an empty poll still counts as an operation,
+ * so compare the producer and consumer rows rather than the group total.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpscHandoffBenchmark
+{
+	private static final Integer ELEMENT = 42;
+
+	@Param({ "1024", "65536" })
+	public int capacity;
+
+	private SpscTwoWayQueue<Integer> queue;
+
+	@Setup
+	public void setup()
+	{
+		queue = new SpscTwoWayQueue<>(capacity);
+	}
+
+	@Benchmark
+	@Group("handoff")
+	@GroupThreads(1)
+	public boolean producer()
+	{
+		return queue.offerLast(ELEMENT);
+	}
+
+	@Benchmark
+	@Group("handoff")
+	@GroupThreads(1)
+	public Integer consumer()
+	{
+		return queue.pollFirst();
+	}
+}
@@ -0,0 +1,86 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import exceptions.EmptyQueueException;
+import structures.ITwoWayQueue;
+
+/**
+ * Measures the total throughput of the thread-safe queues when every thread
+ * enqueues at the end and dequeues from the front of one shared queue. Run main()
+ * to repeat the benchmark with 1, 2, 4, ... 64 threads:
+ *
+ * java -cp benchmarks/target/benchmarks.jar benchmarks.StripedScalingBenchmark
+ *
+ * or pick a thread count with the usual runner:
+ *
+ * java -jar benchmarks/target/benchmarks.jar StripedScalingBenchmark -t 32
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StripedScalingBenchmark
+{
+	private static final int MAX_THREADS = 64;
+	private static final Integer ELEMENT = 42;
+
+	@Param({ "STRIPED_TWO_WAY_QUEUE", "CONCURRENT_TWO_WAY_QUEUE", "BLOCKING_TWO_WAY_QUEUE" })
+	public QueueImplementation implementation;
+
+	@Param({ "1024" })
+	public int size;
+
+	private ITwoWayQueue<Integer> queue;
+
+	@Setup
+	public void setup()
+	{
+		// room for every thread to be part way through an enqueue/dequeue pair
+		queue = implementation.create(size + MAX_THREADS);
+		for (int i = 0; i < size; i++)
+		{
+			queue.enqueueLast(i);
+		}
+	}
+
+	@Benchmark
+	public Integer enqueueLastDequeueFirst()
+	{
+		queue.enqueueLast(ELEMENT);
+		try
+		{
+			return queue.dequeueFirst();
+		} catch (EmptyQueueException ex)
+		{
+			// the striped queue may miss elements in lanes it has already passed
+			return null;
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		for (int threads = 1; threads <= MAX_THREADS; threads <<= 1)
+		{
+			new Runner(new OptionsBuilder().include(StripedScalingBenchmark.class.getSimpleName()).threads(threads)
+					.build()).run();
+		}
+	}
+}
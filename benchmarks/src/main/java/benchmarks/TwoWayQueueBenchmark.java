@@ -0,0 +1,155 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import structures.ITwoWayQueue;
+
+/**
+ * Measures throughput and sampled latency of every ITwoWayQueue operation on a
+ * queue that already holds size elements.
+ *
+ * Single element benchmarks pair an enqueue with a dequeue so the queue stays at
+ * the same size for the whole run; each pair is one operation. The bulk
+ * benchmarks add a batch and then remove it again, and are reported per element.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TwoWayQueueBenchmark
+{
+	private static final int BATCH = 100;
+
+	@Param({ "10", "1000", "100000", "10000000" })
+	public int size;
+
+	@Param
+	public QueueImplementation implementation;
+
+	private ITwoWayQueue<Integer> queue;
+	private Integer[] contents;
+	private Integer[] batch;
+
+	@Setup
+	public void setup()
+	{
+		queue = implementation.create(size + BATCH);
+		contents = new Integer[size];
+		for (int i = 0; i < size; i++)
+		{
+			contents[i] = i;
+		}
+		batch = new Integer[BATCH];
+		for (int i = 0; i < BATCH; i++)
+		{
+			batch[i] = -i;
+		}
+		queue.enqueueAllLast(contents);
+	}
+
+	@Benchmark
+	public Integer enqueueFirstDequeueFirst()
+	{
+		queue.enqueueFirst(batch[1]);
+		return queue.dequeueFirst();
+	}
+
+	@Benchmark
+	public Integer enqueueFirstDequeueLast()
+	{
+		queue.enqueueFirst(queue.dequeueLast());
+		return queue.size();
+	}
+
+	@Benchmark
+	public Integer enqueueLastDequeueFirst()
+	{
+		queue.enqueueLast(queue.dequeueFirst());
+		return queue.size();
+	}
+
+	@Benchmark
+	public Integer enqueueLastDequeueLast()
+	{
+		queue.enqueueLast(batch[1]);
+		return queue.dequeueLast();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void enqueueAllFirst(Blackhole blackhole)
+	{
+		queue.enqueueAllFirst(batch);
+		for (int i = 0; i < BATCH; i++)
+		{
+			blackhole.consume(queue.dequeueFirst());
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void enqueueAllLast(Blackhole blackhole)
+	{
+		queue.enqueueAllLast(batch);
+		for (int i = 0; i < BATCH; i++)
+		{
+			blackhole.consume(queue.dequeueLast());
+		}
+	}
+
+	/**
+	 * Empties the queue with dequeueAll() and refills it in one batch
+	 */
+	@Benchmark
+	public List<Integer> dequeueAll()
+	{
+		List<Integer> all = queue.dequeueAll();
+		queue.enqueueAllLast(contents);
+		return all;
+	}
+
+	@Benchmark
+	public int size()
+	{
+		return queue.size();
+	}
+
+	@Benchmark
+	public void iterate(Blackhole blackhole)
+	{
+		for (Integer element : queue)
+		{
+			blackhole.consume(element);
+		}
+	}
+
+	@Benchmark
+	public long streamSum()
+	{
+		return StreamSupport.stream(queue.spliterator(), false).mapToLong(Integer::longValue).sum();
+	}
+
+	@Benchmark
+	public long parallelStreamSum()
+	{
+		return StreamSupport.stream(queue.spliterator(), true).mapToLong(Integer::longValue).sum();
+	}
+}
@@ -0,0 +1,144 @@
+package benchmarks;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import structures.concurrent.WorkStealingExecutor;
+
+/**
+ * Runs the same fork-only task tree on WorkStealingExecutor and ForkJoinPool.
+ * Every task below the given depth forks two children, and a shared counter
+ * releases a latch when the last task finishes, so neither pool ever joins. The
+ * score is the time to run the whole tree of 2^(depth+1) - 1 tasks.
+ *
+ * java -jar benchmarks/target/benchmarks.jar WorkStealingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkStealingBenchmark
+{
+	@Param({ "0" })
+	public int parallelism;
+
+	@Param({ "16" })
+	public int depth;
+
+	private WorkStealingExecutor executor;
+	private ForkJoinPool pool;
+
+	@Setup
+	public void setup()
+	{
+		int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+		executor = new WorkStealingExecutor(threads);
+		pool = new ForkJoinPool(threads);
+	}
+
+	@TearDown
+	public void tearDown() throws InterruptedException
+	{
+		executor.shutdown();
+		pool.shutdown();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+		pool.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+	@Benchmark
+	public long workStealingExecutor() throws InterruptedException
+	{
+		Tree tree = new Tree();
+		executor.execute(() -> executorTask(tree, 0));
+		tree.done.await();
+		return tree.leaves.get();
+	}
+
+	@Benchmark
+	public long forkJoinPool() throws InterruptedException
+	{
+		Tree tree = new Tree();
+		pool.execute(new PoolTask(tree, 0));
+		tree.done.await();
+		return tree.leaves.get();
+	}
+
+	private void executorTask(Tree tree, int level)
+	{
+		if (level == depth)
+		{
+			tree.leaves.incrementAndGet();
+		} else
+		{
+			tree.pending.addAndGet(2);
+			executor.execute(() -> executorTask(tree, level + 1));
+			executor.execute(() -> executorTask(tree, level + 1));
+		}
+		tree.finish();
+	}
+
+	private final class PoolTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final Tree tree;
+		private final int level;
+
+		private PoolTask(Tree tree, int level)
+		{
+			this.tree = tree;
+			this.level = level;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (level == depth)
+			{
+				tree.leaves.incrementAndGet();
+			} else
+			{
+				tree.pending.addAndGet(2);
+				new PoolTask(tree, level + 1).fork();
+				new PoolTask(tree, level + 1).fork();
+			}
+			tree.finish();
+		}
+	}
+
+	/**
+	 * Counts the tasks of one run that have not finished yet
+	 */
+	private static final class Tree
+	{
+		private final AtomicLong pending = new AtomicLong(1);
+		private final AtomicLong leaves = new AtomicLong();
+		private final CountDownLatch done = new CountDownLatch(1);
+
+		private void finish()
+		{
+			if (pending.decrementAndGet() == 0)
+			{
+				done.countDown();
+			}
+		}
+	}
+}
@@ -6,10 +6,67 @@
 package exceptions;
 
 /**
+ * Thrown when an element is requested from an empty queue.
+ *
+ * Filling in a stack trace is the most expensive part of throwing an exception.
+ * Code that expects to find the queue empty often should use the poll methods,
+ * which return null instead. For code that still relies on the exception, run
+ * with -Dexceptions.EmptyQueueException.stackless=true and the queues will throw
+ * one shared instance that has no stack trace.
+ *
  * @author Michael Horn
  *
  */
 public class EmptyQueueException extends RuntimeException
 {
+	private static final long serialVersionUID = 1L;
+
+	private static final boolean STACKLESS = Boolean.getBoolean("exceptions.EmptyQueueException.stackless");
+
+	// suppression is disabled too, since the shared instance must never change
+	private static final EmptyQueueException SHARED = new EmptyQueueException(null, false);
+
+	/**
+	 * Creates an exception with a stack trace
+	 */
+	public EmptyQueueException()
+	{
+		super();
+	}
+
+	/**
+	 * Creates an exception with a detail message and a stack trace
+	 *
+	 * @param message
+	 *            the detail message
+	 */
+	public EmptyQueueException(String message)
+	{
+		super(message);
+	}
+
+	/**
+	 * Creates an exception that may leave out its stack trace
+	 *
+	 * @param message
+	 *            the detail message
+	 * @param writableStackTrace
+	 *            whether the stack trace is filled in
+	 */
+	protected EmptyQueueException(String message, boolean writableStackTrace)
+	{
+		super(message, null, false, writableStackTrace);
+	}
 
+	/**
+	 * Returns the exception a queue should throw when it is empty: the shared
+	 * stackless instance if -Dexceptions.EmptyQueueException.stackless=true was
+	 * given, otherwise a new exception.
+	 *
+	 * @return an EmptyQueueException to throw
+	 */
+	public static EmptyQueueException instance()
+	{
+		return STACKLESS ? SHARED : new EmptyQueueException();
+	}
 }
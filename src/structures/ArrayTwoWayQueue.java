@@ -0,0 +1,860 @@
+/**
+ * Michael Horn
+ * Oct 18, 2026
+ * ArrayTwoWayQueue.java
+ */
+package structures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import exceptions.EmptyQueueException;
+
+/**
+ * A two-way queue backed by a circular array. The array length is always a
+ * power of two so indices wrap with a mask, and the array doubles when it
+ * fills. Every enqueue and dequeue at either end is amortized O(1).
+ *
+ * Elements are stored from the first element (at head) to the last element
+ * (just before tail).
+ *
+ * @author Michael Horn
+ * @version 1.0
+ */
+public class ArrayTwoWayQueue<T> implements IExtendedTwoWayQueue<T>
+{
+	/**
+	 * The largest number of elements a queue can hold
+	 */
+	public static final int MAX_SIZE = (1 << 30) - 1;
+
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	private Object[] elements;
+	private int head;
+	private int tail;
+	private int modCount;
+
+	/**
+	 * Creates an empty queue with the default capacity
+	 */
+	public ArrayTwoWayQueue()
+	{
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates an empty queue that can hold at least the given number of elements
+	 * before resizing
+	 *
+	 * @param initialCapacity
+	 *            the number of elements to make room for
+	 */
+	public ArrayTwoWayQueue(int initialCapacity)
+	{
+		if (initialCapacity < 0)
+		{
+			throw new IllegalArgumentException("Capacity cannot be negative: " + initialCapacity);
+		}
+		this.elements = new Object[capacityFor(initialCapacity)];
+	}
+
+	/**
+	 * Removes and returns the first element in the queue.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueFirst() is called
+	 * @return the first element
+	 */
+	@Override
+	public T dequeueFirst()
+	{
+		modCount++;
+		if (isEmpty())
+		{
+			throw EmptyQueueException.instance();
+		}
+
+		T element = elementAt(head);
+		elements[head] = null;
+		head = (head + 1) & (elements.length - 1);
+		return element;
+	}
+
+	/**
+	 * Removes and returns the last element in the queue.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueLast() is called
+	 * @return the last element
+	 */
+	@Override
+	public T dequeueLast()
+	{
+		modCount++;
+		if (isEmpty())
+		{
+			throw EmptyQueueException.instance();
+		}
+
+		tail = (tail - 1) & (elements.length - 1);
+		T element = elementAt(tail);
+		elements[tail] = null;
+		return element;
+	}
+
+	/**
+	 * Removes and returns the first element in the queue, or returns null if the
+	 * queue is empty. Since null elements are allowed, check isEmpty() instead if
+	 * the queue may hold nulls.
+	 *
+	 * @return the first element, or null if the queue is empty
+	 */
+	@Override
+	public T pollFirst()
+	{
+		return isEmpty() ? null : dequeueFirst();
+	}
+
+	/**
+	 * Removes and returns the last element in the queue, or returns null if the
+	 * queue is empty. Since null elements are allowed, check isEmpty() instead if
+	 * the queue may hold nulls.
+	 *
+	 * @return the last element, or null if the queue is empty
+	 */
+	@Override
+	public T pollLast()
+	{
+		return isEmpty() ? null : dequeueLast();
+	}
+
+	/**
+	 * Removes and returns all elements in the queue. The first element in the queue
+	 * should be located at the last index of the resulting list (index size() - 1)
+	 * and the last element in the queue at index zero.
+	 *
+	 * @return a list of all elements in the queue
+	 */
+	@Override
+	public List<T> dequeueAll()
+	{
+		modCount++;
+		if (isEmpty())
+		{
+			throw EmptyQueueException.instance();
+		}
+
+		int mask = elements.length - 1;
+		List<T> list = new ArrayList<>(size());
+		for (int i = (tail - 1) & mask; i != ((head - 1) & mask); i = (i - 1) & mask)
+		{
+			list.add(elementAt(i));
+		}
+		clear();
+		return list;
+	}
+
+	/**
+	 * Adds a new element to the front of the queue. The queue should continually
+	 * resize to make room for new elements.
+	 *
+	 * @param element
+	 *            the new element to be added to the front of the queue
+	 */
+	@Override
+	public void enqueueFirst(T element)
+	{
+		modCount++;
+		head = (head - 1) & (elements.length - 1);
+		elements[head] = element;
+		if (head == tail)
+		{
+			doubleCapacity();
+		}
+	}
+
+	/**
+	 * Adds a new element to the end of the queue. The queue should continually
+	 * resize to make room for new elements.
+	 *
+	 * @param element
+	 *            the new element to be added to the end of the queue
+	 */
+	@Override
+	public void enqueueLast(T element)
+	{
+		modCount++;
+		elements[tail] = element;
+		tail = (tail + 1) & (elements.length - 1);
+		if (head == tail)
+		{
+			doubleCapacity();
+		}
+	}
+
+	/**
+	 * Adds a group of elements to the front of the queue.
+	 *
+	 * @param elements
+	 *            an array of elements to be added to the beginning of the queue
+	 */
+	@Override
+	public void enqueueAllFirst(T[] elements)
+	{
+		enqueueAllFirst(elements, 0, elements.length);
+	}
+
+	/**
+	 * Adds a range of an array to the front of the queue. Room for the whole range
+	 * is made once before any element is written.
+	 *
+	 * @param elements
+	 *            an array of elements to be added to the beginning of the queue
+	 * @param offset
+	 *            the index of the first element to add
+	 * @param length
+	 *            the number of elements to add
+	 */
+	@Override
+	public void enqueueAllFirst(T[] elements, int offset, int length)
+	{
+		checkRange(elements, offset, length);
+		if (length == 0)
+		{
+			return;
+		}
+
+		modCount++;
+		ensureCapacity(size() + length);
+		// the range is written in reverse, so it cannot be a single block copy
+		int mask = this.elements.length - 1;
+		for (int i = offset; i < offset + length; i++)
+		{
+			head = (head - 1) & mask;
+			this.elements[head] = elements[i];
+		}
+	}
+
+	/**
+	 * Adds a collection of elements to the front of the queue, in iteration order.
+	 *
+	 * @param elements
+	 *            a collection of elements to be added to the beginning of the queue
+	 */
+	@Override
+	public void enqueueAllFirst(Collection<? extends T> elements)
+	{
+		if (elements.isEmpty())
+		{
+			return;
+		}
+
+		modCount++;
+		ensureCapacity(size() + elements.size());
+		for (T element : elements)
+		{
+			head = (head - 1) & (this.elements.length - 1);
+			this.elements[head] = element;
+			if (head == tail)
+			{
+				doubleCapacity();
+			}
+		}
+	}
+
+	/**
+	 * Adds a group of elements to the end of the queue.
+	 *
+	 * @param elements
+	 *            an array of elements to be added to the end of the queue
+	 */
+	@Override
+	public void enqueueAllLast(T[] elements)
+	{
+		enqueueAllLast(elements, 0, elements.length);
+	}
+
+	/**
+	 * Adds a range of an array to the end of the queue. Room for the whole range is
+	 * made once and the range is copied in at most two blocks.
+	 *
+	 * @param elements
+	 *            an array of elements to be added to the end of the queue
+	 * @param offset
+	 *            the index of the first element to add
+	 * @param length
+	 *            the number of elements to add
+	 */
+	@Override
+	public void enqueueAllLast(T[] elements, int offset, int length)
+	{
+		checkRange(elements, offset, length);
+		if (length == 0)
+		{
+			return;
+		}
+
+		modCount++;
+		ensureCapacity(size() + length);
+		int toEnd = Math.min(length, this.elements.length - tail);
+		System.arraycopy(elements, offset, this.elements, tail, toEnd);
+		System.arraycopy(elements, offset + toEnd, this.elements, 0, length - toEnd);
+		tail = (tail + length) & (this.elements.length - 1);
+	}
+
+	/**
+	 * Adds a collection of elements to the end of the queue, in iteration order.
+	 *
+	 * @param elements
+	 *            a collection of elements to be added to the end of the queue
+	 */
+	@Override
+	public void enqueueAllLast(Collection<? extends T> elements)
+	{
+		if (elements.isEmpty())
+		{
+			return;
+		}
+
+		modCount++;
+		ensureCapacity(size() + elements.size());
+		for (T element : elements)
+		{
+			this.elements[tail] = element;
+			tail = (tail + 1) & (this.elements.length - 1);
+			if (head == tail)
+			{
+				doubleCapacity();
+			}
+		}
+	}
+
+	/**
+	 * Removes every element from the queue and adds it to the given collection,
+	 * from the first element to the last.
+	 *
+	 * @param sink
+	 *            the collection to receive the elements
+	 * @return the number of elements moved
+	 */
+	@Override
+	public int drainTo(Collection<? super T> sink)
+	{
+		return drainFirst(Integer.MAX_VALUE, sink::add);
+	}
+
+	/**
+	 * Removes elements from the front of the queue into the given array until the
+	 * queue is empty or the array is full. The elements are copied in at most two
+	 * blocks.
+	 *
+	 * @param dest
+	 *            the array to receive the elements
+	 * @param offset
+	 *            the index of the first slot to fill
+	 * @return the number of elements moved
+	 */
+	@Override
+	public int drainTo(T[] dest, int offset)
+	{
+		if (offset < 0 || offset > dest.length)
+		{
+			throw new IndexOutOfBoundsException("offset " + offset + ", array length " + dest.length);
+		}
+
+		int count = Math.min(size(), dest.length - offset);
+		if (count == 0)
+		{
+			return 0;
+		}
+
+		modCount++;
+		int toEnd = Math.min(count, elements.length - head);
+		System.arraycopy(elements, head, dest, offset, toEnd);
+		System.arraycopy(elements, 0, dest, offset + toEnd, count - toEnd);
+		Arrays.fill(elements, head, head + toEnd, null);
+		Arrays.fill(elements, 0, count - toEnd, null);
+		head = (head + count) & (elements.length - 1);
+		return count;
+	}
+
+	/**
+	 * Removes up to maxElements elements from the front of the queue and passes
+	 * each one to the given consumer.
+	 *
+	 * @param maxElements
+	 *            the largest number of elements to remove
+	 * @param sink
+	 *            the consumer to receive the elements
+	 * @return the number of elements moved
+	 */
+	@Override
+	public int drainFirst(int maxElements, Consumer<? super T> sink)
+	{
+		if (maxElements < 0)
+		{
+			throw new IllegalArgumentException("maxElements cannot be negative: " + maxElements);
+		}
+
+		int count = 0;
+		if (maxElements > 0 && !isEmpty())
+		{
+			modCount++;
+		}
+		while (count < maxElements && !isEmpty())
+		{
+			T element = elementAt(head);
+			elements[head] = null;
+			head = (head + 1) & (elements.length - 1);
+			sink.accept(element);
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Removes up to maxElements elements from the end of the queue and passes each
+	 * one to the given consumer.
+	 *
+	 * @param maxElements
+	 *            the largest number of elements to remove
+	 * @param sink
+	 *            the consumer to receive the elements
+	 * @return the number of elements moved
+	 */
+	@Override
+	public int drainLast(int maxElements, Consumer<? super T> sink)
+	{
+		if (maxElements < 0)
+		{
+			throw new IllegalArgumentException("maxElements cannot be negative: " + maxElements);
+		}
+
+		int count = 0;
+		if (maxElements > 0 && !isEmpty())
+		{
+			modCount++;
+		}
+		while (count < maxElements && !isEmpty())
+		{
+			tail = (tail - 1) & (elements.length - 1);
+			T element = elementAt(tail);
+			elements[tail] = null;
+			sink.accept(element);
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the first element in the queue without removing it.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and peekFirst() is called
+	 * @return the first element
+	 */
+	@Override
+	public T peekFirst()
+	{
+		if (isEmpty())
+		{
+			throw EmptyQueueException.instance();
+		}
+		return elementAt(head);
+	}
+
+	/**
+	 * Returns the last element in the queue without removing it.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and peekLast() is called
+	 * @return the last element
+	 */
+	@Override
+	public T peekLast()
+	{
+		if (isEmpty())
+		{
+			throw EmptyQueueException.instance();
+		}
+		return elementAt((tail - 1) & (elements.length - 1));
+	}
+
+	/**
+	 * Returns the element at the given position without removing it, in constant
+	 * time.
+	 *
+	 * @param index
+	 *            the position of the element, from the front of the queue
+	 * @return the element at that position
+	 * @throws IndexOutOfBoundsException
+	 *             if index is negative or not less than size()
+	 */
+	@Override
+	public T get(int index)
+	{
+		int size = size();
+		if (index < 0 || index >= size)
+		{
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		return elementAt((head + index) & (elements.length - 1));
+	}
+
+	/**
+	 * Returns the number of elements in the queue.
+	 *
+	 * @return the number of elements in the queue
+	 */
+	@Override
+	public int size()
+	{
+		return (tail - head) & (elements.length - 1);
+	}
+
+	/**
+	 * Reports whether the queue is empty or not.
+	 *
+	 * @return true if no elements are in the queue, otherwise returns false
+	 */
+	@Override
+	public boolean isEmpty()
+	{
+		return head == tail;
+	}
+
+	/**
+	 * Removes all elements from the queue. The backing array keeps its capacity.
+	 */
+	@Override
+	public void clear()
+	{
+		modCount++;
+		int mask = elements.length - 1;
+		for (int i = head; i != tail; i = (i + 1) & mask)
+		{
+			elements[i] = null;
+		}
+		head = 0;
+		tail = 0;
+	}
+
+	/**
+	 * Returns an iterator over the elements of the queue. It should not be possible
+	 * to use the iterator while making any changes to the stack itself.
+	 *
+	 * Elements should return in FIFO order (i.e. The first element added should be
+	 * the first returned by the iterator. The last element added should be the last
+	 * returned by the iterator.)
+	 *
+	 * @return an object using the Iterator<T> interface
+	 */
+	@Override
+	public Iterator<T> iterator()
+	{
+		return new ArrayTwoWayQueueIterator();
+	}
+
+	/**
+	 * Returns a spliterator over the elements of the queue, in the same order as
+	 * the iterator. It splits by index range, so a parallel stream divides the
+	 * queue evenly, and it checks for changes to the queue once per traversal
+	 * instead of once per element.
+	 *
+	 * @return a spliterator over the elements of the queue
+	 */
+	@Override
+	public Spliterator<T> spliterator()
+	{
+		return new ArrayTwoWayQueueSpliterator(elements, tail, size(), modCount);
+	}
+
+	/**
+	 * Returns an iterator that runs the other way from iterator(): from the first
+	 * element in the queue to the last.
+	 *
+	 * @return an iterator from the first element to the last
+	 */
+	@Override
+	public Iterator<T> descendingIterator()
+	{
+		return new Iterator<T>()
+		{
+			int cursor = head;
+			int remaining = size();
+			int savedModCount = modCount;
+
+			@Override
+			public boolean hasNext()
+			{
+				if (savedModCount != ArrayTwoWayQueue.this.modCount)
+				{
+					throw new ConcurrentModificationException();
+				}
+				return remaining > 0;
+			}
+
+			@Override
+			public T next()
+			{
+				if (!hasNext())
+				{
+					throw new NoSuchElementException();
+				}
+
+				T element = elementAt(cursor);
+				cursor = (cursor + 1) & (elements.length - 1);
+				remaining--;
+				return element;
+			}
+		};
+	}
+
+	/**
+	 * Rounds the requested capacity up to the next power of two, leaving one
+	 * slot free so that a full array can be told apart from an empty one
+	 *
+	 * @param requested
+	 *            the number of elements the array must hold
+	 * @return the length of the array to allocate
+	 */
+	private static int capacityFor(int requested)
+	{
+		if (requested >= MAX_CAPACITY)
+		{
+			return MAX_CAPACITY;
+		}
+		int capacity = Integer.highestOneBit(Math.max(requested, 1));
+		return capacity << 1;
+	}
+
+	/**
+	 * Doubles the backing array once head and tail meet, unwrapping the contents
+	 * so the first element sits at index zero
+	 */
+	private void doubleCapacity()
+	{
+		int length = elements.length;
+		if (length == MAX_CAPACITY)
+		{
+			throw new IllegalStateException("Queue cannot grow past " + MAX_CAPACITY + " elements");
+		}
+
+		int rightOfHead = length - head;
+		Object[] resized = new Object[length << 1];
+		System.arraycopy(elements, head, resized, 0, rightOfHead);
+		System.arraycopy(elements, 0, resized, rightOfHead, head);
+		elements = resized;
+		head = 0;
+		tail = length;
+	}
+
+	/**
+	 * Grows the backing array, if needed, so that it can hold the given number of
+	 * elements without resizing again
+	 *
+	 * @param required
+	 *            the number of elements the array must hold
+	 */
+	private void ensureCapacity(int required)
+	{
+		if (required < 0 || required >= MAX_CAPACITY)
+		{
+			throw new IllegalStateException("Queue cannot grow past " + MAX_CAPACITY + " elements");
+		}
+		if (required < elements.length)
+		{
+			return;
+		}
+
+		int size = size();
+		Object[] resized = new Object[capacityFor(required)];
+		int rightOfHead = Math.min(size, elements.length - head);
+		System.arraycopy(elements, head, resized, 0, rightOfHead);
+		System.arraycopy(elements, 0, resized, rightOfHead, size - rightOfHead);
+		elements = resized;
+		head = 0;
+		tail = size;
+	}
+
+	private static void checkRange(Object[] elements, int offset, int length)
+	{
+		if (offset < 0 || length < 0 || offset > elements.length - length)
+		{
+			throw new IndexOutOfBoundsException(
+					"offset " + offset + ", length " + length + ", array length " + elements.length);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private T elementAt(int index)
+	{
+		return (T) elements[index];
+	}
+
+	private class ArrayTwoWayQueueIterator implements Iterator<T>
+	{
+		int cursor;
+		int remaining;
+		int savedModCount;
+
+		/**
+		 * Starts the iterator at the last element in the queue and walks towards the
+		 * first element
+		 */
+		public ArrayTwoWayQueueIterator()
+		{
+			this.cursor = tail;
+			this.remaining = size();
+			this.savedModCount = modCount;
+		}
+
+		/**
+		 * Checks if there are elements left to visit
+		 *
+		 * @return if the iterator can do the next method again
+		 */
+		@Override
+		public boolean hasNext()
+		{
+			if (savedModCount != ArrayTwoWayQueue.this.modCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+			return remaining > 0;
+		}
+
+		/**
+		 * Returns the next element towards the front of the queue
+		 *
+		 * @return the next element
+		 */
+		@Override
+		public T next()
+		{
+			if (savedModCount != ArrayTwoWayQueue.this.modCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+			if (remaining == 0)
+			{
+				throw new NoSuchElementException();
+			}
+
+			cursor = (cursor - 1) & (elements.length - 1);
+			remaining--;
+			return elementAt(cursor);
+		}
+	}
+
+	private class ArrayTwoWayQueueSpliterator implements Spliterator<T>
+	{
+		final Object[] array;
+		final int savedModCount;
+		int cursor;
+		int remaining;
+
+		/**
+		 * Covers the given number of elements, walking down from just after cursor
+		 */
+		ArrayTwoWayQueueSpliterator(Object[] array, int cursor, int remaining, int savedModCount)
+		{
+			this.array = array;
+			this.cursor = cursor;
+			this.remaining = remaining;
+			this.savedModCount = savedModCount;
+		}
+
+		/**
+		 * Hands the first half of the remaining elements to a new spliterator
+		 */
+		@Override
+		public Spliterator<T> trySplit()
+		{
+			int half = remaining >>> 1;
+			if (half == 0)
+			{
+				return null;
+			}
+
+			Spliterator<T> prefix = new ArrayTwoWayQueueSpliterator(array, cursor, half, savedModCount);
+			cursor = (cursor - half) & (array.length - 1);
+			remaining -= half;
+			return prefix;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action)
+		{
+			if (action == null)
+			{
+				throw new NullPointerException();
+			}
+			if (remaining == 0)
+			{
+				return false;
+			}
+
+			cursor = (cursor - 1) & (array.length - 1);
+			remaining--;
+			action.accept(get(cursor));
+			checkForComodification();
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super T> action)
+		{
+			if (action == null)
+			{
+				throw new NullPointerException();
+			}
+
+			int mask = array.length - 1;
+			int i = cursor;
+			for (int n = remaining; n > 0; n--)
+			{
+				i = (i - 1) & mask;
+				action.accept(get(i));
+			}
+			cursor = i;
+			remaining = 0;
+			checkForComodification();
+		}
+
+		@Override
+		public long estimateSize()
+		{
+			return remaining;
+		}
+
+		@Override
+		public int characteristics()
+		{
+			return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+		}
+
+		private void checkForComodification()
+		{
+			if (savedModCount != ArrayTwoWayQueue.this.modCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private T get(int index)
+		{
+			return (T) array[index];
+		}
+	}
+}
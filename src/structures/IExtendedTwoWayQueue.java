@@ -0,0 +1,176 @@
+package structures;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * This interface extends the two-way queue with operations that are not part
+ * of the original assignment interface, which must stay unaltered.
+ *
+ * @author Michael Horn
+ * @version 1.0
+ */
+public interface IExtendedTwoWayQueue<T> extends IStreamableTwoWayQueue<T>
+{
+	/**
+	 * Returns an iterator that runs the other way from iterator(): from the first
+	 * element in the queue to the last. Like iterator(), it fails fast if the queue
+	 * is changed while it is in use.
+	 *
+	 * @return an iterator from the first element to the last
+	 */
+	public Iterator<T> descendingIterator();
+
+	/**
+	 * Removes and returns the first element in the queue, or returns null if the
+	 * queue is empty. Since null elements are allowed, check isEmpty() instead if
+	 * the queue may hold nulls.
+	 *
+	 * @return the first element, or null if the queue is empty
+	 */
+	public T pollFirst();
+
+	/**
+	 * Removes and returns the last element in the queue, or returns null if the
+	 * queue is empty. Since null elements are allowed, check isEmpty() instead if
+	 * the queue may hold nulls.
+	 *
+	 * @return the last element, or null if the queue is empty
+	 */
+	public T pollLast();
+
+	/**
+	 * Returns the first element in the queue without removing it.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and peekFirst() is called
+	 * @return the first element
+	 */
+	public T peekFirst();
+
+	/**
+	 * Returns the last element in the queue without removing it.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and peekLast() is called
+	 * @return the last element
+	 */
+	public T peekLast();
+
+	/**
+	 * Returns the element at the given position without removing it, counting
+	 * from the front of the queue: get(0) is the element dequeueFirst() would
+	 * return and get(size() - 1) the one dequeueLast() would return.
+	 *
+	 * @param index
+	 *            the position of the element, from the front of the queue
+	 * @return the element at that position
+	 * @throws IndexOutOfBoundsException
+	 *             if index is negative or not less than size()
+	 */
+	public T get(int index);
+
+	/**
+	 * Adds a range of an array to the front of the queue. The result is the same
+	 * as calling enqueueFirst() for each element in the range, in order.
+	 *
+	 * @param elements
+	 *            an array of elements
+	 * @param offset
+	 *            the index of the first element to add
+	 * @param length
+	 *            the number of elements to add
+	 * @throws IndexOutOfBoundsException
+	 *             if the range does not fit inside the array
+	 */
+	public void enqueueAllFirst(T[] elements, int offset, int length);
+
+	/**
+	 * Adds a range of an array to the end of the queue. The result is the same as
+	 * calling enqueueLast() for each element in the range, in order.
+	 *
+	 * @param elements
+	 *            an array of elements
+	 * @param offset
+	 *            the index of the first element to add
+	 * @param length
+	 *            the number of elements to add
+	 * @throws IndexOutOfBoundsException
+	 *             if the range does not fit inside the array
+	 */
+	public void enqueueAllLast(T[] elements, int offset, int length);
+
+	/**
+	 * Adds a group of elements to the front of the queue, in the collection's
+	 * iteration order.
+	 *
+	 * @param elements
+	 *            a collection of elements
+	 */
+	public void enqueueAllFirst(Collection<? extends T> elements);
+
+	/**
+	 * Adds a group of elements to the end of the queue, in the collection's
+	 * iteration order.
+	 *
+	 * @param elements
+	 *            a collection of elements
+	 */
+	public void enqueueAllLast(Collection<? extends T> elements);
+
+	/**
+	 * Removes every element from the queue and adds it to the given collection,
+	 * from the first element to the last. Unlike dequeueAll(), an empty queue is
+	 * not an error.
+	 *
+	 * @param sink
+	 *            the collection to receive the elements
+	 * @return the number of elements moved
+	 */
+	public int drainTo(Collection<? super T> sink);
+
+	/**
+	 * Removes elements from the front of the queue and stores them in the given
+	 * array starting at offset, until the queue is empty or the array is full.
+	 *
+	 * @param dest
+	 *            the array to receive the elements
+	 * @param offset
+	 *            the index of the first slot to fill
+	 * @return the number of elements moved
+	 * @throws IndexOutOfBoundsException
+	 *             if offset is negative or greater than the array length
+	 */
+	public int drainTo(T[] dest, int offset);
+
+	/**
+	 * Removes up to maxElements elements from the front of the queue and passes
+	 * each one to the given consumer, in the order dequeueFirst() would return
+	 * them.
+	 *
+	 * @param maxElements
+	 *            the largest number of elements to remove
+	 * @param sink
+	 *            the consumer to receive the elements
+	 * @return the number of elements moved
+	 * @throws IllegalArgumentException
+	 *             if maxElements is negative
+	 */
+	public int drainFirst(int maxElements, Consumer<? super T> sink);
+
+	/**
+	 * Removes up to maxElements elements from the end of the queue and passes
+	 * each one to the given consumer, in the order dequeueLast() would return
+	 * them.
+	 *
+	 * @param maxElements
+	 *            the largest number of elements to remove
+	 * @param sink
+	 *            the consumer to receive the elements
+	 * @return the number of elements moved
+	 * @throws IllegalArgumentException
+	 *             if maxElements is negative
+	 */
+	public int drainLast(int maxElements, Consumer<? super T> sink);
+}
@@ -0,0 +1,41 @@
+/**
+ * Michael Horn
+ * Oct 18, 2026
+ * IStreamableTwoWayQueue.java
+ */
+package structures;
+
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A two-way queue that can be processed with streams. Implementations override
+ * spliterator() so that parallel streams split the queue evenly.
+ *
+ * @author Michael Horn
+ * @version 1.0
+ */
+public interface IStreamableTwoWayQueue<T> extends ITwoWayQueue<T>
+{
+	/**
+	 * Returns a sequential stream over the queue, in the same order as its
+	 * iterator.
+	 *
+	 * @return a stream of the elements in the queue
+	 */
+	public default Stream<T> stream()
+	{
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	/**
+	 * Returns a parallel stream over the queue, in the same order as its iterator.
+	 * The queue must not be changed while the stream runs.
+	 *
+	 * @return a possibly parallel stream of the elements in the queue
+	 */
+	public default Stream<T> parallelStream()
+	{
+		return StreamSupport.stream(spliterator(), true);
+	}
+}
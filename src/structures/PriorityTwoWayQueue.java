@@ -0,0 +1,575 @@
+/**
+ * Michael Horn
+ * Oct 18, 2026
+ * PriorityTwoWayQueue.java
+ */
+package structures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+import exceptions.EmptyQueueException;
+
+/**
+ * A double-ended priority queue backed by a min-max heap. The front of the queue
+ * is the greatest element under the comparator and the end is the least, so
+ * dequeueFirst() removes the maximum and dequeueLast() the minimum.
+ *
+ * In a min-max heap the levels of the tree alternate between min levels and max
+ * levels: every element on a min level is no greater than anything below it,
+ * and every element on a max level no less. The minimum is the root and the
+ * maximum one of its two children. Both are found in O(1), and inserting or
+ * removing at either end takes O(log n). enqueueFirst() and enqueueLast() both
+ * insert by priority, since an element's position is set by the comparator.
+ * enqueueAllFirst() and enqueueAllLast() rebuild the heap bottom-up in O(n)
+ * when that is cheaper than inserting one element at a time.
+ *
+ * Elements that compare equal are dequeued in no particular order. Null
+ * elements are not allowed. dequeueAll() and the iterator sort a copy of the
+ * heap, so they take O(n log n).
+ *
+ * @author Michael Horn
+ * @version 1.0
+ */
+public class PriorityTwoWayQueue<T> implements IStreamableTwoWayQueue<T>
+{
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+	private final Comparator<? super T> comparator;
+	private Object[] heap;
+	private int size;
+	private int modCount;
+
+	/**
+	 * Creates an empty queue ordered by the elements' natural ordering
+	 */
+	@SuppressWarnings("unchecked")
+	public PriorityTwoWayQueue()
+	{
+		this((Comparator<? super T>) Comparator.naturalOrder());
+	}
+
+	/**
+	 * Creates an empty queue ordered by the given comparator
+	 *
+	 * @param comparator
+	 *            decides which elements are greater, and so closer to the front
+	 */
+	public PriorityTwoWayQueue(Comparator<? super T> comparator)
+	{
+		this(comparator, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates an empty queue ordered by the given comparator that can hold at
+	 * least the given number of elements before resizing
+	 *
+	 * @param comparator
+	 *            decides which elements are greater, and so closer to the front
+	 * @param initialCapacity
+	 *            the number of elements to make room for
+	 */
+	public PriorityTwoWayQueue(Comparator<? super T> comparator, int initialCapacity)
+	{
+		if (comparator == null)
+		{
+			throw new NullPointerException("Comparator cannot be null");
+		}
+		if (initialCapacity < 0)
+		{
+			throw new IllegalArgumentException("Capacity cannot be negative: " + initialCapacity);
+		}
+		this.comparator = comparator;
+		this.heap = new Object[Math.max(1, initialCapacity)];
+	}
+
+	/**
+	 * Returns the comparator that orders the queue
+	 *
+	 * @return the comparator
+	 */
+	public Comparator<? super T> comparator()
+	{
+		return comparator;
+	}
+
+	/**
+	 * Removes and returns the greatest element in the queue.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueFirst() is called
+	 * @return the greatest element
+	 */
+	@Override
+	public T dequeueFirst()
+	{
+		modCount++;
+		if (size == 0)
+		{
+			throw EmptyQueueException.instance();
+		}
+		return removeAt(maxIndex());
+	}
+
+	/**
+	 * Removes and returns the least element in the queue.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueLast() is called
+	 * @return the least element
+	 */
+	@Override
+	public T dequeueLast()
+	{
+		modCount++;
+		if (size == 0)
+		{
+			throw EmptyQueueException.instance();
+		}
+		return removeAt(0);
+	}
+
+	/**
+	 * Removes and returns the greatest element in the queue.
+	 *
+	 * @return the greatest element, or null if the queue is empty
+	 */
+	public T pollFirst()
+	{
+		return size == 0 ? null : dequeueFirst();
+	}
+
+	/**
+	 * Removes and returns the least element in the queue.
+	 *
+	 * @return the least element, or null if the queue is empty
+	 */
+	public T pollLast()
+	{
+		return size == 0 ? null : dequeueLast();
+	}
+
+	/**
+	 * Returns the greatest element in the queue without removing it.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty
+	 * @return the greatest element
+	 */
+	public T peekFirst()
+	{
+		if (size == 0)
+		{
+			throw EmptyQueueException.instance();
+		}
+		return elementAt(maxIndex());
+	}
+
+	/**
+	 * Returns the least element in the queue without removing it.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty
+	 * @return the least element
+	 */
+	public T peekLast()
+	{
+		if (size == 0)
+		{
+			throw EmptyQueueException.instance();
+		}
+		return elementAt(0);
+	}
+
+	/**
+	 * Removes and returns all elements in the queue, sorted from the least at
+	 * index zero to the greatest at the last index.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueAll() is called
+	 * @return a list of all elements in the queue
+	 */
+	@Override
+	public List<T> dequeueAll()
+	{
+		modCount++;
+		if (size == 0)
+		{
+			throw EmptyQueueException.instance();
+		}
+
+		List<T> list = new ArrayList<>(size);
+		for (Object element : sortedCopy())
+		{
+			list.add(unchecked(element));
+		}
+		Arrays.fill(heap, 0, size, null);
+		size = 0;
+		return list;
+	}
+
+	/**
+	 * Inserts an element by priority. Same as enqueueLast().
+	 *
+	 * @param element
+	 *            the new element
+	 */
+	@Override
+	public void enqueueFirst(T element)
+	{
+		insert(element);
+	}
+
+	/**
+	 * Inserts an element by priority. Same as enqueueFirst().
+	 *
+	 * @param element
+	 *            the new element
+	 */
+	@Override
+	public void enqueueLast(T element)
+	{
+		insert(element);
+	}
+
+	/**
+	 * Inserts a group of elements by priority. Same as enqueueAllLast().
+	 *
+	 * @param elements
+	 *            an array of elements
+	 */
+	@Override
+	public void enqueueAllFirst(T[] elements)
+	{
+		insertAll(elements);
+	}
+
+	/**
+	 * Inserts a group of elements by priority. If the group is large compared to
+	 * the queue, the heap is rebuilt in O(n) instead of inserting each element in
+	 * O(log n).
+	 *
+	 * @param elements
+	 *            an array of elements
+	 */
+	@Override
+	public void enqueueAllLast(T[] elements)
+	{
+		insertAll(elements);
+	}
+
+	@Override
+	public int size()
+	{
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	@Override
+	public void clear()
+	{
+		modCount++;
+		Arrays.fill(heap, 0, size, null);
+		size = 0;
+	}
+
+	/**
+	 * Returns an iterator over the elements from the least to the greatest, i.e.
+	 * from the last element to the first. The elements are sorted when the
+	 * iterator is created, and the iterator fails fast if the queue changes.
+	 *
+	 * @return an object using the Iterator<T> interface
+	 */
+	@Override
+	public Iterator<T> iterator()
+	{
+		return new PriorityIterator(sortedCopy());
+	}
+
+	/**
+	 * Returns a spliterator over the elements from the least to the greatest. It
+	 * sorts the elements when it is created and splits by index range.
+	 *
+	 * @return a spliterator over the elements of the queue
+	 */
+	@Override
+	public Spliterator<T> spliterator()
+	{
+		return Spliterators.spliterator(sortedCopy(), Spliterator.ORDERED | Spliterator.NONNULL);
+	}
+
+	private void insert(T element)
+	{
+		if (element == null)
+		{
+			throw new NullPointerException("Element cannot be null");
+		}
+		modCount++;
+		ensureCapacity(size + 1);
+		heap[size] = element;
+		pushUp(size++);
+	}
+
+	private void insertAll(T[] elements)
+	{
+		for (T element : elements)
+		{
+			if (element == null)
+			{
+				throw new NullPointerException("Element cannot be null");
+			}
+		}
+		if (elements.length == 0)
+		{
+			return;
+		}
+
+		modCount++;
+		int total = size + elements.length;
+		ensureCapacity(total);
+
+		// rebuilding costs about 2 comparisons per element, inserting about
+		// log2(n) per new element
+		int log = 31 - Integer.numberOfLeadingZeros(total);
+		if ((long) elements.length * log <= 2L * total)
+		{
+			for (T element : elements)
+			{
+				heap[size] = element;
+				pushUp(size++);
+			}
+		} else
+		{
+			System.arraycopy(elements, 0, heap, size, elements.length);
+			size = total;
+			for (int i = size / 2 - 1; i >= 0; i--)
+			{
+				pushDown(i);
+			}
+		}
+	}
+
+	/**
+	 * Removes the element at an index and restores the heap
+	 */
+	private T removeAt(int index)
+	{
+		T element = elementAt(index);
+		int last = --size;
+		Object moved = heap[last];
+		heap[last] = null;
+		if (index != last)
+		{
+			heap[index] = moved;
+			pushDown(index);
+		}
+		return element;
+	}
+
+	/**
+	 * Returns the index of the greatest element, which is the root or one of its
+	 * children. The queue must not be empty.
+	 */
+	private int maxIndex()
+	{
+		if (size == 1)
+		{
+			return 0;
+		}
+		if (size == 2)
+		{
+			return 1;
+		}
+		return compare(1, 2) >= 0 ? 1 : 2;
+	}
+
+	private static boolean isMinLevel(int index)
+	{
+		// the level is the number of bits in index + 1, minus one
+		return ((31 - Integer.numberOfLeadingZeros(index + 1)) & 1) == 0;
+	}
+
+	private void pushUp(int index)
+	{
+		if (index == 0)
+		{
+			return;
+		}
+
+		int parent = (index - 1) / 2;
+		if (isMinLevel(index))
+		{
+			if (compare(index, parent) > 0)
+			{
+				swap(index, parent);
+				pushUp(parent, 1);
+			} else
+			{
+				pushUp(index, -1);
+			}
+		} else
+		{
+			if (compare(index, parent) < 0)
+			{
+				swap(index, parent);
+				pushUp(parent, -1);
+			} else
+			{
+				pushUp(index, 1);
+			}
+		}
+	}
+
+	/**
+	 * Moves an element up through its grandparents while it is on the wrong side
+	 * of them: direction is -1 on min levels and 1 on max levels
+	 */
+	private void pushUp(int index, int direction)
+	{
+		while (index > 2)
+		{
+			int grandparent = (index - 3) / 4;
+			if (Integer.signum(compare(index, grandparent)) != direction)
+			{
+				return;
+			}
+			swap(index, grandparent);
+			index = grandparent;
+		}
+	}
+
+	private void pushDown(int index)
+	{
+		int direction = isMinLevel(index) ? -1 : 1;
+		while (true)
+		{
+			int child = 2 * index + 1;
+			if (child >= size)
+			{
+				return;
+			}
+
+			// find the most extreme of the children and grandchildren
+			int extreme = child;
+			if (child + 1 < size && Integer.signum(compare(child + 1, extreme)) == direction)
+			{
+				extreme = child + 1;
+			}
+			int grandchild = 2 * child + 1;
+			for (int i = grandchild; i < grandchild + 4 && i < size; i++)
+			{
+				if (Integer.signum(compare(i, extreme)) == direction)
+				{
+					extreme = i;
+				}
+			}
+
+			if (Integer.signum(compare(extreme, index)) != direction)
+			{
+				return;
+			}
+			swap(extreme, index);
+			if (extreme <= child + 1)
+			{
+				return;
+			}
+
+			// the element that moved into the grandchild's place may belong above
+			// its new parent, on the level of the opposite kind
+			int parent = (extreme - 1) / 2;
+			if (Integer.signum(compare(extreme, parent)) == -direction)
+			{
+				swap(extreme, parent);
+			}
+			index = extreme;
+		}
+	}
+
+	private Object[] sortedCopy()
+	{
+		Object[] copy = Arrays.copyOf(heap, size);
+		Arrays.sort(copy, (a, b) -> comparator.compare(unchecked(a), unchecked(b)));
+		return copy;
+	}
+
+	private void ensureCapacity(int capacity)
+	{
+		if (capacity < 0 || capacity > MAX_CAPACITY)
+		{
+			throw new IllegalStateException("Queue full");
+		}
+		if (capacity > heap.length)
+		{
+			heap = Arrays.copyOf(heap, (int) Math.min(MAX_CAPACITY, Math.max(capacity, 2L * heap.length)));
+		}
+	}
+
+	private int compare(int i, int j)
+	{
+		return comparator.compare(elementAt(i), elementAt(j));
+	}
+
+	private void swap(int i, int j)
+	{
+		Object temp = heap[i];
+		heap[i] = heap[j];
+		heap[j] = temp;
+	}
+
+	private T elementAt(int index)
+	{
+		return unchecked(heap[index]);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T unchecked(Object element)
+	{
+		return (T) element;
+	}
+
+	private class PriorityIterator implements Iterator<T>
+	{
+		private final Object[] sorted;
+		private int index;
+		private final int savedModCount;
+
+		public PriorityIterator(Object[] sorted)
+		{
+			this.sorted = sorted;
+			this.savedModCount = modCount;
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			if (savedModCount != modCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+			return index < sorted.length;
+		}
+
+		@Override
+		public T next()
+		{
+			if (!hasNext())
+			{
+				throw new NoSuchElementException();
+			}
+			return unchecked(sorted[index++]);
+		}
+	}
+}
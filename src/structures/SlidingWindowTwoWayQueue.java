@@ -0,0 +1,374 @@
+/**
+ * Michael Horn
+ * Oct 18, 2026
+ * SlidingWindowTwoWayQueue.java
+ */
+package structures;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.LongSupplier;
+import java.util.function.ToDoubleFunction;
+
+import structures.primitive.DoubleTwoWayQueue;
+import structures.primitive.LongTwoWayQueue;
+
+/**
+ * A two-way queue that only keeps the elements added within a sliding window of
+ * time, and keeps running statistics over a numeric value of those elements.
+ *
+ * New elements go to the front with enqueueFirst(), stamped with the current
+ * time, so the queue runs from the newest element at the front to the oldest
+ * at the end. An element expires once the window has passed since its
+ * timestamp. Every enqueue first removes the expired elements from the end, and
+ * evict() does the same on demand. Each expired element is removed in O(1), so
+ * eviction is amortized O(1) per element added. Adding at the end would break
+ * the time order, so enqueueLast() and enqueueAllLast() throw
+ * UnsupportedOperationException.
+ *
+ * The count, sum, mean and variance of the values in the queue are updated as
+ * elements come and go, so reading them is O(1). The mean and variance use
+ * Welford's method, which stays accurate when large values are added and
+ * removed. The statistics describe the elements in the queue; call evict()
+ * before reading them if no element has been added for a while.
+ *
+ * Elements, timestamps and values are kept in three parallel circular arrays,
+ * so adding an element allocates nothing once the arrays are large enough.
+ *
+ * @author Michael Horn
+ * @version 1.0
+ */
+public class SlidingWindowTwoWayQueue<T> implements IStreamableTwoWayQueue<T>
+{
+	private final long window;
+	private final LongSupplier clock;
+	private final ToDoubleFunction<? super T> valueFunction;
+
+	private final ArrayTwoWayQueue<T> elements = new ArrayTwoWayQueue<>();
+	private final LongTwoWayQueue timestamps = new LongTwoWayQueue();
+	private final DoubleTwoWayQueue values = new DoubleTwoWayQueue();
+
+	private double sum;
+	private double mean;
+	private double squaredDeviations;
+
+	/**
+	 * Creates an empty queue that keeps the elements added within the given
+	 * duration, timed by System.nanoTime()
+	 *
+	 * @param window
+	 *            how long an element stays in the queue
+	 * @param valueFunction
+	 *            gives the value of an element for the statistics
+	 */
+	public SlidingWindowTwoWayQueue(Duration window, ToDoubleFunction<? super T> valueFunction)
+	{
+		this(window.toNanos(), System::nanoTime, valueFunction);
+	}
+
+	/**
+	 * Creates an empty queue that keeps the elements added within the given
+	 * window, timed by the given clock
+	 *
+	 * @param window
+	 *            how long an element stays in the queue, in the clock's units
+	 * @param clock
+	 *            returns the current time; it must never go backwards
+	 * @param valueFunction
+	 *            gives the value of an element for the statistics
+	 */
+	public SlidingWindowTwoWayQueue(long window, LongSupplier clock, ToDoubleFunction<? super T> valueFunction)
+	{
+		if (window <= 0)
+		{
+			throw new IllegalArgumentException("Window must be positive: " + window);
+		}
+		this.window = window;
+		this.clock = clock;
+		this.valueFunction = valueFunction;
+	}
+
+	/**
+	 * Returns the length of the window, in the clock's units
+	 *
+	 * @return the length of the window
+	 */
+	public long getWindow()
+	{
+		return window;
+	}
+
+	/**
+	 * Removes every element whose window has passed.
+	 *
+	 * @return the number of elements removed
+	 */
+	public int evict()
+	{
+		return evict(clock.getAsLong());
+	}
+
+	/**
+	 * Removes every element that has expired by the given time.
+	 *
+	 * @param now
+	 *            the current time, in the clock's units
+	 * @return the number of elements removed
+	 */
+	public int evict(long now)
+	{
+		int evicted = 0;
+		while (!timestamps.isEmpty() && now - timestamps.peekLast() >= window)
+		{
+			dequeueLast();
+			evicted++;
+		}
+		return evicted;
+	}
+
+	/**
+	 * Removes expired elements and then adds a new element to the front of the
+	 * queue, stamped with the current time.
+	 *
+	 * @param element
+	 *            the new element
+	 */
+	@Override
+	public void enqueueFirst(T element)
+	{
+		enqueueFirst(element, clock.getAsLong());
+	}
+
+	/**
+	 * Removes expired elements and then adds a new element to the front of the
+	 * queue with the given timestamp.
+	 *
+	 * @param element
+	 *            the new element
+	 * @param timestamp
+	 *            when the element was added, in the clock's units
+	 * @throws IllegalArgumentException
+	 *             if the timestamp is older than the newest element's
+	 */
+	public void enqueueFirst(T element, long timestamp)
+	{
+		if (!timestamps.isEmpty() && timestamp < timestamps.peekFirst())
+		{
+			throw new IllegalArgumentException(
+					"Timestamp " + timestamp + " is older than the newest element's " + timestamps.peekFirst());
+		}
+		evict(timestamp);
+
+		double value = valueFunction.applyAsDouble(element);
+		elements.enqueueFirst(element);
+		timestamps.enqueueFirst(timestamp);
+		values.enqueueFirst(value);
+		add(value);
+	}
+
+	/**
+	 * Removes expired elements and then adds a group of elements to the front of
+	 * the queue, all stamped with the current time.
+	 *
+	 * @param elements
+	 *            an array of elements
+	 */
+	@Override
+	public void enqueueAllFirst(T[] elements)
+	{
+		long timestamp = clock.getAsLong();
+		for (T element : elements)
+		{
+			enqueueFirst(element, timestamp);
+		}
+	}
+
+	/**
+	 * Removes and returns the newest element in the queue.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueFirst() is called
+	 * @return the newest element
+	 */
+	@Override
+	public T dequeueFirst()
+	{
+		T element = elements.dequeueFirst();
+		timestamps.dequeueFirst();
+		remove(values.dequeueFirst());
+		return element;
+	}
+
+	/**
+	 * Removes and returns the oldest element in the queue.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueLast() is called
+	 * @return the oldest element
+	 */
+	@Override
+	public T dequeueLast()
+	{
+		T element = elements.dequeueLast();
+		timestamps.dequeueLast();
+		remove(values.dequeueLast());
+		return element;
+	}
+
+	/**
+	 * Removes and returns all elements in the queue. The newest element is
+	 * located at the last index of the resulting list and the oldest element at
+	 * index zero.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueAll() is called
+	 * @return a list of all elements in the queue
+	 */
+	@Override
+	public List<T> dequeueAll()
+	{
+		List<T> all = elements.dequeueAll();
+		timestamps.clear();
+		values.clear();
+		resetStatistics();
+		return all;
+	}
+
+	/**
+	 * Not supported: the end of the queue holds the oldest elements.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void enqueueLast(T element)
+	{
+		throw new UnsupportedOperationException("A sliding window only adds new elements at the front");
+	}
+
+	/**
+	 * Not supported: the end of the queue holds the oldest elements.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void enqueueAllLast(T[] elements)
+	{
+		throw new UnsupportedOperationException("A sliding window only adds new elements at the front");
+	}
+
+	@Override
+	public int size()
+	{
+		return elements.size();
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return elements.isEmpty();
+	}
+
+	@Override
+	public void clear()
+	{
+		elements.clear();
+		timestamps.clear();
+		values.clear();
+		resetStatistics();
+	}
+
+	/**
+	 * Returns the number of elements in the queue. Same as size().
+	 *
+	 * @return the number of elements
+	 */
+	public int getCount()
+	{
+		return elements.size();
+	}
+
+	/**
+	 * Returns the sum of the values in the queue, or 0 if it is empty
+	 *
+	 * @return the sum of the values
+	 */
+	public double getSum()
+	{
+		return sum;
+	}
+
+	/**
+	 * Returns the mean of the values in the queue, or 0 if it is empty
+	 *
+	 * @return the mean of the values
+	 */
+	public double getMean()
+	{
+		return mean;
+	}
+
+	/**
+	 * Returns the population variance of the values in the queue, or 0 if it has
+	 * fewer than two elements
+	 *
+	 * @return the variance of the values
+	 */
+	public double getVariance()
+	{
+		int count = elements.size();
+		return count < 2 ? 0 : squaredDeviations / count;
+	}
+
+	/**
+	 * Returns an iterator over the elements from the oldest to the newest. It
+	 * fails fast if the queue changes.
+	 *
+	 * @return an object using the Iterator<T> interface
+	 */
+	@Override
+	public Iterator<T> iterator()
+	{
+		return elements.iterator();
+	}
+
+	@Override
+	public Spliterator<T> spliterator()
+	{
+		return elements.spliterator();
+	}
+
+	private void add(double value)
+	{
+		int count = elements.size();
+		double delta = value - mean;
+		mean += delta / count;
+		squaredDeviations += delta * (value - mean);
+		sum += value;
+	}
+
+	private void remove(double value)
+	{
+		int count = elements.size();
+		if (count == 0)
+		{
+			// start from exact zeros rather than carry rounding error forward
+			resetStatistics();
+			return;
+		}
+		double delta = value - mean;
+		mean -= delta / count;
+		squaredDeviations = Math.max(0, squaredDeviations - delta * (value - mean));
+		sum -= value;
+	}
+
+	private void resetStatistics()
+	{
+		sum = 0;
+		mean = 0;
+		squaredDeviations = 0;
+	}
+}
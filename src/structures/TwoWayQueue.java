@@ -6,9 +6,14 @@
 package structures;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 import exceptions.EmptyQueueException;
 
@@ -16,18 +21,43 @@ import exceptions.EmptyQueueException;
  * @author Michael Horn & Anthony Thompson
  * @version 1.0
  */
-public class TwoWayQueue<T> implements ITwoWayQueue<T>
+public class TwoWayQueue<T> implements IExtendedTwoWayQueue<T>
 {
 
 	TwoWayNode head;
+	TwoWayNode tail;
+	private int size;
 	private int modCount;
 
+	private final int maxPooledNodes;
+	private TwoWayNode pool;
+	private int pooledNodes;
+
 	/**
-	 * The TwoWayQueue constructor stores a head object for itself which is null when initialized
+	 * The TwoWayQueue constructor creates an empty queue. The head and tail nodes are null
+	 * until an element is added, so null elements can be stored like any other value.
 	 */
 	public TwoWayQueue()
 	{
-		this.head = new TwoWayNode(null, null, null);
+		this(0);
+	}
+
+	/**
+	 * Creates an empty queue that keeps up to maxPooledNodes removed nodes on a free list
+	 * and reuses them for later enqueues, instead of allocating a new node each time.
+	 *
+	 * @param maxPooledNodes
+	 *            the largest number of nodes to keep for reuse, or 0 to never reuse nodes
+	 */
+	public TwoWayQueue(int maxPooledNodes)
+	{
+		if (maxPooledNodes < 0)
+		{
+			throw new IllegalArgumentException("Pool size cannot be negative: " + maxPooledNodes);
+		}
+		this.head = null;
+		this.tail = null;
+		this.maxPooledNodes = maxPooledNodes;
 	}
 
 	/**
@@ -45,21 +75,10 @@ public class TwoWayQueue<T> implements ITwoWayQueue<T>
 
 		if (isEmpty())
 		{
-			throw new EmptyQueueException();
-		}
-
-		T returnElement = head.getData();
-
-		if (head.next != null)
-		{
-			head.setData(head.getNext().getData());
-			head.setNext(head.getNext().getNext());
-		} else
-		{
-			head.setData(null);
+			throw EmptyQueueException.instance();
 		}
 
-		return returnElement;
+		return unlinkFirst();
 	}
 
 	/**
@@ -74,30 +93,39 @@ public class TwoWayQueue<T> implements ITwoWayQueue<T>
 	public T dequeueLast()
 	{
 		modCount++;
-		TwoWayNode current = head;
-		T returnElement;
 
 		if (isEmpty())
 		{
-			throw new EmptyQueueException();
+			throw EmptyQueueException.instance();
 		}
 
-		if (head.next == null)
-		{
-			returnElement = head.getData();
-			head.setData(null);
-			return returnElement;
-		} else
-		{
-			while (current.getNext().getNext() != null)
-			{
-				current = current.next;
-			}
+		return unlinkLast();
+	}
 
-			returnElement = current.getNext().getData();
-			current.setNext(null);
-			return returnElement;
-		}
+	/**
+	 * Removes and returns the first element in the queue, or returns null if the
+	 * queue is empty. Since null elements are allowed, check isEmpty() instead if
+	 * the queue may hold nulls.
+	 *
+	 * @return the first element, or null if the queue is empty
+	 */
+	@Override
+	public T pollFirst()
+	{
+		return isEmpty() ? null : dequeueFirst();
+	}
+
+	/**
+	 * Removes and returns the last element in the queue, or returns null if the
+	 * queue is empty. Since null elements are allowed, check isEmpty() instead if
+	 * the queue may hold nulls.
+	 *
+	 * @return the last element, or null if the queue is empty
+	 */
+	@Override
+	public T pollLast()
+	{
+		return isEmpty() ? null : dequeueLast();
 	}
 
 	/**
@@ -113,22 +141,20 @@ public class TwoWayQueue<T> implements ITwoWayQueue<T>
 		modCount++;
 		if (isEmpty())
 		{
-			throw new EmptyQueueException();
+			throw EmptyQueueException.instance();
 		}
-		TwoWayNode tail = head;
-		ArrayList<T> list = new ArrayList<>();
-		while (tail.getNext() != null)
+		ArrayList<T> list = new ArrayList<>(size);
+		TwoWayNode current = tail;
+		while (current != null)
 		{
-			tail = tail.next;
+			TwoWayNode previous = current.previous;
+			list.add(current.getData());
+			recycle(current);
+			current = previous;
 		}
-		while (tail.getPrevious() != null)
-		{
-			list.add(tail.getData());
-			tail = tail.previous;
-		}
-		list.add(head.getData());
-		head.setData(null);
-		head.setNext(null);
+		head = null;
+		tail = null;
+		size = 0;
 		return list;
 	}
 
@@ -143,19 +169,16 @@ public class TwoWayQueue<T> implements ITwoWayQueue<T>
 	public void enqueueFirst(T element)
 	{
 		modCount++;
-		if (head.getData() == null)
+		TwoWayNode added = newNode(element, head, null);
+		if (isEmpty())
 		{
-			head = new TwoWayNode(element, null, null);
+			tail = added;
 		} else
 		{
-			TwoWayNode current = new TwoWayNode(head.getData(), head.next, head);
-			head.setData(element);
-			if (head.next != null)
-			{
-				head.next.setPrevious(current);
-			}
-			head.setNext(current);
+			head.setPrevious(added);
 		}
+		head = added;
+		size++;
 	}
 
 	/**
@@ -169,18 +192,16 @@ public class TwoWayQueue<T> implements ITwoWayQueue<T>
 	public void enqueueLast(T element)
 	{
 		modCount++;
-		if (head.getData() == null)
+		TwoWayNode added = newNode(element, null, tail);
+		if (isEmpty())
 		{
-			head = new TwoWayNode(element, null, null);
+			head = added;
 		} else
 		{
-			TwoWayNode current = head;
-			while (current.getNext() != null)
-			{
-				current = current.next;
-			}
-			current.next = new TwoWayNode(element, null, current);
+			tail.setNext(added);
 		}
+		tail = added;
+		size++;
 	}
 
 	/**
@@ -192,12 +213,65 @@ public class TwoWayQueue<T> implements ITwoWayQueue<T>
 	@Override
 	public void enqueueAllFirst(T[] elements)
 	{
-		for (T element : elements)
+		enqueueAllFirst(elements, 0, elements.length);
+	}
+
+	/**
+	 * Adds a range of an array to the front of the queue. The range is linked into
+	 * a chain first and then spliced in front of the head in one step.
+	 *
+	 * @param elements
+	 *            an array of elements to be added to the beginning of the queue
+	 * @param offset
+	 *            the index of the first element to add
+	 * @param length
+	 *            the number of elements to add
+	 */
+	@Override
+	public void enqueueAllFirst(T[] elements, int offset, int length)
+	{
+		checkRange(elements, offset, length);
+		TwoWayNode first = null;
+		TwoWayNode last = null;
+		for (int i = offset; i < offset + length; i++)
 		{
-			enqueueFirst(element);
+			first = newNode(elements[i], first, null);
+			if (last == null)
+			{
+				last = first;
+			} else
+			{
+				first.next.setPrevious(first);
+			}
 		}
-		modCount++;
+		spliceFirst(first, last, length);
+	}
 
+	/**
+	 * Adds a collection of elements to the front of the queue, in iteration order.
+	 *
+	 * @param elements
+	 *            a collection of elements to be added to the beginning of the queue
+	 */
+	@Override
+	public void enqueueAllFirst(Collection<? extends T> elements)
+	{
+		TwoWayNode first = null;
+		TwoWayNode last = null;
+		int count = 0;
+		for (T element : elements)
+		{
+			first = newNode(element, first, null);
+			if (last == null)
+			{
+				last = first;
+			} else
+			{
+				first.next.setPrevious(first);
+			}
+			count++;
+		}
+		spliceFirst(first, last, count);
 	}
 
 	/**
@@ -209,71 +283,459 @@ public class TwoWayQueue<T> implements ITwoWayQueue<T>
 	@Override
 	public void enqueueAllLast(T[] elements)
 	{
+		enqueueAllLast(elements, 0, elements.length);
+	}
+
+	/**
+	 * Adds a range of an array to the end of the queue. The range is linked into a
+	 * chain first and then spliced after the tail in one step.
+	 *
+	 * @param elements
+	 *            an array of elements to be added to the end of the queue
+	 * @param offset
+	 *            the index of the first element to add
+	 * @param length
+	 *            the number of elements to add
+	 */
+	@Override
+	public void enqueueAllLast(T[] elements, int offset, int length)
+	{
+		checkRange(elements, offset, length);
+		TwoWayNode first = null;
+		TwoWayNode last = null;
+		for (int i = offset; i < offset + length; i++)
+		{
+			last = newNode(elements[i], null, last);
+			if (first == null)
+			{
+				first = last;
+			} else
+			{
+				last.previous.setNext(last);
+			}
+		}
+		spliceLast(first, last, length);
+	}
+
+	/**
+	 * Adds a collection of elements to the end of the queue, in iteration order.
+	 *
+	 * @param elements
+	 *            a collection of elements to be added to the end of the queue
+	 */
+	@Override
+	public void enqueueAllLast(Collection<? extends T> elements)
+	{
+		TwoWayNode first = null;
+		TwoWayNode last = null;
+		int count = 0;
 		for (T element : elements)
 		{
-			enqueueLast(element);
+			last = newNode(element, null, last);
+			if (first == null)
+			{
+				first = last;
+			} else
+			{
+				last.previous.setNext(last);
+			}
+			count++;
 		}
-		modCount++;
+		spliceLast(first, last, count);
+	}
 
+	/**
+	 * Removes every element from the queue and adds it to the given collection,
+	 * from the first element to the last.
+	 *
+	 * @param sink
+	 *            the collection to receive the elements
+	 * @return the number of elements moved
+	 */
+	@Override
+	public int drainTo(Collection<? super T> sink)
+	{
+		return drainFirst(Integer.MAX_VALUE, sink::add);
 	}
 
 	/**
-	 * Returns the number of elements in the queue.
+	 * Removes elements from the front of the queue into the given array until the
+	 * queue is empty or the array is full.
 	 *
-	 * @return the number of elements in the queue
+	 * @param dest
+	 *            the array to receive the elements
+	 * @param offset
+	 *            the index of the first slot to fill
+	 * @return the number of elements moved
 	 */
 	@Override
-	public int size()
+	public int drainTo(T[] dest, int offset)
 	{
-		int counter = 0;
-		TwoWayNode current = head;
+		if (offset < 0 || offset > dest.length)
+		{
+			throw new IndexOutOfBoundsException("offset " + offset + ", array length " + dest.length);
+		}
+
+		int count = Math.min(size, dest.length - offset);
+		if (count > 0)
+		{
+			modCount++;
+		}
+		for (int i = 0; i < count; i++)
+		{
+			dest[offset + i] = unlinkFirst();
+		}
+		return count;
+	}
 
-		if (head.getData() == null)
+	/**
+	 * Removes up to maxElements elements from the front of the queue and passes
+	 * each one to the given consumer.
+	 *
+	 * @param maxElements
+	 *            the largest number of elements to remove
+	 * @param sink
+	 *            the consumer to receive the elements
+	 * @return the number of elements moved
+	 */
+	@Override
+	public int drainFirst(int maxElements, Consumer<? super T> sink)
+	{
+		if (maxElements < 0)
 		{
-			return 0;
+			throw new IllegalArgumentException("maxElements cannot be negative: " + maxElements);
 		}
 
-		if (current.getData() != null)
+		int count = 0;
+		if (maxElements > 0 && !isEmpty())
 		{
-			counter++;
+			modCount++;
 		}
+		while (count < maxElements && !isEmpty())
+		{
+			sink.accept(unlinkFirst());
+			count++;
+		}
+		return count;
+	}
 
-		while (current.next != null)
+	/**
+	 * Removes up to maxElements elements from the end of the queue and passes each
+	 * one to the given consumer.
+	 *
+	 * @param maxElements
+	 *            the largest number of elements to remove
+	 * @param sink
+	 *            the consumer to receive the elements
+	 * @return the number of elements moved
+	 */
+	@Override
+	public int drainLast(int maxElements, Consumer<? super T> sink)
+	{
+		if (maxElements < 0)
 		{
-			current = current.next;
-			counter++;
+			throw new IllegalArgumentException("maxElements cannot be negative: " + maxElements);
 		}
 
-		return counter;
+		int count = 0;
+		if (maxElements > 0 && !isEmpty())
+		{
+			modCount++;
+		}
+		while (count < maxElements && !isEmpty())
+		{
+			sink.accept(unlinkLast());
+			count++;
+		}
+		return count;
 	}
 
 	/**
-	 * Reports whether the queue is empty or not.
+	 * Unlinks the head node without touching modCount. The queue must not be empty.
 	 *
-	 * @return true if no elements are in the queue, otherwise returns false
+	 * @return the element that was stored in the head node
+	 */
+	private T unlinkFirst()
+	{
+		TwoWayNode removed = head;
+		head = removed.getNext();
+		if (head != null)
+		{
+			head.setPrevious(null);
+		} else
+		{
+			tail = null;
+		}
+		size--;
+		T data = removed.getData();
+		recycle(removed);
+		return data;
+	}
+
+	/**
+	 * Unlinks the tail node without touching modCount. The queue must not be empty.
+	 *
+	 * @return the element that was stored in the tail node
+	 */
+	private T unlinkLast()
+	{
+		TwoWayNode removed = tail;
+		tail = removed.getPrevious();
+		if (tail != null)
+		{
+			tail.setNext(null);
+		} else
+		{
+			head = null;
+		}
+		size--;
+		T data = removed.getData();
+		recycle(removed);
+		return data;
+	}
+
+	/**
+	 * Unlinks any node without touching modCount
+	 *
+	 * @return the element that was stored in the node
+	 */
+	private T unlink(TwoWayNode node)
+	{
+		if (node == head)
+		{
+			return unlinkFirst();
+		}
+		if (node == tail)
+		{
+			return unlinkLast();
+		}
+
+		node.previous.setNext(node.next);
+		node.next.setPrevious(node.previous);
+		size--;
+		T data = node.getData();
+		recycle(node);
+		return data;
+	}
+
+	/**
+	 * Returns a node holding the given data and links, reusing a pooled node when
+	 * one is available
+	 */
+	private TwoWayNode newNode(T data, TwoWayNode next, TwoWayNode previous)
+	{
+		TwoWayNode node = pool;
+		if (node == null)
+		{
+			return new TwoWayNode(data, next, previous);
+		}
+
+		pool = node.next;
+		pooledNodes--;
+		node.setData(data);
+		node.setNext(next);
+		node.setPrevious(previous);
+		return node;
+	}
+
+	/**
+	 * Clears an unlinked node and puts it on the free list if the pool has room
+	 */
+	private void recycle(TwoWayNode node)
+	{
+		node.setData(null);
+		node.setPrevious(null);
+		if (pooledNodes < maxPooledNodes)
+		{
+			node.setNext(pool);
+			pool = node;
+			pooledNodes++;
+		} else
+		{
+			node.setNext(null);
+		}
+	}
+
+	/**
+	 * Links a pre-built chain of nodes in front of the head
+	 *
+	 * @param first
+	 *            the first node of the chain, or null if the chain is empty
+	 * @param last
+	 *            the last node of the chain
+	 * @param count
+	 *            the number of nodes in the chain
+	 */
+	private void spliceFirst(TwoWayNode first, TwoWayNode last, int count)
+	{
+		if (first == null)
+		{
+			return;
+		}
+
+		modCount++;
+		if (isEmpty())
+		{
+			tail = last;
+		} else
+		{
+			last.setNext(head);
+			head.setPrevious(last);
+		}
+		head = first;
+		size += count;
+	}
+
+	/**
+	 * Links a pre-built chain of nodes after the tail
+	 *
+	 * @param first
+	 *            the first node of the chain, or null if the chain is empty
+	 * @param last
+	 *            the last node of the chain
+	 * @param count
+	 *            the number of nodes in the chain
+	 */
+	private void spliceLast(TwoWayNode first, TwoWayNode last, int count)
+	{
+		if (first == null)
+		{
+			return;
+		}
+
+		modCount++;
+		if (isEmpty())
+		{
+			head = first;
+		} else
+		{
+			tail.setNext(first);
+			first.setPrevious(tail);
+		}
+		tail = last;
+		size += count;
+	}
+
+	private static void checkRange(Object[] elements, int offset, int length)
+	{
+		if (offset < 0 || length < 0 || offset > elements.length - length)
+		{
+			throw new IndexOutOfBoundsException(
+					"offset " + offset + ", length " + length + ", array length " + elements.length);
+		}
+	}
+
+	/**
+	 * Returns the first element in the queue without removing it.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and peekFirst() is called
+	 * @return the first element
 	 */
 	@Override
-	public boolean isEmpty()
+	public T peekFirst()
 	{
-		if (head.getData() == null)
+		if (isEmpty())
 		{
-			return true;
+			throw EmptyQueueException.instance();
+		}
+		return head.data;
+	}
+
+	/**
+	 * Returns the last element in the queue without removing it.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and peekLast() is called
+	 * @return the last element
+	 */
+	@Override
+	public T peekLast()
+	{
+		if (isEmpty())
+		{
+			throw EmptyQueueException.instance();
+		}
+		return tail.data;
+	}
+
+	/**
+	 * Returns the element at the given position without removing it, walking from
+	 * whichever end of the queue is nearer.
+	 *
+	 * @param index
+	 *            the position of the element, from the front of the queue
+	 * @return the element at that position
+	 * @throws IndexOutOfBoundsException
+	 *             if index is negative or not less than size()
+	 */
+	@Override
+	public T get(int index)
+	{
+		if (index < 0 || index >= size)
+		{
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+
+		TwoWayNode current;
+		if (index < size / 2)
+		{
+			current = head;
+			for (int i = 0; i < index; i++)
+			{
+				current = current.next;
+			}
 		} else
 		{
-			return false;
+			current = tail;
+			for (int i = size - 1; i > index; i--)
+			{
+				current = current.previous;
+			}
 		}
+		return current.data;
+	}
+
+	/**
+	 * Returns the number of elements in the queue.
+	 *
+	 * @return the number of elements in the queue
+	 */
+	@Override
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Reports whether the queue is empty or not.
+	 *
+	 * @return true if no elements are in the queue, otherwise returns false
+	 */
+	@Override
+	public boolean isEmpty()
+	{
+		return size == 0;
 	}
 
 	/**
-	 * Removes all elements from the queue. Sets the head to null
+	 * Removes all elements from the queue. Sets the head and tail to null. Removed nodes
+	 * are only walked when there is room for them in the node pool.
 	 */
 	@Override
 	public void clear()
 	{
 		modCount++;
-		head.setData(null);
-		head.setNext(null);
-
+		TwoWayNode current = head;
+		while (current != null && pooledNodes < maxPooledNodes)
+		{
+			TwoWayNode next = current.next;
+			recycle(current);
+			current = next;
+		}
+		head = null;
+		tail = null;
+		size = 0;
 	}
 
 	/**
@@ -289,25 +751,81 @@ public class TwoWayQueue<T> implements ITwoWayQueue<T>
 	@Override
 	public Iterator<T> iterator()
 	{
-		TwoWayNode tail = head;
-		while (tail.next != null)
+		return new TwoWayQueueIterator(tail, modCount);
+	}
+
+	/**
+	 * Returns a spliterator over the elements of the queue, in the same order as
+	 * the iterator. Splitting walks to the middle of the remaining nodes, so a
+	 * parallel stream gets evenly sized segments, and changes to the queue are
+	 * checked once per traversal instead of once per element.
+	 *
+	 * @return a spliterator over the elements of the queue
+	 */
+	@Override
+	public Spliterator<T> spliterator()
+	{
+		return new TwoWayQueueSpliterator(tail, size, modCount);
+	}
+
+	/**
+	 * Returns an iterator that runs the other way from iterator(): from the first
+	 * element in the queue to the last. Its remove() unlinks the element just
+	 * returned in constant time.
+	 *
+	 * @return an iterator from the first element to the last
+	 */
+	@Override
+	public Iterator<T> descendingIterator()
+	{
+		return listIterator();
+	}
+
+	/**
+	 * Returns a cursor that starts at the first element and can move in either
+	 * direction. Indices count from the front of the queue as get(int) does, so
+	 * next() walks from the first element to the last, the opposite way from
+	 * iterator(). remove(), set() and add() all take constant time.
+	 *
+	 * @return a list iterator positioned before the first element
+	 */
+	public ListIterator<T> listIterator()
+	{
+		return new TwoWayQueueListIterator(0);
+	}
+
+	/**
+	 * Returns a cursor positioned before the element at the given index, counting
+	 * from the front of the queue as get(int) does. Positions at either end are
+	 * reached in constant time; others walk from the nearer end.
+	 *
+	 * @param index
+	 *            the index of the first element next() will return
+	 * @return a list iterator positioned before that element
+	 * @throws IndexOutOfBoundsException
+	 *             if index is negative or greater than size()
+	 */
+	public ListIterator<T> listIterator(int index)
+	{
+		if (index < 0 || index > size)
 		{
-			tail = tail.next;
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
 		}
-		return new TwoWayQueueIterator(tail, modCount);
+		return new TwoWayQueueListIterator(index);
 	}
 
 	private class TwoWayQueueIterator implements Iterator<T>
 	{
 
 		TwoWayNode tail;
+		TwoWayNode lastReturned;
 		int savedModCount;
 
 		/**
-		 * TwoWayQueue iterator object that keeps track of its own head node
+		 * TwoWayQueue iterator object that keeps track of its own tail node
 		 * 
-		 * @param head
-		 *            node that is the start of the queue
+		 * @param tail
+		 *            node that is the end of the queue, or null if the queue is empty
 		 * @param savedModCount
 		 *            the count of times the queue was manipulated
 		 */
@@ -331,13 +849,7 @@ public class TwoWayQueue<T> implements ITwoWayQueue<T>
 				throw new ConcurrentModificationException();
 			}
 
-			if (tail.getData() == null)
-			{
-				return false;
-			} else
-			{
-				return tail.getPrevious() != null;
-			}
+			return tail != null;
 		}
 
 		/**
@@ -352,12 +864,322 @@ public class TwoWayQueue<T> implements ITwoWayQueue<T>
 			{
 				throw new ConcurrentModificationException();
 			}
+			if (tail == null)
+			{
+				throw new NoSuchElementException();
+			}
 
-			T data = tail.getData();
+			lastReturned = tail;
 			tail = tail.previous;
-			return data;
+			return lastReturned.getData();
+		}
+
+		/**
+		 * Removes the element last returned by next() in constant time
+		 */
+		@Override
+		public void remove()
+		{
+			if (savedModCount != TwoWayQueue.this.modCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+			if (lastReturned == null)
+			{
+				throw new IllegalStateException();
+			}
+
+			unlink(lastReturned);
+			lastReturned = null;
+			savedModCount = ++TwoWayQueue.this.modCount;
+		}
+
+	}
+
+	private class TwoWayQueueListIterator implements ListIterator<T>
+	{
+		TwoWayNode nextNode;
+		TwoWayNode lastReturned;
+		int nextIndex;
+		int savedModCount;
+
+		/**
+		 * Positions the cursor before the element at the given index, where index 0
+		 * is the first element in the queue
+		 */
+		TwoWayQueueListIterator(int index)
+		{
+			if (index == size)
+			{
+				nextNode = null;
+			} else if (index < size / 2)
+			{
+				nextNode = head;
+				for (int i = 0; i < index; i++)
+				{
+					nextNode = nextNode.next;
+				}
+			} else
+			{
+				nextNode = tail;
+				for (int i = size - 1; i > index; i--)
+				{
+					nextNode = nextNode.previous;
+				}
+			}
+			this.nextIndex = index;
+			this.savedModCount = modCount;
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			return nextIndex < size;
+		}
+
+		/**
+		 * Returns the next element towards the end of the queue
+		 */
+		@Override
+		public T next()
+		{
+			checkForComodification();
+			if (!hasNext())
+			{
+				throw new NoSuchElementException();
+			}
+
+			lastReturned = nextNode;
+			nextNode = nextNode.next;
+			nextIndex++;
+			return lastReturned.data;
+		}
+
+		@Override
+		public boolean hasPrevious()
+		{
+			return nextIndex > 0;
+		}
+
+		/**
+		 * Returns the previous element towards the front of the queue
+		 */
+		@Override
+		public T previous()
+		{
+			checkForComodification();
+			if (!hasPrevious())
+			{
+				throw new NoSuchElementException();
+			}
+
+			nextNode = nextNode == null ? tail : nextNode.previous;
+			lastReturned = nextNode;
+			nextIndex--;
+			return lastReturned.data;
+		}
+
+		@Override
+		public int nextIndex()
+		{
+			return nextIndex;
+		}
+
+		@Override
+		public int previousIndex()
+		{
+			return nextIndex - 1;
+		}
+
+		/**
+		 * Removes the element last returned by next() or previous()
+		 */
+		@Override
+		public void remove()
+		{
+			checkForComodification();
+			if (lastReturned == null)
+			{
+				throw new IllegalStateException();
+			}
+
+			TwoWayNode following = lastReturned.next;
+			unlink(lastReturned);
+			if (nextNode == lastReturned)
+			{
+				// removed after previous(), so the cursor moves on to the following node
+				nextNode = following;
+			} else
+			{
+				nextIndex--;
+			}
+			lastReturned = null;
+			savedModCount = ++modCount;
+		}
+
+		/**
+		 * Replaces the element last returned by next() or previous(). This does not
+		 * count as a change to the queue.
+		 */
+		@Override
+		public void set(T element)
+		{
+			checkForComodification();
+			if (lastReturned == null)
+			{
+				throw new IllegalStateException();
+			}
+			lastReturned.data = element;
 		}
 
+		/**
+		 * Inserts an element at the cursor, so that next() is unaffected and
+		 * previous() would return the new element
+		 */
+		@Override
+		public void add(T element)
+		{
+			checkForComodification();
+			if (nextNode == null)
+			{
+				// at the end of iteration, which is the end of the queue
+				TwoWayNode added = newNode(element, null, tail);
+				if (tail == null)
+				{
+					head = added;
+				} else
+				{
+					tail.setNext(added);
+				}
+				tail = added;
+			} else
+			{
+				TwoWayNode added = newNode(element, nextNode, nextNode.previous);
+				if (nextNode.previous == null)
+				{
+					head = added;
+				} else
+				{
+					nextNode.previous.setNext(added);
+				}
+				nextNode.setPrevious(added);
+			}
+			size++;
+			nextIndex++;
+			lastReturned = null;
+			savedModCount = ++modCount;
+		}
+
+		private void checkForComodification()
+		{
+			if (savedModCount != TwoWayQueue.this.modCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+
+	private class TwoWayQueueSpliterator implements Spliterator<T>
+	{
+		final int savedModCount;
+		TwoWayNode current;
+		int remaining;
+
+		/**
+		 * Covers the given number of nodes, walking from current towards the head
+		 */
+		TwoWayQueueSpliterator(TwoWayNode current, int remaining, int savedModCount)
+		{
+			this.current = current;
+			this.remaining = remaining;
+			this.savedModCount = savedModCount;
+		}
+
+		/**
+		 * Hands the first half of the remaining nodes to a new spliterator and skips
+		 * past them
+		 */
+		@Override
+		public Spliterator<T> trySplit()
+		{
+			int half = remaining >>> 1;
+			if (half == 0)
+			{
+				return null;
+			}
+
+			Spliterator<T> prefix = new TwoWayQueueSpliterator(current, half, savedModCount);
+			for (int i = 0; i < half && current != null; i++)
+			{
+				current = current.previous;
+			}
+			remaining -= half;
+			return prefix;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action)
+		{
+			if (action == null)
+			{
+				throw new NullPointerException();
+			}
+			if (remaining == 0)
+			{
+				return false;
+			}
+			if (current == null)
+			{
+				throw new ConcurrentModificationException();
+			}
+
+			T data = current.data;
+			current = current.previous;
+			remaining--;
+			action.accept(data);
+			checkForComodification();
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super T> action)
+		{
+			if (action == null)
+			{
+				throw new NullPointerException();
+			}
+
+			// a node unlinked by a change to the queue may end the chain early
+			TwoWayNode node = current;
+			for (int n = remaining; n > 0 && node != null; n--)
+			{
+				action.accept(node.data);
+				node = node.previous;
+			}
+			current = node;
+			remaining = 0;
+			checkForComodification();
+		}
+
+		@Override
+		public long estimateSize()
+		{
+			return remaining;
+		}
+
+		@Override
+		public int characteristics()
+		{
+			return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+		}
+
+		private void checkForComodification()
+		{
+			if (savedModCount != TwoWayQueue.this.modCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+		}
 	}
 
 	/**
@@ -457,7 +1279,7 @@ public class TwoWayQueue<T> implements ITwoWayQueue<T>
 		 */
 		public String toString()
 		{
-			return data.toString();
+			return String.valueOf(data);
 		}
 	}
 
@@ -0,0 +1,951 @@
+/**
+ * Michael Horn
+ * Oct 18, 2026
+ * UnrolledTwoWayQueue.java
+ */
+package structures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import exceptions.EmptyQueueException;
+
+/**
+ * A two-way queue made of a linked list of fixed size blocks, each holding many
+ * elements in an array. Growing the queue only ever links a new block, so unlike
+ * ArrayTwoWayQueue it never copies a large array, while iteration still walks
+ * mostly contiguous memory. Every operation at either end is O(1).
+ *
+ * The first element is at headIndex in the head block and the last element is
+ * just before tailIndex in the tail block. An empty queue has a single block with
+ * both indices in the middle, so it can grow in either direction.
+ *
+ * @author Michael Horn
+ * @version 1.0
+ */
+public class UnrolledTwoWayQueue<T> implements IExtendedTwoWayQueue<T>
+{
+	private static final int DEFAULT_BLOCK_SIZE = 64;
+
+	private final int blockSize;
+	private Block head;
+	private int headIndex;
+	private Block tail;
+	private int tailIndex;
+	private int size;
+	private int modCount;
+
+	/**
+	 * One released block is kept so that a queue hovering around a block boundary
+	 * does not allocate a new block on every crossing
+	 */
+	private Block spare;
+
+	/**
+	 * Creates an empty queue with blocks of 64 elements
+	 */
+	public UnrolledTwoWayQueue()
+	{
+		this(DEFAULT_BLOCK_SIZE);
+	}
+
+	/**
+	 * Creates an empty queue with blocks of the given size
+	 *
+	 * @param blockSize
+	 *            the number of elements each block holds, at least 2
+	 */
+	public UnrolledTwoWayQueue(int blockSize)
+	{
+		if (blockSize < 2)
+		{
+			throw new IllegalArgumentException("Block size must be at least 2: " + blockSize);
+		}
+		this.blockSize = blockSize;
+		this.head = new Block();
+		reset();
+	}
+
+	/**
+	 * Removes and returns the first element in the queue.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueFirst() is called
+	 * @return the first element
+	 */
+	@Override
+	public T dequeueFirst()
+	{
+		modCount++;
+		if (isEmpty())
+		{
+			throw EmptyQueueException.instance();
+		}
+		return removeFirst();
+	}
+
+	/**
+	 * Removes and returns the last element in the queue.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueLast() is called
+	 * @return the last element
+	 */
+	@Override
+	public T dequeueLast()
+	{
+		modCount++;
+		if (isEmpty())
+		{
+			throw EmptyQueueException.instance();
+		}
+		return removeLast();
+	}
+
+	/**
+	 * Removes and returns the first element in the queue, or returns null if the
+	 * queue is empty. Since null elements are allowed, check isEmpty() instead if
+	 * the queue may hold nulls.
+	 *
+	 * @return the first element, or null if the queue is empty
+	 */
+	@Override
+	public T pollFirst()
+	{
+		return isEmpty() ? null : dequeueFirst();
+	}
+
+	/**
+	 * Removes and returns the last element in the queue, or returns null if the
+	 * queue is empty. Since null elements are allowed, check isEmpty() instead if
+	 * the queue may hold nulls.
+	 *
+	 * @return the last element, or null if the queue is empty
+	 */
+	@Override
+	public T pollLast()
+	{
+		return isEmpty() ? null : dequeueLast();
+	}
+
+	/**
+	 * Removes and returns all elements in the queue. The first element in the queue
+	 * should be located at the last index of the resulting list (index size() - 1)
+	 * and the last element in the queue at index zero.
+	 *
+	 * @return a list of all elements in the queue
+	 */
+	@Override
+	public List<T> dequeueAll()
+	{
+		modCount++;
+		if (isEmpty())
+		{
+			throw EmptyQueueException.instance();
+		}
+
+		List<T> list = new ArrayList<>(size);
+		for (Block block = tail; block != null; block = block.previous)
+		{
+			int start = block == head ? headIndex : 0;
+			int end = block == tail ? tailIndex : blockSize;
+			for (int i = end - 1; i >= start; i--)
+			{
+				list.add(block.get(i));
+			}
+		}
+		reset();
+		return list;
+	}
+
+	/**
+	 * Adds a new element to the front of the queue. The queue should continually
+	 * resize to make room for new elements.
+	 *
+	 * @param element
+	 *            the new element to be added to the front of the queue
+	 */
+	@Override
+	public void enqueueFirst(T element)
+	{
+		modCount++;
+		addFirst(element);
+	}
+
+	/**
+	 * Adds a new element to the end of the queue. The queue should continually
+	 * resize to make room for new elements.
+	 *
+	 * @param element
+	 *            the new element to be added to the end of the queue
+	 */
+	@Override
+	public void enqueueLast(T element)
+	{
+		modCount++;
+		addLast(element);
+	}
+
+	/**
+	 * Adds a group of elements to the front of the queue.
+	 *
+	 * @param elements
+	 *            an array of elements to be added to the beginning of the queue
+	 */
+	@Override
+	public void enqueueAllFirst(T[] elements)
+	{
+		enqueueAllFirst(elements, 0, elements.length);
+	}
+
+	/**
+	 * Adds a range of an array to the front of the queue.
+	 *
+	 * @param elements
+	 *            an array of elements to be added to the beginning of the queue
+	 * @param offset
+	 *            the index of the first element to add
+	 * @param length
+	 *            the number of elements to add
+	 */
+	@Override
+	public void enqueueAllFirst(T[] elements, int offset, int length)
+	{
+		checkRange(elements, offset, length);
+		if (length == 0)
+		{
+			return;
+		}
+
+		modCount++;
+		for (int i = offset; i < offset + length; i++)
+		{
+			addFirst(elements[i]);
+		}
+	}
+
+	/**
+	 * Adds a collection of elements to the front of the queue, in iteration order.
+	 *
+	 * @param elements
+	 *            a collection of elements to be added to the beginning of the queue
+	 */
+	@Override
+	public void enqueueAllFirst(Collection<? extends T> elements)
+	{
+		if (elements.isEmpty())
+		{
+			return;
+		}
+
+		modCount++;
+		for (T element : elements)
+		{
+			addFirst(element);
+		}
+	}
+
+	/**
+	 * Adds a group of elements to the end of the queue.
+	 *
+	 * @param elements
+	 *            an array of elements to be added to the end of the queue
+	 */
+	@Override
+	public void enqueueAllLast(T[] elements)
+	{
+		enqueueAllLast(elements, 0, elements.length);
+	}
+
+	/**
+	 * Adds a range of an array to the end of the queue, copying it in one block at a
+	 * time.
+	 *
+	 * @param elements
+	 *            an array of elements to be added to the end of the queue
+	 * @param offset
+	 *            the index of the first element to add
+	 * @param length
+	 *            the number of elements to add
+	 */
+	@Override
+	public void enqueueAllLast(T[] elements, int offset, int length)
+	{
+		checkRange(elements, offset, length);
+		if (length == 0)
+		{
+			return;
+		}
+
+		modCount++;
+		int copied = 0;
+		while (copied < length)
+		{
+			if (tailIndex == blockSize)
+			{
+				linkAfterTail();
+			}
+			int count = Math.min(length - copied, blockSize - tailIndex);
+			System.arraycopy(elements, offset + copied, tail.items, tailIndex, count);
+			tailIndex += count;
+			copied += count;
+		}
+		size += length;
+	}
+
+	/**
+	 * Adds a collection of elements to the end of the queue, in iteration order.
+	 *
+	 * @param elements
+	 *            a collection of elements to be added to the end of the queue
+	 */
+	@Override
+	public void enqueueAllLast(Collection<? extends T> elements)
+	{
+		if (elements.isEmpty())
+		{
+			return;
+		}
+
+		modCount++;
+		for (T element : elements)
+		{
+			addLast(element);
+		}
+	}
+
+	/**
+	 * Removes every element from the queue and adds it to the given collection,
+	 * from the first element to the last.
+	 *
+	 * @param sink
+	 *            the collection to receive the elements
+	 * @return the number of elements moved
+	 */
+	@Override
+	public int drainTo(Collection<? super T> sink)
+	{
+		return drainFirst(Integer.MAX_VALUE, sink::add);
+	}
+
+	/**
+	 * Removes elements from the front of the queue into the given array until the
+	 * queue is empty or the array is full, copying one block at a time.
+	 *
+	 * @param dest
+	 *            the array to receive the elements
+	 * @param offset
+	 *            the index of the first slot to fill
+	 * @return the number of elements moved
+	 */
+	@Override
+	public int drainTo(T[] dest, int offset)
+	{
+		if (offset < 0 || offset > dest.length)
+		{
+			throw new IndexOutOfBoundsException("offset " + offset + ", array length " + dest.length);
+		}
+
+		int total = Math.min(size, dest.length - offset);
+		if (total == 0)
+		{
+			return 0;
+		}
+
+		modCount++;
+		int copied = 0;
+		while (copied < total)
+		{
+			int end = head == tail ? tailIndex : blockSize;
+			int count = Math.min(total - copied, end - headIndex);
+			System.arraycopy(head.items, headIndex, dest, offset + copied, count);
+			Arrays.fill(head.items, headIndex, headIndex + count, null);
+			headIndex += count;
+			size -= count;
+			copied += count;
+			afterRemoveFirst();
+		}
+		return total;
+	}
+
+	/**
+	 * Removes up to maxElements elements from the front of the queue and passes
+	 * each one to the given consumer.
+	 *
+	 * @param maxElements
+	 *            the largest number of elements to remove
+	 * @param sink
+	 *            the consumer to receive the elements
+	 * @return the number of elements moved
+	 */
+	@Override
+	public int drainFirst(int maxElements, Consumer<? super T> sink)
+	{
+		if (maxElements < 0)
+		{
+			throw new IllegalArgumentException("maxElements cannot be negative: " + maxElements);
+		}
+
+		int count = 0;
+		if (maxElements > 0 && !isEmpty())
+		{
+			modCount++;
+		}
+		while (count < maxElements && !isEmpty())
+		{
+			sink.accept(removeFirst());
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Removes up to maxElements elements from the end of the queue and passes each
+	 * one to the given consumer.
+	 *
+	 * @param maxElements
+	 *            the largest number of elements to remove
+	 * @param sink
+	 *            the consumer to receive the elements
+	 * @return the number of elements moved
+	 */
+	@Override
+	public int drainLast(int maxElements, Consumer<? super T> sink)
+	{
+		if (maxElements < 0)
+		{
+			throw new IllegalArgumentException("maxElements cannot be negative: " + maxElements);
+		}
+
+		int count = 0;
+		if (maxElements > 0 && !isEmpty())
+		{
+			modCount++;
+		}
+		while (count < maxElements && !isEmpty())
+		{
+			sink.accept(removeLast());
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the first element in the queue without removing it.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and peekFirst() is called
+	 * @return the first element
+	 */
+	@Override
+	public T peekFirst()
+	{
+		if (isEmpty())
+		{
+			throw EmptyQueueException.instance();
+		}
+		return head.get(headIndex);
+	}
+
+	/**
+	 * Returns the last element in the queue without removing it.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and peekLast() is called
+	 * @return the last element
+	 */
+	@Override
+	public T peekLast()
+	{
+		if (isEmpty())
+		{
+			throw EmptyQueueException.instance();
+		}
+		return tail.get(tailIndex - 1);
+	}
+
+	/**
+	 * Returns the element at the given position without removing it, skipping
+	 * whole blocks from whichever end of the queue is nearer.
+	 *
+	 * @param index
+	 *            the position of the element, from the front of the queue
+	 * @return the element at that position
+	 * @throws IndexOutOfBoundsException
+	 *             if index is negative or not less than size()
+	 */
+	@Override
+	public T get(int index)
+	{
+		if (index < 0 || index >= size)
+		{
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+
+		Block block;
+		int position;
+		if (index < size / 2)
+		{
+			block = head;
+			position = headIndex + index;
+			while (position >= blockSize)
+			{
+				block = block.next;
+				position -= blockSize;
+			}
+		} else
+		{
+			block = tail;
+			position = tailIndex - size + index;
+			while (position < 0)
+			{
+				block = block.previous;
+				position += blockSize;
+			}
+		}
+		return block.get(position);
+	}
+
+	/**
+	 * Returns the number of elements in the queue.
+	 *
+	 * @return the number of elements in the queue
+	 */
+	@Override
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Reports whether the queue is empty or not.
+	 *
+	 * @return true if no elements are in the queue, otherwise returns false
+	 */
+	@Override
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	/**
+	 * Removes all elements from the queue. Only the head block is kept.
+	 */
+	@Override
+	public void clear()
+	{
+		modCount++;
+		reset();
+	}
+
+	/**
+	 * Returns an iterator over the elements of the queue. It should not be possible
+	 * to use the iterator while making any changes to the stack itself.
+	 *
+	 * Elements should return in FIFO order (i.e. The first element added should be
+	 * the first returned by the iterator. The last element added should be the last
+	 * returned by the iterator.)
+	 *
+	 * @return an object using the Iterator<T> interface
+	 */
+	@Override
+	public Iterator<T> iterator()
+	{
+		return new UnrolledTwoWayQueueIterator();
+	}
+
+	/**
+	 * Returns a spliterator over the elements of the queue, in the same order as
+	 * the iterator. Splitting skips whole blocks to reach the middle of the
+	 * remaining elements, so a parallel stream gets evenly sized segments, and
+	 * changes to the queue are checked once per traversal instead of once per
+	 * element.
+	 *
+	 * @return a spliterator over the elements of the queue
+	 */
+	@Override
+	public Spliterator<T> spliterator()
+	{
+		return new UnrolledTwoWayQueueSpliterator(tail, tailIndex, size, modCount);
+	}
+
+	/**
+	 * Returns an iterator that runs the other way from iterator(): from the first
+	 * element in the queue to the last.
+	 *
+	 * @return an iterator from the first element to the last
+	 */
+	@Override
+	public Iterator<T> descendingIterator()
+	{
+		return new Iterator<T>()
+		{
+			Block block = head;
+			int index = headIndex;
+			int remaining = size;
+			int savedModCount = modCount;
+
+			@Override
+			public boolean hasNext()
+			{
+				if (savedModCount != UnrolledTwoWayQueue.this.modCount)
+				{
+					throw new ConcurrentModificationException();
+				}
+				return remaining > 0;
+			}
+
+			@Override
+			public T next()
+			{
+				if (!hasNext())
+				{
+					throw new NoSuchElementException();
+				}
+
+				if (index == blockSize)
+				{
+					block = block.next;
+					index = 0;
+				}
+				remaining--;
+				return block.get(index++);
+			}
+		};
+	}
+
+	private void addFirst(T element)
+	{
+		if (headIndex == 0)
+		{
+			Block block = newBlock();
+			block.next = head;
+			head.previous = block;
+			head = block;
+			headIndex = blockSize;
+		}
+		head.items[--headIndex] = element;
+		size++;
+	}
+
+	private void addLast(T element)
+	{
+		if (tailIndex == blockSize)
+		{
+			linkAfterTail();
+		}
+		tail.items[tailIndex++] = element;
+		size++;
+	}
+
+	private void linkAfterTail()
+	{
+		Block block = newBlock();
+		block.previous = tail;
+		tail.next = block;
+		tail = block;
+		tailIndex = 0;
+	}
+
+	/**
+	 * Removes the first element without touching modCount. The queue must not be
+	 * empty.
+	 */
+	private T removeFirst()
+	{
+		T element = head.get(headIndex);
+		head.items[headIndex++] = null;
+		size--;
+		afterRemoveFirst();
+		return element;
+	}
+
+	/**
+	 * Releases the head block once it has been emptied
+	 */
+	private void afterRemoveFirst()
+	{
+		if (size == 0)
+		{
+			reset();
+		} else if (headIndex == blockSize)
+		{
+			Block emptied = head;
+			head = head.next;
+			head.previous = null;
+			headIndex = 0;
+			release(emptied);
+		}
+	}
+
+	/**
+	 * Removes the last element without touching modCount. The queue must not be
+	 * empty.
+	 */
+	private T removeLast()
+	{
+		T element = tail.get(--tailIndex);
+		tail.items[tailIndex] = null;
+		size--;
+		if (size == 0)
+		{
+			reset();
+		} else if (tailIndex == 0)
+		{
+			Block emptied = tail;
+			tail = tail.previous;
+			tail.next = null;
+			tailIndex = blockSize;
+			release(emptied);
+		}
+		return element;
+	}
+
+	/**
+	 * Empties the queue down to the head block, centering the indices so the queue
+	 * can grow at either end
+	 */
+	private void reset()
+	{
+		if (size > 0)
+		{
+			int end = head == tail ? tailIndex : blockSize;
+			Arrays.fill(head.items, headIndex, end, null);
+		}
+		head.next = null;
+		head.previous = null;
+		tail = head;
+		headIndex = blockSize / 2;
+		tailIndex = headIndex;
+		size = 0;
+	}
+
+	private Block newBlock()
+	{
+		Block block = spare;
+		if (block == null)
+		{
+			return new Block();
+		}
+		spare = null;
+		return block;
+	}
+
+	private void release(Block block)
+	{
+		block.next = null;
+		block.previous = null;
+		spare = block;
+	}
+
+	private static void checkRange(Object[] elements, int offset, int length)
+	{
+		if (offset < 0 || length < 0 || offset > elements.length - length)
+		{
+			throw new IndexOutOfBoundsException(
+					"offset " + offset + ", length " + length + ", array length " + elements.length);
+		}
+	}
+
+	private class UnrolledTwoWayQueueIterator implements Iterator<T>
+	{
+		Block block;
+		int index;
+		int remaining;
+		int savedModCount;
+
+		/**
+		 * Starts the iterator just after the last element in the queue, walking
+		 * towards the first element
+		 */
+		public UnrolledTwoWayQueueIterator()
+		{
+			this.block = tail;
+			this.index = tailIndex;
+			this.remaining = size;
+			this.savedModCount = modCount;
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			if (savedModCount != UnrolledTwoWayQueue.this.modCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+			return remaining > 0;
+		}
+
+		@Override
+		public T next()
+		{
+			if (savedModCount != UnrolledTwoWayQueue.this.modCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+			if (remaining == 0)
+			{
+				throw new NoSuchElementException();
+			}
+
+			if (index == 0)
+			{
+				block = block.previous;
+				index = blockSize;
+			}
+			remaining--;
+			return block.get(--index);
+		}
+	}
+
+	private class UnrolledTwoWayQueueSpliterator implements Spliterator<T>
+	{
+		final int savedModCount;
+		Block block;
+		int index;
+		int remaining;
+
+		/**
+		 * Covers the given number of elements, walking down from just before index in
+		 * the given block
+		 */
+		UnrolledTwoWayQueueSpliterator(Block block, int index, int remaining, int savedModCount)
+		{
+			this.block = block;
+			this.index = index;
+			this.remaining = remaining;
+			this.savedModCount = savedModCount;
+		}
+
+		/**
+		 * Hands the first half of the remaining elements to a new spliterator and
+		 * skips past them
+		 */
+		@Override
+		public Spliterator<T> trySplit()
+		{
+			int half = remaining >>> 1;
+			if (half == 0)
+			{
+				return null;
+			}
+
+			Spliterator<T> prefix = new UnrolledTwoWayQueueSpliterator(block, index, half, savedModCount);
+			int skip = half;
+			while (skip > index && block != null)
+			{
+				skip -= index;
+				block = block.previous;
+				index = blockSize;
+			}
+			index -= skip;
+			remaining -= half;
+			return prefix;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action)
+		{
+			if (action == null)
+			{
+				throw new NullPointerException();
+			}
+			if (remaining == 0)
+			{
+				return false;
+			}
+
+			if (index == 0)
+			{
+				block = block == null ? null : block.previous;
+				index = blockSize;
+			}
+			if (block == null)
+			{
+				throw new ConcurrentModificationException();
+			}
+			remaining--;
+			action.accept(block.get(--index));
+			checkForComodification();
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super T> action)
+		{
+			if (action == null)
+			{
+				throw new NullPointerException();
+			}
+
+			// a block released by a change to the queue may end the chain early
+			while (remaining > 0 && block != null)
+			{
+				if (index == 0)
+				{
+					block = block.previous;
+					index = blockSize;
+					continue;
+				}
+
+				int end = index - Math.min(index, remaining);
+				for (int i = index - 1; i >= end; i--)
+				{
+					action.accept(block.get(i));
+				}
+				remaining -= index - end;
+				index = end;
+			}
+			remaining = 0;
+			checkForComodification();
+		}
+
+		@Override
+		public long estimateSize()
+		{
+			return remaining;
+		}
+
+		@Override
+		public int characteristics()
+		{
+			return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+		}
+
+		private void checkForComodification()
+		{
+			if (savedModCount != UnrolledTwoWayQueue.this.modCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+
+	/**
+	 * A block of consecutive elements in the queue
+	 */
+	private class Block
+	{
+		final Object[] items;
+		Block next;
+		Block previous;
+
+		Block()
+		{
+			this.items = new Object[blockSize];
+		}
+
+		@SuppressWarnings("unchecked")
+		T get(int index)
+		{
+			return (T) items[index];
+		}
+	}
+}
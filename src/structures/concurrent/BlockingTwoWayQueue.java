@@ -0,0 +1,691 @@
+/**
+ * Michael Horn
+ * Oct 18, 2026
+ * BlockingTwoWayQueue.java
+ */
+package structures.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import exceptions.EmptyQueueException;
+import structures.ArrayTwoWayQueue;
+import structures.IStreamableTwoWayQueue;
+
+/**
+ * A thread-safe two-way queue with a fixed capacity. Besides the ITwoWayQueue
+ * operations, which never wait, it offers blocking operations at both ends:
+ * put methods wait for space, take methods wait for an element, and the timed
+ * offer and poll methods give up after a timeout. Waiting threads park on
+ * separate not-empty and not-full conditions instead of spinning. The backing
+ * array starts small and grows as elements arrive, so a large capacity costs
+ * nothing until it is used.
+ *
+ * Null elements are not allowed, because a timed poll uses null to report that
+ * it ran out of time.
+ *
+ * @author Michael Horn
+ * @version 1.0
+ */
+public class BlockingTwoWayQueue<T> implements IStreamableTwoWayQueue<T>
+{
+	private final ArrayTwoWayQueue<T> items;
+	private final int capacity;
+
+	private final ReentrantLock lock;
+	private final Condition notEmpty;
+	private final Condition notFull;
+
+	/**
+	 * Creates an empty queue that holds at most the given number of elements
+	 *
+	 * @param capacity
+	 *            the largest number of elements the queue can hold, at most
+	 *            ArrayTwoWayQueue.MAX_SIZE
+	 */
+	public BlockingTwoWayQueue(int capacity)
+	{
+		if (capacity <= 0 || capacity > ArrayTwoWayQueue.MAX_SIZE)
+		{
+			throw new IllegalArgumentException("Capacity must be between 1 and " + ArrayTwoWayQueue.MAX_SIZE + ": " + capacity);
+		}
+		this.items = new ArrayTwoWayQueue<>();
+		this.capacity = capacity;
+		this.lock = new ReentrantLock();
+		this.notEmpty = lock.newCondition();
+		this.notFull = lock.newCondition();
+	}
+
+	/**
+	 * Removes and returns the first element in the queue without waiting.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueFirst() is called
+	 * @return the first element
+	 */
+	@Override
+	public T dequeueFirst()
+	{
+		lock.lock();
+		try
+		{
+			T element = items.dequeueFirst();
+			notFull.signal();
+			return element;
+		} finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes and returns the last element in the queue without waiting.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueLast() is called
+	 * @return the last element
+	 */
+	@Override
+	public T dequeueLast()
+	{
+		lock.lock();
+		try
+		{
+			T element = items.dequeueLast();
+			notFull.signal();
+			return element;
+		} finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes and returns the first element in the queue, or returns null if the
+	 * queue is empty, without waiting.
+	 *
+	 * @return the first element, or null if the queue is empty
+	 */
+	public T pollFirst()
+	{
+		lock.lock();
+		try
+		{
+			if (items.isEmpty())
+			{
+				return null;
+			}
+			T element = items.dequeueFirst();
+			notFull.signal();
+			return element;
+		} finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes and returns the last element in the queue, or returns null if the
+	 * queue is empty, without waiting.
+	 *
+	 * @return the last element, or null if the queue is empty
+	 */
+	public T pollLast()
+	{
+		lock.lock();
+		try
+		{
+			if (items.isEmpty())
+			{
+				return null;
+			}
+			T element = items.dequeueLast();
+			notFull.signal();
+			return element;
+		} finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes and returns all elements in the queue. The first element in the queue
+	 * is located at the last index of the resulting list and the last element in
+	 * the queue at index zero.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueAll() is called
+	 * @return a list of all elements in the queue
+	 */
+	@Override
+	public List<T> dequeueAll()
+	{
+		lock.lock();
+		try
+		{
+			List<T> list = items.dequeueAll();
+			notFull.signalAll();
+			return list;
+		} finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Adds a new element to the front of the queue without waiting.
+	 *
+	 * @param element
+	 *            the new element to be added to the front of the queue
+	 * @throws IllegalStateException
+	 *             if the queue is full
+	 */
+	@Override
+	public void enqueueFirst(T element)
+	{
+		checkNotNull(element);
+		lock.lock();
+		try
+		{
+			checkRoomFor(1);
+			items.enqueueFirst(element);
+			notEmpty.signal();
+		} finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Adds a new element to the end of the queue without waiting.
+	 *
+	 * @param element
+	 *            the new element to be added to the end of the queue
+	 * @throws IllegalStateException
+	 *             if the queue is full
+	 */
+	@Override
+	public void enqueueLast(T element)
+	{
+		checkNotNull(element);
+		lock.lock();
+		try
+		{
+			checkRoomFor(1);
+			items.enqueueLast(element);
+			notEmpty.signal();
+		} finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Adds a group of elements to the front of the queue without waiting. Either
+	 * all of the elements are added or none are.
+	 *
+	 * @param elements
+	 *            an array of elements to be added to the beginning of the queue
+	 * @throws IllegalStateException
+	 *             if the queue does not have room for every element
+	 */
+	@Override
+	public void enqueueAllFirst(T[] elements)
+	{
+		for (T element : elements)
+		{
+			checkNotNull(element);
+		}
+		lock.lock();
+		try
+		{
+			checkRoomFor(elements.length);
+			items.enqueueAllFirst(elements);
+			notEmpty.signalAll();
+		} finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Adds a group of elements to the end of the queue without waiting. Either all
+	 * of the elements are added or none are.
+	 *
+	 * @param elements
+	 *            an array of elements to be added to the end of the queue
+	 * @throws IllegalStateException
+	 *             if the queue does not have room for every element
+	 */
+	@Override
+	public void enqueueAllLast(T[] elements)
+	{
+		for (T element : elements)
+		{
+			checkNotNull(element);
+		}
+		lock.lock();
+		try
+		{
+			checkRoomFor(elements.length);
+			items.enqueueAllLast(elements);
+			notEmpty.signalAll();
+		} finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Adds a new element to the front of the queue, waiting for space if the queue
+	 * is full.
+	 *
+	 * @param element
+	 *            the new element to be added to the front of the queue
+	 * @throws InterruptedException
+	 *             if the thread is interrupted while waiting
+	 */
+	public void putFirst(T element) throws InterruptedException
+	{
+		checkNotNull(element);
+		lock.lockInterruptibly();
+		try
+		{
+			while (items.size() == capacity)
+			{
+				notFull.await();
+			}
+			items.enqueueFirst(element);
+			notEmpty.signal();
+		} finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Adds a new element to the end of the queue, waiting for space if the queue is
+	 * full.
+	 *
+	 * @param element
+	 *            the new element to be added to the end of the queue
+	 * @throws InterruptedException
+	 *             if the thread is interrupted while waiting
+	 */
+	public void putLast(T element) throws InterruptedException
+	{
+		checkNotNull(element);
+		lock.lockInterruptibly();
+		try
+		{
+			while (items.size() == capacity)
+			{
+				notFull.await();
+			}
+			items.enqueueLast(element);
+			notEmpty.signal();
+		} finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Adds a new element to the front of the queue, waiting up to the given time
+	 * for space if the queue is full.
+	 *
+	 * @param element
+	 *            the new element to be added to the front of the queue
+	 * @param timeout
+	 *            how long to wait before giving up
+	 * @param unit
+	 *            the unit of the timeout
+	 * @return true if the element was added, false if the time ran out
+	 * @throws InterruptedException
+	 *             if the thread is interrupted while waiting
+	 */
+	public boolean offerFirst(T element, long timeout, TimeUnit unit) throws InterruptedException
+	{
+		checkNotNull(element);
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try
+		{
+			while (items.size() == capacity)
+			{
+				if (nanos <= 0)
+				{
+					return false;
+				}
+				nanos = notFull.awaitNanos(nanos);
+			}
+			items.enqueueFirst(element);
+			notEmpty.signal();
+			return true;
+		} finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Adds a new element to the end of the queue, waiting up to the given time for
+	 * space if the queue is full.
+	 *
+	 * @param element
+	 *            the new element to be added to the end of the queue
+	 * @param timeout
+	 *            how long to wait before giving up
+	 * @param unit
+	 *            the unit of the timeout
+	 * @return true if the element was added, false if the time ran out
+	 * @throws InterruptedException
+	 *             if the thread is interrupted while waiting
+	 */
+	public boolean offerLast(T element, long timeout, TimeUnit unit) throws InterruptedException
+	{
+		checkNotNull(element);
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try
+		{
+			while (items.size() == capacity)
+			{
+				if (nanos <= 0)
+				{
+					return false;
+				}
+				nanos = notFull.awaitNanos(nanos);
+			}
+			items.enqueueLast(element);
+			notEmpty.signal();
+			return true;
+		} finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes and returns the first element in the queue, waiting for one to
+	 * arrive if the queue is empty.
+	 *
+	 * @return the first element
+	 * @throws InterruptedException
+	 *             if the thread is interrupted while waiting
+	 */
+	public T takeFirst() throws InterruptedException
+	{
+		lock.lockInterruptibly();
+		try
+		{
+			while (items.isEmpty())
+			{
+				notEmpty.await();
+			}
+			T element = items.dequeueFirst();
+			notFull.signal();
+			return element;
+		} finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes and returns the last element in the queue, waiting for one to arrive
+	 * if the queue is empty.
+	 *
+	 * @return the last element
+	 * @throws InterruptedException
+	 *             if the thread is interrupted while waiting
+	 */
+	public T takeLast() throws InterruptedException
+	{
+		lock.lockInterruptibly();
+		try
+		{
+			while (items.isEmpty())
+			{
+				notEmpty.await();
+			}
+			T element = items.dequeueLast();
+			notFull.signal();
+			return element;
+		} finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes and returns the first element in the queue, waiting up to the given
+	 * time for one to arrive if the queue is empty.
+	 *
+	 * @param timeout
+	 *            how long to wait before giving up
+	 * @param unit
+	 *            the unit of the timeout
+	 * @return the first element, or null if the time ran out
+	 * @throws InterruptedException
+	 *             if the thread is interrupted while waiting
+	 */
+	public T pollFirst(long timeout, TimeUnit unit) throws InterruptedException
+	{
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try
+		{
+			while (items.isEmpty())
+			{
+				if (nanos <= 0)
+				{
+					return null;
+				}
+				nanos = notEmpty.awaitNanos(nanos);
+			}
+			T element = items.dequeueFirst();
+			notFull.signal();
+			return element;
+		} finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes and returns the last element in the queue, waiting up to the given
+	 * time for one to arrive if the queue is empty.
+	 *
+	 * @param timeout
+	 *            how long to wait before giving up
+	 * @param unit
+	 *            the unit of the timeout
+	 * @return the last element, or null if the time ran out
+	 * @throws InterruptedException
+	 *             if the thread is interrupted while waiting
+	 */
+	public T pollLast(long timeout, TimeUnit unit) throws InterruptedException
+	{
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try
+		{
+			while (items.isEmpty())
+			{
+				if (nanos <= 0)
+				{
+					return null;
+				}
+				nanos = notEmpty.awaitNanos(nanos);
+			}
+			T element = items.dequeueLast();
+			notFull.signal();
+			return element;
+		} finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the first element in the queue without removing it or waiting.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and peekFirst() is called
+	 * @return the first element
+	 */
+	public T peekFirst()
+	{
+		lock.lock();
+		try
+		{
+			return items.peekFirst();
+		} finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the last element in the queue without removing it or waiting.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and peekLast() is called
+	 * @return the last element
+	 */
+	public T peekLast()
+	{
+		lock.lock();
+		try
+		{
+			return items.peekLast();
+		} finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of elements in the queue.
+	 *
+	 * @return the number of elements in the queue
+	 */
+	@Override
+	public int size()
+	{
+		lock.lock();
+		try
+		{
+			return items.size();
+		} finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns how many more elements the queue can hold before it is full.
+	 *
+	 * @return the remaining capacity
+	 */
+	public int remainingCapacity()
+	{
+		return capacity - size();
+	}
+
+	/**
+	 * Reports whether the queue is empty or not.
+	 *
+	 * @return true if no elements are in the queue, otherwise returns false
+	 */
+	@Override
+	public boolean isEmpty()
+	{
+		return size() == 0;
+	}
+
+	/**
+	 * Removes all elements from the queue and wakes up any waiting producers.
+	 */
+	@Override
+	public void clear()
+	{
+		lock.lock();
+		try
+		{
+			items.clear();
+			notFull.signalAll();
+		} finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns an iterator over a snapshot of the queue, from the last element to
+	 * the first. The iterator does not see later changes and never throws
+	 * ConcurrentModificationException.
+	 *
+	 * @return an object using the Iterator<T> interface
+	 */
+	@Override
+	public Iterator<T> iterator()
+	{
+		return Collections.unmodifiableList(snapshot()).iterator();
+	}
+
+	/**
+	 * Returns a spliterator over a snapshot of the queue, from the last element to
+	 * the first. It splits by index range and does not see later changes.
+	 *
+	 * @return a spliterator over the elements of the queue
+	 */
+	@Override
+	public Spliterator<T> spliterator()
+	{
+		return snapshot().spliterator();
+	}
+
+	/**
+	 * Copies the queue under the lock, from the last element to the first
+	 */
+	private List<T> snapshot()
+	{
+		lock.lock();
+		try
+		{
+			List<T> snapshot = new ArrayList<>(items.size());
+			for (T element : items)
+			{
+				snapshot.add(element);
+			}
+			return snapshot;
+		} finally
+		{
+			lock.unlock();
+		}
+	}
+
+	private void checkRoomFor(int count)
+	{
+		if (count > capacity - items.size())
+		{
+			throw new IllegalStateException("Queue full");
+		}
+	}
+
+	private static void checkNotNull(Object element)
+	{
+		if (element == null)
+		{
+			throw new NullPointerException("Null elements are not allowed");
+		}
+	}
+}
@@ -0,0 +1,346 @@
+/**
+ * Michael Horn
+ * Oct 18, 2026
+ * ConcurrentTwoWayQueue.java
+ */
+package structures.concurrent;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.LongAdder;
+
+import exceptions.EmptyQueueException;
+import structures.IStreamableTwoWayQueue;
+
+/**
+ * A thread-safe, lock-free two-way queue. Any number of threads can enqueue and
+ * dequeue at both ends at the same time without blocking each other.
+ *
+ * The nodes are linked with compare-and-set by a ConcurrentLinkedDeque, which
+ * already implements a proven lock-free algorithm for both ends. This class adds
+ * the ITwoWayQueue contract on top of it: null elements, EmptyQueueException and
+ * a constant time size().
+ *
+ * Single element operations are atomic. Bulk operations (dequeueAll(),
+ * enqueueAllFirst(), enqueueAllLast() and clear()) are not; other threads may see
+ * or change the queue part way through them. size() is exact only while the
+ * queue is not being changed.
+ *
+ * The iterator is weakly consistent rather than fail-fast: it never throws
+ * ConcurrentModificationException, and may or may not reflect changes made after
+ * it was created.
+ *
+ * @author Michael Horn
+ * @version 1.0
+ */
+public class ConcurrentTwoWayQueue<T> implements IStreamableTwoWayQueue<T>
+{
+	/**
+	 * Stands in for null elements, which ConcurrentLinkedDeque cannot store
+	 */
+	private static final Object NULL_ELEMENT = new Object();
+
+	private final ConcurrentLinkedDeque<Object> deque;
+	private final LongAdder size;
+
+	/**
+	 * Creates an empty queue
+	 */
+	public ConcurrentTwoWayQueue()
+	{
+		this.deque = new ConcurrentLinkedDeque<>();
+		this.size = new LongAdder();
+	}
+
+	/**
+	 * Removes and returns the first element in the queue.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueFirst() is called
+	 * @return the first element
+	 */
+	@Override
+	public T dequeueFirst()
+	{
+		Object element = deque.pollFirst();
+		if (element == null)
+		{
+			throw EmptyQueueException.instance();
+		}
+		size.decrement();
+		return unmask(element);
+	}
+
+	/**
+	 * Removes and returns the last element in the queue.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueLast() is called
+	 * @return the last element
+	 */
+	@Override
+	public T dequeueLast()
+	{
+		Object element = deque.pollLast();
+		if (element == null)
+		{
+			throw EmptyQueueException.instance();
+		}
+		size.decrement();
+		return unmask(element);
+	}
+
+	/**
+	 * Removes and returns the first element in the queue, or returns null if the
+	 * queue is empty. Since null elements are allowed, check isEmpty() instead if
+	 * the queue may hold nulls.
+	 *
+	 * @return the first element, or null if the queue is empty
+	 */
+	public T pollFirst()
+	{
+		Object element = deque.pollFirst();
+		if (element == null)
+		{
+			return null;
+		}
+		size.decrement();
+		return unmask(element);
+	}
+
+	/**
+	 * Removes and returns the last element in the queue, or returns null if the
+	 * queue is empty. Since null elements are allowed, check isEmpty() instead if
+	 * the queue may hold nulls.
+	 *
+	 * @return the last element, or null if the queue is empty
+	 */
+	public T pollLast()
+	{
+		Object element = deque.pollLast();
+		if (element == null)
+		{
+			return null;
+		}
+		size.decrement();
+		return unmask(element);
+	}
+
+	/**
+	 * Removes and returns all elements in the queue. The first element in the queue
+	 * is located at the last index of the resulting list and the last element in
+	 * the queue at index zero. Elements are removed one at a time from the end, so
+	 * elements added concurrently may or may not be included.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueAll() is called
+	 * @return a list of all elements in the queue
+	 */
+	@Override
+	public List<T> dequeueAll()
+	{
+		List<T> list = new ArrayList<>(size());
+		Object element;
+		while ((element = deque.pollLast()) != null)
+		{
+			size.decrement();
+			list.add(unmask(element));
+		}
+
+		if (list.isEmpty())
+		{
+			throw EmptyQueueException.instance();
+		}
+		return list;
+	}
+
+	/**
+	 * Adds a new element to the front of the queue.
+	 *
+	 * @param element
+	 *            the new element to be added to the front of the queue
+	 */
+	@Override
+	public void enqueueFirst(T element)
+	{
+		deque.addFirst(mask(element));
+		size.increment();
+	}
+
+	/**
+	 * Adds a new element to the end of the queue.
+	 *
+	 * @param element
+	 *            the new element to be added to the end of the queue
+	 */
+	@Override
+	public void enqueueLast(T element)
+	{
+		deque.addLast(mask(element));
+		size.increment();
+	}
+
+	/**
+	 * Adds a group of elements to the front of the queue. Each element is added
+	 * atomically, but other threads may interleave their own operations between
+	 * them.
+	 *
+	 * @param elements
+	 *            an array of elements to be added to the beginning of the queue
+	 */
+	@Override
+	public void enqueueAllFirst(T[] elements)
+	{
+		for (T element : elements)
+		{
+			enqueueFirst(element);
+		}
+	}
+
+	/**
+	 * Adds a group of elements to the end of the queue. Each element is added
+	 * atomically, but other threads may interleave their own operations between
+	 * them.
+	 *
+	 * @param elements
+	 *            an array of elements to be added to the end of the queue
+	 */
+	@Override
+	public void enqueueAllLast(T[] elements)
+	{
+		for (T element : elements)
+		{
+			enqueueLast(element);
+		}
+	}
+
+	/**
+	 * Returns the first element in the queue without removing it.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and peekFirst() is called
+	 * @return the first element
+	 */
+	public T peekFirst()
+	{
+		Object element = deque.peekFirst();
+		if (element == null)
+		{
+			throw EmptyQueueException.instance();
+		}
+		return unmask(element);
+	}
+
+	/**
+	 * Returns the last element in the queue without removing it.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and peekLast() is called
+	 * @return the last element
+	 */
+	public T peekLast()
+	{
+		Object element = deque.peekLast();
+		if (element == null)
+		{
+			throw EmptyQueueException.instance();
+		}
+		return unmask(element);
+	}
+
+	/**
+	 * Returns the number of elements in the queue. While other threads are
+	 * changing the queue this is an estimate.
+	 *
+	 * @return the number of elements in the queue
+	 */
+	@Override
+	public int size()
+	{
+		long count = size.sum();
+		if (count < 0)
+		{
+			// a dequeue can be counted before the enqueue that it removed
+			return 0;
+		}
+		return (int) Math.min(count, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Reports whether the queue is empty or not.
+	 *
+	 * @return true if no elements are in the queue, otherwise returns false
+	 */
+	@Override
+	public boolean isEmpty()
+	{
+		return deque.peekFirst() == null;
+	}
+
+	/**
+	 * Removes all elements from the queue, one at a time.
+	 */
+	@Override
+	public void clear()
+	{
+		while (deque.pollFirst() != null)
+		{
+			size.decrement();
+		}
+	}
+
+	/**
+	 * Returns a weakly consistent iterator over the elements of the queue, from
+	 * the last element to the first. It never throws
+	 * ConcurrentModificationException.
+	 *
+	 * @return an object using the Iterator<T> interface
+	 */
+	@Override
+	public Iterator<T> iterator()
+	{
+		final Iterator<Object> descending = deque.descendingIterator();
+		return new Iterator<T>()
+		{
+			@Override
+			public boolean hasNext()
+			{
+				return descending.hasNext();
+			}
+
+			@Override
+			public T next()
+			{
+				return unmask(descending.next());
+			}
+		};
+	}
+
+	/**
+	 * Returns a weakly consistent spliterator over the elements of the queue, from
+	 * the last element to the first. The size of a concurrent queue is not known in
+	 * advance, so parallel streams split it by copying batches of elements.
+	 *
+	 * @return a spliterator over the elements of the queue
+	 */
+	@Override
+	public Spliterator<T> spliterator()
+	{
+		return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.CONCURRENT);
+	}
+
+	private static Object mask(Object element)
+	{
+		return element == null ? NULL_ELEMENT : element;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T unmask(Object element)
+	{
+		return element == NULL_ELEMENT ? null : (T) element;
+	}
+}
@@ -0,0 +1,394 @@
+/**
+ * Michael Horn
+ * Oct 18, 2026
+ * SpscTwoWayQueue.java
+ */
+package structures.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import exceptions.EmptyQueueException;
+import structures.IStreamableTwoWayQueue;
+
+/**
+ * A wait-free, fixed capacity two-way queue for exactly one producer thread and
+ * one consumer thread. The producer adds at the end with enqueueLast(),
+ * enqueueAllLast() or offerLast(), and the consumer removes from the front with
+ * dequeueFirst(), pollFirst(), dequeueAll() or clear(). Neither thread ever
+ * locks or retries a compare-and-set.
+ *
+ * The head and tail sequence counters live on their own cache lines so the two
+ * threads do not slow each other down, and each side publishes its counter with
+ * an ordered (lazy) store. Each side also caches the other side's counter and
+ * only re-reads it when the cached value says the queue looks full or empty.
+ *
+ * Operations that would need a second producer or consumer (enqueueFirst(),
+ * enqueueAllFirst() and dequeueLast()) throw UnsupportedOperationException.
+ * size() and isEmpty() may be called from any thread but are only estimates
+ * while the queue is in use. The iterator must be used by the consumer thread.
+ *
+ * @author Michael Horn
+ * @version 1.0
+ */
+public class SpscTwoWayQueue<T> extends SpscPadAfterConsumer implements IStreamableTwoWayQueue<T>
+{
+	private static final AtomicLongFieldUpdater<SpscProducerFields> TAIL = AtomicLongFieldUpdater
+			.newUpdater(SpscProducerFields.class, "tail");
+	private static final AtomicLongFieldUpdater<SpscConsumerFields> HEAD = AtomicLongFieldUpdater
+			.newUpdater(SpscConsumerFields.class, "head");
+
+	private static final Object EMPTY = new Object();
+
+	private final Object[] buffer;
+	private final int mask;
+
+	/**
+	 * Creates an empty queue that holds at least the given number of elements. The
+	 * capacity is rounded up to a power of two.
+	 *
+	 * @param capacity
+	 *            the number of elements to make room for
+	 */
+	public SpscTwoWayQueue(int capacity)
+	{
+		if (capacity <= 0 || capacity > 1 << 30)
+		{
+			throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+		}
+		int length = Integer.highestOneBit(capacity);
+		if (length < capacity)
+		{
+			length <<= 1;
+		}
+		this.buffer = new Object[length];
+		this.mask = length - 1;
+	}
+
+	/**
+	 * Returns the number of elements the queue can hold.
+	 *
+	 * @return the capacity of the queue
+	 */
+	public int capacity()
+	{
+		return buffer.length;
+	}
+
+	/**
+	 * Adds a new element to the end of the queue if there is room. Producer thread
+	 * only.
+	 *
+	 * @param element
+	 *            the new element to be added to the end of the queue
+	 * @return true if the element was added, false if the queue is full
+	 */
+	public boolean offerLast(T element)
+	{
+		long t = tail;
+		if (t - cachedHead >= buffer.length)
+		{
+			cachedHead = head;
+			if (t - cachedHead >= buffer.length)
+			{
+				return false;
+			}
+		}
+
+		buffer[(int) t & mask] = element;
+		TAIL.lazySet(this, t + 1);
+		return true;
+	}
+
+	/**
+	 * Adds a new element to the end of the queue. Producer thread only.
+	 *
+	 * @param element
+	 *            the new element to be added to the end of the queue
+	 * @throws IllegalStateException
+	 *             if the queue is full
+	 */
+	@Override
+	public void enqueueLast(T element)
+	{
+		if (!offerLast(element))
+		{
+			throw new IllegalStateException("Queue full");
+		}
+	}
+
+	/**
+	 * Adds a group of elements to the end of the queue and publishes them all with
+	 * a single store. Either all of the elements are added or none are. Producer
+	 * thread only.
+	 *
+	 * @param elements
+	 *            an array of elements to be added to the end of the queue
+	 * @throws IllegalStateException
+	 *             if the queue does not have room for every element
+	 */
+	@Override
+	public void enqueueAllLast(T[] elements)
+	{
+		long t = tail;
+		if (t + elements.length - cachedHead > buffer.length)
+		{
+			cachedHead = head;
+			if (t + elements.length - cachedHead > buffer.length)
+			{
+				throw new IllegalStateException("Queue full");
+			}
+		}
+
+		for (int i = 0; i < elements.length; i++)
+		{
+			buffer[(int) (t + i) & mask] = elements[i];
+		}
+		TAIL.lazySet(this, t + elements.length);
+	}
+
+	/**
+	 * Removes and returns the first element in the queue. Consumer thread only.
+	 * Since null elements are allowed, use dequeueFirst() if the queue may hold
+	 * nulls.
+	 *
+	 * @return the first element, or null if the queue is empty
+	 */
+	public T pollFirst()
+	{
+		Object element = takeFirst();
+		return element == EMPTY ? null : unchecked(element);
+	}
+
+	/**
+	 * Removes and returns the first element in the queue. Consumer thread only.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueFirst() is called
+	 * @return the first element
+	 */
+	@Override
+	public T dequeueFirst()
+	{
+		Object element = takeFirst();
+		if (element == EMPTY)
+		{
+			throw EmptyQueueException.instance();
+		}
+		return unchecked(element);
+	}
+
+	/**
+	 * Removes and returns all elements in the queue. The first element in the queue
+	 * is located at the last index of the resulting list and the last element in
+	 * the queue at index zero. Consumer thread only.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueAll() is called
+	 * @return a list of all elements in the queue
+	 */
+	@Override
+	public List<T> dequeueAll()
+	{
+		long h = head;
+		long t = tail;
+		if (h == t)
+		{
+			throw EmptyQueueException.instance();
+		}
+
+		List<T> list = new ArrayList<>((int) (t - h));
+		for (long i = t - 1; i >= h; i--)
+		{
+			int index = (int) i & mask;
+			list.add(unchecked(buffer[index]));
+			buffer[index] = null;
+		}
+		cachedTail = t;
+		HEAD.lazySet(this, t);
+		return list;
+	}
+
+	/**
+	 * Removes all elements that have been published so far. Consumer thread only.
+	 */
+	@Override
+	public void clear()
+	{
+		long h = head;
+		long t = tail;
+		for (long i = h; i < t; i++)
+		{
+			buffer[(int) i & mask] = null;
+		}
+		cachedTail = t;
+		HEAD.lazySet(this, t);
+	}
+
+	/**
+	 * Not supported: only the consumer may remove elements, and only from the
+	 * front.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public T dequeueLast()
+	{
+		throw new UnsupportedOperationException("A single-consumer queue only removes from the front");
+	}
+
+	/**
+	 * Not supported: only the producer may add elements, and only at the end.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void enqueueFirst(T element)
+	{
+		throw new UnsupportedOperationException("A single-producer queue only adds at the end");
+	}
+
+	/**
+	 * Not supported: only the producer may add elements, and only at the end.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void enqueueAllFirst(T[] elements)
+	{
+		throw new UnsupportedOperationException("A single-producer queue only adds at the end");
+	}
+
+	/**
+	 * Returns the number of elements in the queue. While the queue is in use this
+	 * is an estimate.
+	 *
+	 * @return the number of elements in the queue
+	 */
+	@Override
+	public int size()
+	{
+		// read head first so a concurrent dequeue cannot make the result negative
+		long h = head;
+		long t = tail;
+		return (int) Math.max(0, Math.min(t - h, buffer.length));
+	}
+
+	/**
+	 * Reports whether the queue is empty or not.
+	 *
+	 * @return true if no elements are in the queue, otherwise returns false
+	 */
+	@Override
+	public boolean isEmpty()
+	{
+		return head >= tail;
+	}
+
+	/**
+	 * Returns an iterator over the elements published when it was created, from
+	 * the last element to the first. Consumer thread only.
+	 *
+	 * @return an object using the Iterator<T> interface
+	 */
+	@Override
+	public Iterator<T> iterator()
+	{
+		return Collections.unmodifiableList(snapshot()).iterator();
+	}
+
+	/**
+	 * Returns a spliterator over the elements published when it was created, from
+	 * the last element to the first. It splits by index range. Consumer thread
+	 * only.
+	 *
+	 * @return a spliterator over the elements of the queue
+	 */
+	@Override
+	public Spliterator<T> spliterator()
+	{
+		return snapshot().spliterator();
+	}
+
+	/**
+	 * Copies every published element from the last to the first
+	 */
+	private List<T> snapshot()
+	{
+		long h = head;
+		long t = tail;
+		List<T> snapshot = new ArrayList<>((int) (t - h));
+		for (long i = t - 1; i >= h; i--)
+		{
+			snapshot.add(unchecked(buffer[(int) i & mask]));
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Removes the first element, or returns EMPTY if there is none
+	 */
+	private Object takeFirst()
+	{
+		long h = head;
+		if (h >= cachedTail)
+		{
+			cachedTail = tail;
+			if (h >= cachedTail)
+			{
+				return EMPTY;
+			}
+		}
+
+		int index = (int) h & mask;
+		Object element = buffer[index];
+		buffer[index] = null;
+		HEAD.lazySet(this, h + 1);
+		return element;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T unchecked(Object element)
+	{
+		return (T) element;
+	}
+}
+
+/**
+ * The classes below lay out SpscTwoWayQueue's fields. The JVM keeps superclass
+ * fields ahead of subclass fields, so the unused longs keep the producer and
+ * consumer counters on separate cache lines.
+ */
+abstract class SpscPadBeforeProducer
+{
+	long p00, p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class SpscProducerFields extends SpscPadBeforeProducer
+{
+	volatile long tail;
+	long cachedHead;
+}
+
+abstract class SpscPadAfterProducer extends SpscProducerFields
+{
+	long p10, p11, p12, p13, p14, p15, p16, p17;
+}
+
+abstract class SpscConsumerFields extends SpscPadAfterProducer
+{
+	volatile long head;
+	long cachedTail;
+}
+
+abstract class SpscPadAfterConsumer extends SpscConsumerFields
+{
+	long p20, p21, p22, p23, p24, p25, p26, p27;
+}
@@ -0,0 +1,471 @@
+/**
+ * Michael Horn
+ * Oct 18, 2026
+ * StripedTwoWayQueue.java
+ */
+package structures.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.locks.ReentrantLock;
+
+import exceptions.EmptyQueueException;
+import structures.ArrayTwoWayQueue;
+import structures.IStreamableTwoWayQueue;
+
+/**
+ * A thread-safe two-way queue split into independent lanes so that many threads
+ * can use it at once without all contending for one lock. Each lane is an
+ * ArrayTwoWayQueue with its own lock.
+ *
+ * Every thread has a home lane, chosen from its thread id, and always enqueues
+ * there. Dequeues start at the home lane and move on to the other lanes in turn,
+ * first skipping lanes whose lock is held by another thread and then, if every
+ * lane looked empty or busy, waiting for the busy ones.
+ *
+ * The price is a weaker ordering guarantee than a single queue gives:
+ * - Within a lane, elements keep the order of a two-way queue. Since a thread
+ *   always enqueues to its home lane, elements added by the same thread keep
+ *   their relative order.
+ * - There is no order between lanes. dequeueFirst() returns the first element of
+ *   some lane, which need not be the oldest element in the queue, and
+ *   dequeueLast() the last element of some lane.
+ * - A dequeue throws EmptyQueueException only if it found every lane empty, but
+ *   the lanes are not all checked at the same moment, so elements may have been
+ *   added to lanes it had already passed.
+ *
+ * Bulk operations and size() visit the lanes one at a time, so they are not
+ * atomic across lanes. The iterator works on a copy of the elements taken lane
+ * by lane, and never throws ConcurrentModificationException.
+ *
+ * @author Michael Horn
+ * @version 1.0
+ */
+public class StripedTwoWayQueue<T> implements IStreamableTwoWayQueue<T>
+{
+	private static final int MAX_LANES = 1 << 16;
+
+	private static final Object EMPTY = new Object();
+
+	private final Lane<T>[] lanes;
+	private final int mask;
+
+	/**
+	 * Creates an empty queue with two lanes per available processor
+	 */
+	public StripedTwoWayQueue()
+	{
+		this(2 * Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates an empty queue with at least the given number of lanes. The number
+	 * is rounded up to a power of two.
+	 *
+	 * @param lanes
+	 *            the number of lanes to create
+	 */
+	@SuppressWarnings("unchecked")
+	public StripedTwoWayQueue(int lanes)
+	{
+		if (lanes <= 0 || lanes > MAX_LANES)
+		{
+			throw new IllegalArgumentException("Lanes must be between 1 and 2^16: " + lanes);
+		}
+		int length = Integer.highestOneBit(lanes);
+		if (length < lanes)
+		{
+			length <<= 1;
+		}
+		this.lanes = (Lane<T>[]) new Lane<?>[length];
+		for (int i = 0; i < length; i++)
+		{
+			this.lanes[i] = new Lane<>();
+		}
+		this.mask = length - 1;
+	}
+
+	/**
+	 * Returns the number of lanes
+	 *
+	 * @return the number of lanes
+	 */
+	public int lanes()
+	{
+		return lanes.length;
+	}
+
+	/**
+	 * Removes and returns the first element of one of the lanes, starting with the
+	 * calling thread's home lane.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if every lane was found empty
+	 * @return the first element of a lane
+	 */
+	@Override
+	public T dequeueFirst()
+	{
+		Object element = take(true);
+		if (element == EMPTY)
+		{
+			throw EmptyQueueException.instance();
+		}
+		return unchecked(element);
+	}
+
+	/**
+	 * Removes and returns the last element of one of the lanes, starting with the
+	 * calling thread's home lane.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if every lane was found empty
+	 * @return the last element of a lane
+	 */
+	@Override
+	public T dequeueLast()
+	{
+		Object element = take(false);
+		if (element == EMPTY)
+		{
+			throw EmptyQueueException.instance();
+		}
+		return unchecked(element);
+	}
+
+	/**
+	 * Removes and returns the first element of one of the lanes. Since null
+	 * elements are allowed, use dequeueFirst() if the queue may hold nulls.
+	 *
+	 * @return the first element of a lane, or null if every lane was found empty
+	 */
+	public T pollFirst()
+	{
+		Object element = take(true);
+		return element == EMPTY ? null : unchecked(element);
+	}
+
+	/**
+	 * Removes and returns the last element of one of the lanes. Since null
+	 * elements are allowed, use dequeueLast() if the queue may hold nulls.
+	 *
+	 * @return the last element of a lane, or null if every lane was found empty
+	 */
+	public T pollLast()
+	{
+		Object element = take(false);
+		return element == EMPTY ? null : unchecked(element);
+	}
+
+	/**
+	 * Removes and returns all elements in the queue, one lane after another. Within
+	 * each lane's part of the list the lane's first element comes last, as with
+	 * ITwoWayQueue.dequeueAll().
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if every lane was found empty
+	 * @return a list of all elements in the queue
+	 */
+	@Override
+	public List<T> dequeueAll()
+	{
+		List<T> all = new ArrayList<>();
+		for (Lane<T> lane : lanes)
+		{
+			lane.lock();
+			try
+			{
+				if (!lane.items.isEmpty())
+				{
+					all.addAll(lane.items.dequeueAll());
+					lane.size = 0;
+				}
+			} finally
+			{
+				lane.unlock();
+			}
+		}
+		if (all.isEmpty())
+		{
+			throw EmptyQueueException.instance();
+		}
+		return all;
+	}
+
+	/**
+	 * Adds a new element to the front of the calling thread's home lane.
+	 *
+	 * @param element
+	 *            the new element
+	 */
+	@Override
+	public void enqueueFirst(T element)
+	{
+		Lane<T> lane = homeLane();
+		lane.lock();
+		try
+		{
+			lane.items.enqueueFirst(element);
+			lane.size++;
+		} finally
+		{
+			lane.unlock();
+		}
+	}
+
+	/**
+	 * Adds a new element to the end of the calling thread's home lane.
+	 *
+	 * @param element
+	 *            the new element
+	 */
+	@Override
+	public void enqueueLast(T element)
+	{
+		Lane<T> lane = homeLane();
+		lane.lock();
+		try
+		{
+			lane.items.enqueueLast(element);
+			lane.size++;
+		} finally
+		{
+			lane.unlock();
+		}
+	}
+
+	/**
+	 * Adds a group of elements to the front of the calling thread's home lane, in
+	 * one step.
+	 *
+	 * @param elements
+	 *            an array of elements
+	 */
+	@Override
+	public void enqueueAllFirst(T[] elements)
+	{
+		Lane<T> lane = homeLane();
+		lane.lock();
+		try
+		{
+			lane.items.enqueueAllFirst(elements);
+			lane.size += elements.length;
+		} finally
+		{
+			lane.unlock();
+		}
+	}
+
+	/**
+	 * Adds a group of elements to the end of the calling thread's home lane, in one
+	 * step.
+	 *
+	 * @param elements
+	 *            an array of elements
+	 */
+	@Override
+	public void enqueueAllLast(T[] elements)
+	{
+		Lane<T> lane = homeLane();
+		lane.lock();
+		try
+		{
+			lane.items.enqueueAllLast(elements);
+			lane.size += elements.length;
+		} finally
+		{
+			lane.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of elements in the queue. While the queue is in use this
+	 * is an estimate.
+	 *
+	 * @return the number of elements
+	 */
+	@Override
+	public int size()
+	{
+		long size = 0;
+		for (Lane<T> lane : lanes)
+		{
+			size += lane.size;
+		}
+		return (int) Math.min(size, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Reports whether every lane is empty. While the queue is in use this is an
+	 * estimate.
+	 *
+	 * @return true if no elements are in the queue, otherwise returns false
+	 */
+	@Override
+	public boolean isEmpty()
+	{
+		for (Lane<T> lane : lanes)
+		{
+			if (lane.size != 0)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Removes all elements from the queue, one lane after another.
+	 */
+	@Override
+	public void clear()
+	{
+		for (Lane<T> lane : lanes)
+		{
+			lane.lock();
+			try
+			{
+				lane.items.clear();
+				lane.size = 0;
+			} finally
+			{
+				lane.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Returns an iterator over a copy of the elements, one lane after another and
+	 * from the last element to the first within each lane.
+	 *
+	 * @return an object using the Iterator<T> interface
+	 */
+	@Override
+	public Iterator<T> iterator()
+	{
+		return Collections.unmodifiableList(snapshot()).iterator();
+	}
+
+	/**
+	 * Returns a spliterator over a copy of the elements, in the same order as the
+	 * iterator. It splits by index range.
+	 *
+	 * @return a spliterator over the elements of the queue
+	 */
+	@Override
+	public Spliterator<T> spliterator()
+	{
+		return snapshot().spliterator();
+	}
+
+	/**
+	 * Copies every element, one lane at a time
+	 */
+	private List<T> snapshot()
+	{
+		List<T> snapshot = new ArrayList<>(size());
+		for (Lane<T> lane : lanes)
+		{
+			lane.lock();
+			try
+			{
+				for (T element : lane.items)
+				{
+					snapshot.add(element);
+				}
+			} finally
+			{
+				lane.unlock();
+			}
+		}
+		return snapshot;
+	}
+
+	private Lane<T> homeLane()
+	{
+		// thread ids are handed out in sequence, so masking spreads threads evenly
+		return lanes[(int) Thread.currentThread().getId() & mask];
+	}
+
+	/**
+	 * Removes an element from the front or end of the first lane that has one, or
+	 * returns EMPTY if every lane was found empty
+	 */
+	private Object take(boolean first)
+	{
+		int home = (int) Thread.currentThread().getId() & mask;
+
+		// skip lanes that another thread is using
+		for (int i = 0; i <= mask; i++)
+		{
+			Lane<T> lane = lanes[(home + i) & mask];
+			if (lane.size != 0 && lane.tryLock())
+			{
+				try
+				{
+					if (!lane.items.isEmpty())
+					{
+						return lane.take(first);
+					}
+				} finally
+				{
+					lane.unlock();
+				}
+			}
+		}
+
+		// every lane was empty or busy, so wait for the busy ones
+		for (int i = 0; i <= mask; i++)
+		{
+			Lane<T> lane = lanes[(home + i) & mask];
+			if (lane.size != 0)
+			{
+				lane.lock();
+				try
+				{
+					if (!lane.items.isEmpty())
+					{
+						return lane.take(first);
+					}
+				} finally
+				{
+					lane.unlock();
+				}
+			}
+		}
+		return EMPTY;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T unchecked(Object element)
+	{
+		return (T) element;
+	}
+
+	/**
+	 * One lane: a queue, the lock that guards it, and its size for lock-free reads
+	 */
+	private static final class Lane<T> extends ReentrantLock
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final ArrayTwoWayQueue<T> items = new ArrayTwoWayQueue<>();
+
+		// written under the lock, read without it
+		private volatile int size;
+
+		/**
+		 * Removes an element from the front or end. The lock must be held and the
+		 * lane must not be empty.
+		 */
+		private T take(boolean first)
+		{
+			T element = first ? items.dequeueFirst() : items.dequeueLast();
+			size--;
+			return element;
+		}
+	}
+}
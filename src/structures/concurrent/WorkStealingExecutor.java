@@ -0,0 +1,308 @@
+/**
+ * Michael Horn
+ * Oct 18, 2026
+ * WorkStealingExecutor.java
+ */
+package structures.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A fixed pool of worker threads that share work by stealing. Each worker owns
+ * a WorkStealingTwoWayQueue. A task submitted from inside a worker goes to the
+ * front of that worker's own queue, and the worker runs its own tasks newest
+ * first, which keeps recently forked tasks in its cache. Tasks submitted from
+ * other threads go to a shared ConcurrentTwoWayQueue. A worker with nothing to
+ * do takes from the shared queue, then steals the oldest task of another worker
+ * chosen at random, and parks if it finds nothing.
+ *
+ * Tasks should not block waiting for other tasks of the same executor, since
+ * they may be queued behind the waiting task on the same worker. Count
+ * completions instead, e.g. with a CountDownLatch that the last task releases.
+ *
+ * After shutdown() no new tasks are accepted from outside the pool, but running
+ * tasks may still submit more, and every queued task is run before the workers
+ * exit. A RuntimeException thrown by a task is passed to the worker thread's
+ * uncaught exception handler, and the worker carries on.
+ *
+ * @author Michael Horn
+ * @version 1.0
+ */
+public class WorkStealingExecutor extends AbstractExecutorService
+{
+	private final Worker[] workers;
+	private final ConcurrentTwoWayQueue<Runnable> submissions = new ConcurrentTwoWayQueue<>();
+	private final AtomicInteger idleWorkers = new AtomicInteger();
+	private final CountDownLatch terminated;
+
+	private volatile boolean shutdown;
+
+	/**
+	 * Creates an executor with one worker per available processor
+	 */
+	public WorkStealingExecutor()
+	{
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates an executor and starts its workers
+	 *
+	 * @param parallelism
+	 *            the number of worker threads
+	 */
+	public WorkStealingExecutor(int parallelism)
+	{
+		if (parallelism <= 0)
+		{
+			throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+		}
+		this.workers = new Worker[parallelism];
+		this.terminated = new CountDownLatch(parallelism);
+		for (int i = 0; i < parallelism; i++)
+		{
+			workers[i] = new Worker(i);
+		}
+		for (Worker worker : workers)
+		{
+			worker.start();
+		}
+	}
+
+	/**
+	 * Returns the number of worker threads
+	 *
+	 * @return the parallelism of the executor
+	 */
+	public int getParallelism()
+	{
+		return workers.length;
+	}
+
+	/**
+	 * Queues a task to run on one of the workers. From a worker thread of this
+	 * executor the task goes to the front of that worker's own queue.
+	 *
+	 * @param task
+	 *            the task to run
+	 * @throws RejectedExecutionException
+	 *             if the executor has been shut down and the caller is not one of
+	 *             its workers
+	 */
+	@Override
+	public void execute(Runnable task)
+	{
+		if (task == null)
+		{
+			throw new NullPointerException("Task cannot be null");
+		}
+
+		Thread current = Thread.currentThread();
+		if (current instanceof Worker && ((Worker) current).executor() == this)
+		{
+			// if no idle worker notices this task, its owner still runs it
+			((Worker) current).tasks.enqueueFirst(task);
+		} else
+		{
+			if (shutdown)
+			{
+				throw new RejectedExecutionException("Executor has been shut down");
+			}
+			submissions.enqueueLast(task);
+		}
+		signalWork();
+	}
+
+	@Override
+	public void shutdown()
+	{
+		shutdown = true;
+		for (Worker worker : workers)
+		{
+			LockSupport.unpark(worker);
+		}
+	}
+
+	/**
+	 * Stops accepting tasks, interrupts the workers and returns the tasks that had
+	 * not started. Tasks that are running may still submit more, which are then
+	 * run before the workers exit.
+	 *
+	 * @return the tasks that were removed from the queues
+	 */
+	@Override
+	public List<Runnable> shutdownNow()
+	{
+		shutdown = true;
+		List<Runnable> pending = new ArrayList<>();
+		Runnable task;
+		while ((task = submissions.pollFirst()) != null)
+		{
+			pending.add(task);
+		}
+		for (Worker worker : workers)
+		{
+			while ((task = worker.tasks.pollLast()) != null)
+			{
+				pending.add(task);
+			}
+			worker.interrupt();
+		}
+		return pending;
+	}
+
+	@Override
+	public boolean isShutdown()
+	{
+		return shutdown;
+	}
+
+	@Override
+	public boolean isTerminated()
+	{
+		return terminated.getCount() == 0;
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException
+	{
+		return terminated.await(timeout, unit);
+	}
+
+	/**
+	 * Wakes an idle worker, if there is one, to pick up a new task
+	 */
+	private void signalWork()
+	{
+		if (idleWorkers.get() == 0)
+		{
+			return;
+		}
+		for (Worker worker : workers)
+		{
+			if (worker.idle.get() && worker.idle.compareAndSet(true, false))
+			{
+				LockSupport.unpark(worker);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Finds a task for a worker: its own newest task, then the oldest submitted
+	 * task, then the oldest task of another worker. Returns null if there are none.
+	 */
+	private Runnable findTask(Worker worker)
+	{
+		Runnable task = worker.tasks.pollFirst();
+		if (task != null)
+		{
+			return task;
+		}
+		task = submissions.pollFirst();
+		if (task != null)
+		{
+			return task;
+		}
+
+		int start = ThreadLocalRandom.current().nextInt(workers.length);
+		for (int i = 0; i < workers.length; i++)
+		{
+			Worker victim = workers[(start + i) % workers.length];
+			if (victim != worker)
+			{
+				task = victim.tasks.pollLast();
+				if (task != null)
+				{
+					return task;
+				}
+			}
+		}
+		return null;
+	}
+
+	private void runWorker(Worker worker)
+	{
+		try
+		{
+			while (true)
+			{
+				Runnable task = findTask(worker);
+				if (task != null)
+				{
+					run(worker, task);
+					continue;
+				}
+				if (shutdown)
+				{
+					return;
+				}
+
+				// announce that we are idle before checking once more, so a task
+				// queued in between either is found here or unparks us
+				idleWorkers.incrementAndGet();
+				worker.idle.set(true);
+				task = findTask(worker);
+				if (task == null && !shutdown)
+				{
+					LockSupport.park(this);
+				}
+				worker.idle.set(false);
+				idleWorkers.decrementAndGet();
+				if (task != null)
+				{
+					run(worker, task);
+				}
+			}
+		} finally
+		{
+			terminated.countDown();
+		}
+	}
+
+	private static void run(Worker worker, Runnable task)
+	{
+		try
+		{
+			task.run();
+		} catch (RuntimeException ex)
+		{
+			worker.getUncaughtExceptionHandler().uncaughtException(worker, ex);
+		}
+	}
+
+	/**
+	 * A worker thread and the queue it owns
+	 */
+	private final class Worker extends Thread
+	{
+		private final WorkStealingTwoWayQueue<Runnable> tasks = new WorkStealingTwoWayQueue<>();
+		private final AtomicBoolean idle = new AtomicBoolean();
+
+		private Worker(int index)
+		{
+			super("WorkStealingExecutor-worker-" + index);
+			setDaemon(true);
+		}
+
+		private WorkStealingExecutor executor()
+		{
+			return WorkStealingExecutor.this;
+		}
+
+		@Override
+		public void run()
+		{
+			runWorker(this);
+		}
+	}
+}
@@ -0,0 +1,444 @@
+/**
+ * Michael Horn
+ * Oct 18, 2026
+ * WorkStealingTwoWayQueue.java
+ */
+package structures.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import exceptions.EmptyQueueException;
+import structures.IStreamableTwoWayQueue;
+
+/**
+ * A Chase-Lev work-stealing deque. One owner thread adds and removes elements
+ * at the front with enqueueFirst(), enqueueAllFirst(), dequeueFirst() and
+ * pollFirst(), so it works through its own elements newest first. Any other
+ * thread may steal the oldest element from the end with dequeueLast() or
+ * pollLast().
+ *
+ * The owner only needs a compare-and-set when it takes the very last element,
+ * since that is the only time it can race with a thief. Thieves race each other
+ * with a compare-and-set on the end index and retry when they lose. Elements are
+ * kept in a circular array that the owner doubles when it fills up; thieves
+ * holding the old array still read correct elements from it.
+ *
+ * dequeueAll(), clear() and the iterator belong to the owner thread. Adding at
+ * the end would need a second writer at the thieves' end, so enqueueLast() and
+ * enqueueAllLast() throw UnsupportedOperationException. A stolen element stays
+ * referenced by the array until the owner reuses its slot. size() and isEmpty()
+ * may be called from any thread but are only estimates while the queue is in
+ * use.
+ *
+ * @author Michael Horn
+ * @version 1.0
+ */
+public class WorkStealingTwoWayQueue<T> extends WorkStealingPadAfterTop implements IStreamableTwoWayQueue<T>
+{
+	private static final AtomicLongFieldUpdater<WorkStealingBottomFields> BOTTOM = AtomicLongFieldUpdater
+			.newUpdater(WorkStealingBottomFields.class, "bottom");
+	private static final AtomicLongFieldUpdater<WorkStealingTopFields> TOP = AtomicLongFieldUpdater
+			.newUpdater(WorkStealingTopFields.class, "top");
+
+	private static final int DEFAULT_CAPACITY = 64;
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	private static final Object EMPTY = new Object();
+
+	private volatile Object[] array;
+
+	/**
+	 * Creates an empty queue with the default capacity
+	 */
+	public WorkStealingTwoWayQueue()
+	{
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates an empty queue that holds the given number of elements before it
+	 * grows. The capacity is rounded up to a power of two.
+	 *
+	 * @param initialCapacity
+	 *            the number of elements to make room for
+	 */
+	public WorkStealingTwoWayQueue(int initialCapacity)
+	{
+		if (initialCapacity <= 0 || initialCapacity > MAX_CAPACITY)
+		{
+			throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + initialCapacity);
+		}
+		int length = Integer.highestOneBit(initialCapacity);
+		if (length < initialCapacity)
+		{
+			length <<= 1;
+		}
+		this.array = new Object[length];
+	}
+
+	/**
+	 * Adds a new element to the front of the queue. Owner thread only.
+	 *
+	 * @param element
+	 *            the new element to be added to the front of the queue
+	 */
+	@Override
+	public void enqueueFirst(T element)
+	{
+		long b = bottom;
+		Object[] a = ensureCapacity(b, 1);
+		a[(int) b & (a.length - 1)] = element;
+		BOTTOM.lazySet(this, b + 1);
+	}
+
+	/**
+	 * Adds a group of elements to the front of the queue and publishes them all
+	 * with a single store, so the last element of the array ends up first. Owner
+	 * thread only.
+	 *
+	 * @param elements
+	 *            an array of elements to be added to the front of the queue
+	 */
+	@Override
+	public void enqueueAllFirst(T[] elements)
+	{
+		long b = bottom;
+		Object[] a = ensureCapacity(b, elements.length);
+		int mask = a.length - 1;
+		for (int i = 0; i < elements.length; i++)
+		{
+			a[(int) (b + i) & mask] = elements[i];
+		}
+		BOTTOM.lazySet(this, b + elements.length);
+	}
+
+	/**
+	 * Removes and returns the first element in the queue. Owner thread only.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueFirst() is called
+	 * @return the first element
+	 */
+	@Override
+	public T dequeueFirst()
+	{
+		Object element = takeFirst();
+		if (element == EMPTY)
+		{
+			throw EmptyQueueException.instance();
+		}
+		return unchecked(element);
+	}
+
+	/**
+	 * Removes and returns the first element in the queue. Owner thread only. Since
+	 * null elements are allowed, use dequeueFirst() if the queue may hold nulls.
+	 *
+	 * @return the first element, or null if the queue is empty
+	 */
+	public T pollFirst()
+	{
+		Object element = takeFirst();
+		return element == EMPTY ? null : unchecked(element);
+	}
+
+	/**
+	 * Steals and returns the last element in the queue. Any thread may call this.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueLast() is called
+	 * @return the last element
+	 */
+	@Override
+	public T dequeueLast()
+	{
+		Object element = takeLast();
+		if (element == EMPTY)
+		{
+			throw EmptyQueueException.instance();
+		}
+		return unchecked(element);
+	}
+
+	/**
+	 * Steals and returns the last element in the queue. Any thread may call this.
+	 * Since null elements are allowed, use dequeueLast() if the queue may hold
+	 * nulls.
+	 *
+	 * @return the last element, or null if the queue is empty
+	 */
+	public T pollLast()
+	{
+		Object element = takeLast();
+		return element == EMPTY ? null : unchecked(element);
+	}
+
+	/**
+	 * Removes and returns all elements in the queue. The first element in the queue
+	 * is located at the last index of the resulting list and the last element in
+	 * the queue at index zero. Elements stolen while this runs are not included.
+	 * Owner thread only.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueAll() is called
+	 * @return a list of all elements in the queue
+	 */
+	@Override
+	public List<T> dequeueAll()
+	{
+		List<T> list = new ArrayList<>(size());
+		Object element;
+		while ((element = takeFirst()) != EMPTY)
+		{
+			list.add(unchecked(element));
+		}
+		if (list.isEmpty())
+		{
+			throw EmptyQueueException.instance();
+		}
+		Collections.reverse(list);
+		return list;
+	}
+
+	/**
+	 * Removes all elements from the queue. Owner thread only.
+	 */
+	@Override
+	public void clear()
+	{
+		while (takeFirst() != EMPTY)
+		{
+			// keep taking until the thieves and the owner have emptied the queue
+		}
+	}
+
+	/**
+	 * Not supported: thieves remove from the end, so only the owner adds, at the
+	 * front.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void enqueueLast(T element)
+	{
+		throw new UnsupportedOperationException("A work-stealing queue only adds at the front");
+	}
+
+	/**
+	 * Not supported: thieves remove from the end, so only the owner adds, at the
+	 * front.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void enqueueAllLast(T[] elements)
+	{
+		throw new UnsupportedOperationException("A work-stealing queue only adds at the front");
+	}
+
+	/**
+	 * Returns the number of elements in the queue. While the queue is in use this
+	 * is an estimate.
+	 *
+	 * @return the number of elements in the queue
+	 */
+	@Override
+	public int size()
+	{
+		// read top first so a concurrent steal cannot make the result negative
+		long t = top;
+		long b = bottom;
+		return (int) Math.max(0, b - t);
+	}
+
+	/**
+	 * Reports whether the queue is empty or not.
+	 *
+	 * @return true if no elements are in the queue, otherwise returns false
+	 */
+	@Override
+	public boolean isEmpty()
+	{
+		return top >= bottom;
+	}
+
+	/**
+	 * Returns an iterator over the elements in the queue when it was created, from
+	 * the last element to the first. Owner thread only.
+	 *
+	 * @return an object using the Iterator<T> interface
+	 */
+	@Override
+	public Iterator<T> iterator()
+	{
+		return Collections.unmodifiableList(snapshot()).iterator();
+	}
+
+	/**
+	 * Returns a spliterator over the elements in the queue when it was created,
+	 * from the last element to the first. It splits by index range. Owner thread
+	 * only.
+	 *
+	 * @return a spliterator over the elements of the queue
+	 */
+	@Override
+	public Spliterator<T> spliterator()
+	{
+		return snapshot().spliterator();
+	}
+
+	/**
+	 * Copies every element from the last to the first
+	 */
+	private List<T> snapshot()
+	{
+		Object[] a = array;
+		long t = top;
+		long b = bottom;
+		List<T> snapshot = new ArrayList<>((int) Math.max(0, b - t));
+		for (long i = t; i < b; i++)
+		{
+			snapshot.add(unchecked(a[(int) i & (a.length - 1)]));
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Returns an array with room for count more elements after index b, doubling
+	 * the current one if needed. Owner thread only.
+	 */
+	private Object[] ensureCapacity(long b, int count)
+	{
+		Object[] a = array;
+		long t = top;
+		if (b + count - t <= a.length)
+		{
+			return a;
+		}
+
+		long needed = b + count - t;
+		if (needed > MAX_CAPACITY)
+		{
+			throw new IllegalStateException("Queue full");
+		}
+		int length = a.length;
+		while (length < needed)
+		{
+			length <<= 1;
+		}
+
+		// a thief may steal while we copy; the indices it uses are the same in both
+		Object[] grown = new Object[length];
+		for (long i = t; i < b; i++)
+		{
+			grown[(int) i & (length - 1)] = a[(int) i & (a.length - 1)];
+		}
+		array = grown;
+		return grown;
+	}
+
+	/**
+	 * Removes the first element, or returns EMPTY if there is none. Owner thread
+	 * only.
+	 */
+	private Object takeFirst()
+	{
+		long b = bottom - 1;
+		Object[] a = array;
+
+		// the volatile store orders the new bottom before the read of top, so a
+		// thief and the owner never both take the same element
+		bottom = b;
+		long t = top;
+		if (t > b)
+		{
+			bottom = b + 1;
+			return EMPTY;
+		}
+
+		int index = (int) b & (a.length - 1);
+		Object element = a[index];
+		if (t < b)
+		{
+			a[index] = null;
+			return element;
+		}
+
+		// the last element: race the thieves for it
+		boolean won = TOP.compareAndSet(this, t, t + 1);
+		bottom = b + 1;
+		if (!won)
+		{
+			return EMPTY;
+		}
+		a[index] = null;
+		return element;
+	}
+
+	/**
+	 * Steals the last element, or returns EMPTY if there is none. Retries while
+	 * other threads take the same element first.
+	 */
+	private Object takeLast()
+	{
+		while (true)
+		{
+			long t = top;
+			long b = bottom;
+			if (t >= b)
+			{
+				return EMPTY;
+			}
+
+			Object[] a = array;
+			Object element = a[(int) t & (a.length - 1)];
+			if (TOP.compareAndSet(this, t, t + 1))
+			{
+				return element;
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T unchecked(Object element)
+	{
+		return (T) element;
+	}
+}
+
+/**
+ * The classes below lay out WorkStealingTwoWayQueue's indices. The JVM keeps
+ * superclass fields ahead of subclass fields, so the unused longs keep the
+ * owner's bottom index and the thieves' top index on separate cache lines.
+ */
+abstract class WorkStealingPadBeforeBottom
+{
+	long p00, p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class WorkStealingBottomFields extends WorkStealingPadBeforeBottom
+{
+	volatile long bottom;
+}
+
+abstract class WorkStealingPadAfterBottom extends WorkStealingBottomFields
+{
+	long p10, p11, p12, p13, p14, p15, p16, p17;
+}
+
+abstract class WorkStealingTopFields extends WorkStealingPadAfterBottom
+{
+	volatile long top;
+}
+
+abstract class WorkStealingPadAfterTop extends WorkStealingTopFields
+{
+	long p20, p21, p22, p23, p24, p25, p26, p27;
+}
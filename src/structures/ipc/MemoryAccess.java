@@ -0,0 +1,102 @@
+/**
+ * Michael Horn
+ * Oct 18, 2026
+ * MemoryAccess.java
+ */
+package structures.ipc;
+
+import java.lang.reflect.Field;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+import sun.misc.Unsafe;
+
+/**
+ * Raw access to the memory behind a direct or memory-mapped ByteBuffer. Java 8
+ * has no public API for ordered or volatile stores to memory outside the heap,
+ * which another process needs to see in the right order, so this goes through
+ * sun.misc.Unsafe.
+ *
+ * @author Michael Horn
+ * @version 1.0
+ */
+final class MemoryAccess
+{
+	private static final Unsafe UNSAFE;
+	private static final long BUFFER_ADDRESS_OFFSET;
+	private static final long BYTE_ARRAY_OFFSET;
+
+	static
+	{
+		try
+		{
+			Field field = Unsafe.class.getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+			UNSAFE = (Unsafe) field.get(null);
+			BUFFER_ADDRESS_OFFSET = UNSAFE.objectFieldOffset(Buffer.class.getDeclaredField("address"));
+			BYTE_ARRAY_OFFSET = UNSAFE.arrayBaseOffset(byte[].class);
+		} catch (ReflectiveOperationException ex)
+		{
+			throw new ExceptionInInitializerError(ex);
+		}
+	}
+
+	private MemoryAccess()
+	{
+	}
+
+	/**
+	 * Returns the native address of the first byte of a direct buffer
+	 *
+	 * @param buffer
+	 *            a direct or memory-mapped buffer
+	 * @return the address of the buffer's memory
+	 */
+	static long addressOf(ByteBuffer buffer)
+	{
+		if (!buffer.isDirect())
+		{
+			throw new IllegalArgumentException("Buffer must be direct");
+		}
+		return UNSAFE.getLong(buffer, BUFFER_ADDRESS_OFFSET);
+	}
+
+	static long getLongVolatile(long address)
+	{
+		return UNSAFE.getLongVolatile(null, address);
+	}
+
+	/**
+	 * Stores a long so that every earlier store is visible before it, without
+	 * waiting for the store itself to become visible
+	 */
+	static void putLongOrdered(long address, long value)
+	{
+		UNSAFE.putOrderedLong(null, address, value);
+	}
+
+	static void putLongVolatile(long address, long value)
+	{
+		UNSAFE.putLongVolatile(null, address, value);
+	}
+
+	static int getInt(long address)
+	{
+		return UNSAFE.getInt(address);
+	}
+
+	static void putInt(long address, int value)
+	{
+		UNSAFE.putInt(address, value);
+	}
+
+	static void copyToMemory(byte[] source, int offset, long address, int length)
+	{
+		UNSAFE.copyMemory(source, BYTE_ARRAY_OFFSET + offset, null, address, length);
+	}
+
+	static void copyFromMemory(long address, byte[] dest, int offset, int length)
+	{
+		UNSAFE.copyMemory(null, address, dest, BYTE_ARRAY_OFFSET + offset, length);
+	}
+}
@@ -0,0 +1,507 @@
+/**
+ * Michael Horn
+ * Oct 18, 2026
+ * SharedMemoryTwoWayQueue.java
+ */
+package structures.ipc;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+
+import exceptions.EmptyQueueException;
+import structures.IStreamableTwoWayQueue;
+
+/**
+ * A fixed capacity queue of byte records that lives in a memory-mapped file, so
+ * that two JVMs on the same host can pass work through shared memory. One
+ * producer (in any process) adds records at the end and one consumer (in any
+ * process) removes them from the front. Neither side makes a system call or
+ * takes a lock on the hot path.
+ *
+ * The file starts with a header holding the slot layout and the head and tail
+ * sequence counters, each on its own cache line. After the header come
+ * slotCount fixed size slots, each holding a 4 byte length followed by the
+ * record bytes. The producer writes a record into its slot and then publishes
+ * the new tail with an ordered store; the consumer does the same with the head.
+ *
+ * Like SpscTwoWayQueue, enqueueFirst(), enqueueAllFirst() and dequeueLast()
+ * throw UnsupportedOperationException. Null records are not allowed.
+ *
+ * @author Michael Horn
+ * @version 1.0
+ */
+public class SharedMemoryTwoWayQueue implements IStreamableTwoWayQueue<byte[]>, AutoCloseable
+{
+	private static final long MAGIC = 0x5457515348514d31L;
+
+	private static final int MAGIC_OFFSET = 0;
+	private static final int SLOT_COUNT_OFFSET = 8;
+	private static final int SLOT_SIZE_OFFSET = 12;
+	// two cache lines apart so adjacent line prefetching does not pair them up
+	private static final int TAIL_OFFSET = 128;
+	private static final int HEAD_OFFSET = 256;
+	private static final int DATA_OFFSET = 384;
+
+	private static final int LENGTH_BYTES = 4;
+
+	private final FileChannel channel;
+	private final MappedByteBuffer mapping;
+	private final long address;
+	private final int slotCount;
+	private final int slotSize;
+	private final int mask;
+
+	private long cachedHead;
+	private long cachedTail;
+
+	private SharedMemoryTwoWayQueue(FileChannel channel, MappedByteBuffer mapping, int slotCount, int slotSize)
+	{
+		this.channel = channel;
+		this.mapping = mapping;
+		this.address = MemoryAccess.addressOf(mapping);
+		this.slotCount = slotCount;
+		this.slotSize = slotSize;
+		this.mask = slotCount - 1;
+	}
+
+	/**
+	 * Creates a new, empty queue in the given file, replacing anything already in
+	 * it. Only one process should create the queue; the other should open() it.
+	 *
+	 * @param file
+	 *            the file to map
+	 * @param slotCount
+	 *            the number of records the queue can hold, a power of two
+	 * @param slotSize
+	 *            the bytes reserved for each record including its 4 byte length,
+	 *            a multiple of 8
+	 * @return the new queue
+	 * @throws IOException
+	 *             if the file cannot be created or mapped
+	 */
+	public static SharedMemoryTwoWayQueue create(Path file, int slotCount, int slotSize) throws IOException
+	{
+		if (slotCount <= 0 || Integer.bitCount(slotCount) != 1)
+		{
+			throw new IllegalArgumentException("Slot count must be a power of two: " + slotCount);
+		}
+		if (slotSize <= LENGTH_BYTES || slotSize % 8 != 0)
+		{
+			throw new IllegalArgumentException("Slot size must be a multiple of 8 and larger than 4: " + slotSize);
+		}
+
+		long fileSize = DATA_OFFSET + (long) slotCount * slotSize;
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		try
+		{
+			MappedByteBuffer mapping = channel.map(MapMode.READ_WRITE, 0, fileSize);
+			SharedMemoryTwoWayQueue queue = new SharedMemoryTwoWayQueue(channel, mapping, slotCount, slotSize);
+			MemoryAccess.putInt(queue.address + SLOT_COUNT_OFFSET, slotCount);
+			MemoryAccess.putInt(queue.address + SLOT_SIZE_OFFSET, slotSize);
+			MemoryAccess.putLongVolatile(queue.address + TAIL_OFFSET, 0);
+			MemoryAccess.putLongVolatile(queue.address + HEAD_OFFSET, 0);
+			// written last, so open() never sees a half written header
+			MemoryAccess.putLongVolatile(queue.address + MAGIC_OFFSET, MAGIC);
+			return queue;
+		} catch (IOException | RuntimeException ex)
+		{
+			channel.close();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Opens a queue that another process created with create().
+	 *
+	 * @param file
+	 *            the file to map
+	 * @return the queue
+	 * @throws IOException
+	 *             if the file cannot be mapped or does not hold a queue
+	 */
+	public static SharedMemoryTwoWayQueue open(Path file) throws IOException
+	{
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try
+		{
+			long fileSize = channel.size();
+			if (fileSize < DATA_OFFSET)
+			{
+				throw new IOException("File is too small to hold a queue: " + file);
+			}
+
+			MappedByteBuffer mapping = channel.map(MapMode.READ_WRITE, 0, fileSize);
+			long address = MemoryAccess.addressOf(mapping);
+			if (MemoryAccess.getLongVolatile(address + MAGIC_OFFSET) != MAGIC)
+			{
+				throw new IOException("File does not hold a queue: " + file);
+			}
+
+			int slotCount = MemoryAccess.getInt(address + SLOT_COUNT_OFFSET);
+			int slotSize = MemoryAccess.getInt(address + SLOT_SIZE_OFFSET);
+			// slots are found by masking, and records must fit behind their length
+			if (slotCount <= 0 || Integer.bitCount(slotCount) != 1 || slotSize <= LENGTH_BYTES || slotSize % 8 != 0)
+			{
+				throw new IOException("Queue header holds an invalid slot layout: " + file);
+			}
+			if (DATA_OFFSET + (long) slotCount * slotSize != fileSize)
+			{
+				throw new IOException("Queue header does not match the file size: " + file);
+			}
+			return new SharedMemoryTwoWayQueue(channel, mapping, slotCount, slotSize);
+		} catch (IOException | RuntimeException ex)
+		{
+			channel.close();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Returns the largest record, in bytes, that fits in a slot.
+	 *
+	 * @return the maximum record length
+	 */
+	public int maxRecordLength()
+	{
+		return slotSize - LENGTH_BYTES;
+	}
+
+	/**
+	 * Returns the number of records the queue can hold.
+	 *
+	 * @return the capacity of the queue
+	 */
+	public int capacity()
+	{
+		return slotCount;
+	}
+
+	/**
+	 * Adds a range of bytes as a new record at the end of the queue if there is
+	 * room. Producer only.
+	 *
+	 * @param record
+	 *            the array holding the record
+	 * @param offset
+	 *            the index of the record's first byte
+	 * @param length
+	 *            the length of the record
+	 * @return true if the record was added, false if the queue is full
+	 */
+	public boolean offerLast(byte[] record, int offset, int length)
+	{
+		if (offset < 0 || length < 0 || offset > record.length - length)
+		{
+			throw new IndexOutOfBoundsException(
+					"offset " + offset + ", length " + length + ", array length " + record.length);
+		}
+		if (length > maxRecordLength())
+		{
+			throw new IllegalArgumentException(
+					"Record of " + length + " bytes does not fit in a slot of " + maxRecordLength());
+		}
+
+		long t = MemoryAccess.getLongVolatile(address + TAIL_OFFSET);
+		if (t - cachedHead >= slotCount)
+		{
+			cachedHead = MemoryAccess.getLongVolatile(address + HEAD_OFFSET);
+			if (t - cachedHead >= slotCount)
+			{
+				return false;
+			}
+		}
+
+		long slot = slotAddress(t);
+		MemoryAccess.putInt(slot, length);
+		MemoryAccess.copyToMemory(record, offset, slot + LENGTH_BYTES, length);
+		MemoryAccess.putLongOrdered(address + TAIL_OFFSET, t + 1);
+		return true;
+	}
+
+	/**
+	 * Adds a record at the end of the queue if there is room. Producer only.
+	 *
+	 * @param record
+	 *            the new record
+	 * @return true if the record was added, false if the queue is full
+	 */
+	public boolean offerLast(byte[] record)
+	{
+		return offerLast(record, 0, record.length);
+	}
+
+	/**
+	 * Adds a record at the end of the queue. Producer only.
+	 *
+	 * @param element
+	 *            the new record
+	 * @throws IllegalStateException
+	 *             if the queue is full
+	 */
+	@Override
+	public void enqueueLast(byte[] element)
+	{
+		if (!offerLast(element))
+		{
+			throw new IllegalStateException("Queue full");
+		}
+	}
+
+	/**
+	 * Adds a group of records at the end of the queue and publishes them with a
+	 * single store. Either all of the records are added or none are. Producer
+	 * only.
+	 *
+	 * @param elements
+	 *            the new records
+	 * @throws IllegalStateException
+	 *             if the queue does not have room for every record
+	 */
+	@Override
+	public void enqueueAllLast(byte[][] elements)
+	{
+		for (byte[] record : elements)
+		{
+			if (record.length > maxRecordLength())
+			{
+				throw new IllegalArgumentException(
+						"Record of " + record.length + " bytes does not fit in a slot of " + maxRecordLength());
+			}
+		}
+
+		long t = MemoryAccess.getLongVolatile(address + TAIL_OFFSET);
+		if (t + elements.length - cachedHead > slotCount)
+		{
+			cachedHead = MemoryAccess.getLongVolatile(address + HEAD_OFFSET);
+			if (t + elements.length - cachedHead > slotCount)
+			{
+				throw new IllegalStateException("Queue full");
+			}
+		}
+
+		for (int i = 0; i < elements.length; i++)
+		{
+			long slot = slotAddress(t + i);
+			MemoryAccess.putInt(slot, elements[i].length);
+			MemoryAccess.copyToMemory(elements[i], 0, slot + LENGTH_BYTES, elements[i].length);
+		}
+		MemoryAccess.putLongOrdered(address + TAIL_OFFSET, t + elements.length);
+	}
+
+	/**
+	 * Removes and returns the first record in the queue. Consumer only.
+	 *
+	 * @return the first record, or null if the queue is empty
+	 */
+	public byte[] pollFirst()
+	{
+		long h = MemoryAccess.getLongVolatile(address + HEAD_OFFSET);
+		if (h >= cachedTail)
+		{
+			cachedTail = MemoryAccess.getLongVolatile(address + TAIL_OFFSET);
+			if (h >= cachedTail)
+			{
+				return null;
+			}
+		}
+
+		byte[] record = readRecord(h);
+		MemoryAccess.putLongOrdered(address + HEAD_OFFSET, h + 1);
+		return record;
+	}
+
+	/**
+	 * Removes and returns the first record in the queue. Consumer only.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueFirst() is called
+	 * @return the first record
+	 */
+	@Override
+	public byte[] dequeueFirst()
+	{
+		byte[] record = pollFirst();
+		if (record == null)
+		{
+			throw EmptyQueueException.instance();
+		}
+		return record;
+	}
+
+	/**
+	 * Removes and returns all records in the queue. The first record in the queue
+	 * is located at the last index of the resulting list and the last record at
+	 * index zero. Consumer only.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueAll() is called
+	 * @return a list of all records in the queue
+	 */
+	@Override
+	public List<byte[]> dequeueAll()
+	{
+		List<byte[]> list = snapshot();
+		if (list.isEmpty())
+		{
+			throw EmptyQueueException.instance();
+		}
+		MemoryAccess.putLongOrdered(address + HEAD_OFFSET, cachedTail);
+		return list;
+	}
+
+	/**
+	 * Removes every record that has been published so far. Consumer only.
+	 */
+	@Override
+	public void clear()
+	{
+		cachedTail = MemoryAccess.getLongVolatile(address + TAIL_OFFSET);
+		MemoryAccess.putLongOrdered(address + HEAD_OFFSET, cachedTail);
+	}
+
+	/**
+	 * Not supported: only the consumer may remove records, and only from the
+	 * front.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public byte[] dequeueLast()
+	{
+		throw new UnsupportedOperationException("A single-consumer queue only removes from the front");
+	}
+
+	/**
+	 * Not supported: only the producer may add records, and only at the end.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void enqueueFirst(byte[] element)
+	{
+		throw new UnsupportedOperationException("A single-producer queue only adds at the end");
+	}
+
+	/**
+	 * Not supported: only the producer may add records, and only at the end.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void enqueueAllFirst(byte[][] elements)
+	{
+		throw new UnsupportedOperationException("A single-producer queue only adds at the end");
+	}
+
+	/**
+	 * Returns the number of records in the queue. While the queue is in use this is
+	 * an estimate.
+	 *
+	 * @return the number of records in the queue
+	 */
+	@Override
+	public int size()
+	{
+		long h = MemoryAccess.getLongVolatile(address + HEAD_OFFSET);
+		long t = MemoryAccess.getLongVolatile(address + TAIL_OFFSET);
+		return (int) Math.max(0, Math.min(t - h, slotCount));
+	}
+
+	/**
+	 * Reports whether the queue is empty or not.
+	 *
+	 * @return true if no records are in the queue, otherwise returns false
+	 */
+	@Override
+	public boolean isEmpty()
+	{
+		return size() == 0;
+	}
+
+	/**
+	 * Returns an iterator over copies of the records published when it was
+	 * created, from the last record to the first. Consumer only.
+	 *
+	 * @return an object using the Iterator<T> interface
+	 */
+	@Override
+	public Iterator<byte[]> iterator()
+	{
+		return Collections.unmodifiableList(snapshot()).iterator();
+	}
+
+	/**
+	 * Returns a spliterator over copies of the records published when it was
+	 * created, from the last record to the first. It splits by index range.
+	 * Consumer only.
+	 *
+	 * @return a spliterator over the records in the queue
+	 */
+	@Override
+	public Spliterator<byte[]> spliterator()
+	{
+		return snapshot().spliterator();
+	}
+
+	/**
+	 * Closes the file channel. The mapping itself is released when it is garbage
+	 * collected, so the queue must not be used after it is closed.
+	 *
+	 * @throws IOException
+	 *             if the channel cannot be closed
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		mapping.force();
+		channel.close();
+	}
+
+	/**
+	 * Copies every published record from the last to the first, and leaves the
+	 * tail it read in cachedTail
+	 */
+	private List<byte[]> snapshot()
+	{
+		long h = MemoryAccess.getLongVolatile(address + HEAD_OFFSET);
+		cachedTail = MemoryAccess.getLongVolatile(address + TAIL_OFFSET);
+		List<byte[]> list = new ArrayList<>((int) (cachedTail - h));
+		for (long i = cachedTail - 1; i >= h; i--)
+		{
+			list.add(readRecord(i));
+		}
+		return list;
+	}
+
+	private byte[] readRecord(long sequence)
+	{
+		long slot = slotAddress(sequence);
+		int length = MemoryAccess.getInt(slot);
+		if (length < 0 || length > maxRecordLength())
+		{
+			throw new IllegalStateException("Slot holds a record of " + length + " bytes, which does not fit in a slot of "
+					+ maxRecordLength());
+		}
+		byte[] record = new byte[length];
+		MemoryAccess.copyFromMemory(slot + LENGTH_BYTES, record, 0, length);
+		return record;
+	}
+
+	private long slotAddress(long sequence)
+	{
+		return address + DATA_OFFSET + (sequence & mask) * slotSize;
+	}
+}
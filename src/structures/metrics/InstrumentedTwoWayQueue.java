@@ -0,0 +1,398 @@
+/**
+ * Michael Horn
+ * Oct 18, 2026
+ * InstrumentedTwoWayQueue.java
+ */
+package structures.metrics;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+
+import exceptions.EmptyQueueException;
+import structures.IStreamableTwoWayQueue;
+import structures.ITwoWayQueue;
+import structures.PriorityTwoWayQueue;
+import structures.SlidingWindowTwoWayQueue;
+import structures.concurrent.StripedTwoWayQueue;
+import structures.primitive.LongTwoWayQueue;
+
+/**
+ * Records metrics about another two-way queue: how many elements were added and
+ * removed at each end, how deep the queue is and has been, and how often a
+ * dequeue found it empty. Only changes made through this wrapper are counted,
+ * so its iterators do not support remove(). See getMetrics().
+ *
+ * If residence tracking is asked for, the wrapper also records how long each
+ * element spent in the queue. It keeps the System.nanoTime() of every enqueue in
+ * a queue of longs that mirrors the wrapped queue, and updates both under one
+ * lock, so every operation is serialized while tracking is on. The wrapped queue
+ * must then only be changed through this wrapper.
+ *
+ * The mirror only works for queues that remove exactly the element at the end
+ * being dequeued and never remove elements on their own. PriorityTwoWayQueue,
+ * which dequeues by priority, StripedTwoWayQueue, which dequeues from any lane,
+ * and SlidingWindowTwoWayQueue, which evicts expired elements, are rejected when
+ * tracking is asked for. Other queues that reorder or drop elements, including
+ * such queues wrapped in another decorator, must not be tracked either.
+ *
+ * Without residence tracking the wrapper adds no locking, and is as thread-safe
+ * as the queue it wraps. Use instrument() to wrap queues only when
+ * -Dstructures.metrics.InstrumentedTwoWayQueue.enabled=true is given, so that
+ * queues cost nothing extra otherwise. It counts operations only, unless
+ * residence tracking is asked for explicitly.
+ *
+ * @author Michael Horn
+ * @version 1.0
+ */
+public class InstrumentedTwoWayQueue<T> implements IStreamableTwoWayQueue<T>
+{
+	private static final boolean ENABLED = Boolean.getBoolean("structures.metrics.InstrumentedTwoWayQueue.enabled");
+
+	private final ITwoWayQueue<T> queue;
+	private final QueueMetrics metrics;
+
+	// enqueue times in the same order as the wrapped queue, or null if not tracked
+	private final LongTwoWayQueue timestamps;
+
+	/**
+	 * Counts the operations on a queue, without tracking residence times
+	 *
+	 * @param queue
+	 *            the queue to instrument, which should be empty
+	 */
+	public InstrumentedTwoWayQueue(ITwoWayQueue<T> queue)
+	{
+		this(queue, false);
+	}
+
+	/**
+	 * Counts the operations on a queue
+	 *
+	 * @param queue
+	 *            the queue to instrument, which must be empty if residence times
+	 *            are tracked
+	 * @param trackResidence
+	 *            whether to record how long each element spends in the queue
+	 * @throws IllegalArgumentException
+	 *             if residence times are tracked and the queue is not empty, or
+	 *             does not remove elements by position
+	 */
+	public InstrumentedTwoWayQueue(ITwoWayQueue<T> queue, boolean trackResidence)
+	{
+		if (trackResidence && !queue.isEmpty())
+		{
+			throw new IllegalArgumentException("Queue must be empty to track residence times");
+		}
+		if (trackResidence && !removesByPosition(queue))
+		{
+			throw new IllegalArgumentException(
+					"Residence times cannot be tracked for a " + queue.getClass().getSimpleName());
+		}
+		this.queue = queue;
+		this.metrics = new QueueMetrics(queue.size());
+		this.timestamps = trackResidence ? new LongTwoWayQueue() : null;
+	}
+
+	/**
+	 * Wraps a queue to count its operations, without residence tracking, and
+	 * registers its metrics under the given name, if
+	 * -Dstructures.metrics.InstrumentedTwoWayQueue.enabled=true was given.
+	 * Otherwise the queue is returned as it is.
+	 *
+	 * @param queue
+	 *            the queue to instrument
+	 * @param name
+	 *            the name to register the metrics under
+	 * @return the instrumented queue, or the queue itself
+	 */
+	public static <T> ITwoWayQueue<T> instrument(ITwoWayQueue<T> queue, String name)
+	{
+		return instrument(queue, name, false);
+	}
+
+	/**
+	 * Wraps a queue and registers its metrics under the given name, if
+	 * -Dstructures.metrics.InstrumentedTwoWayQueue.enabled=true was given.
+	 * Otherwise the queue is returned as it is. Residence tracking serializes
+	 * every operation on the queue, so only ask for it where that is acceptable.
+	 *
+	 * @param queue
+	 *            the queue to instrument, which must be empty if residence times
+	 *            are tracked
+	 * @param name
+	 *            the name to register the metrics under
+	 * @param trackResidence
+	 *            whether to record how long each element spends in the queue
+	 * @return the instrumented queue, or the queue itself
+	 * @throws IllegalArgumentException
+	 *             if residence times are tracked and the queue is not empty, or
+	 *             does not remove elements by position
+	 */
+	public static <T> ITwoWayQueue<T> instrument(ITwoWayQueue<T> queue, String name, boolean trackResidence)
+	{
+		if (!ENABLED)
+		{
+			return queue;
+		}
+		InstrumentedTwoWayQueue<T> instrumented = new InstrumentedTwoWayQueue<>(queue, trackResidence);
+		instrumented.metrics.register(name);
+		return instrumented;
+	}
+
+	/**
+	 * Reports whether a queue removes exactly the element at the end being
+	 * dequeued, as the timestamp mirror needs
+	 */
+	private static boolean removesByPosition(ITwoWayQueue<?> queue)
+	{
+		return !(queue instanceof PriorityTwoWayQueue || queue instanceof StripedTwoWayQueue
+				|| queue instanceof SlidingWindowTwoWayQueue);
+	}
+
+	/**
+	 * Returns the live metrics of this queue
+	 *
+	 * @return the metrics
+	 */
+	public QueueMetrics getMetrics()
+	{
+		return metrics;
+	}
+
+	/**
+	 * Reports whether residence times are being recorded
+	 *
+	 * @return true if residence times are tracked
+	 */
+	public boolean isTrackingResidence()
+	{
+		return timestamps != null;
+	}
+
+	@Override
+	public T dequeueFirst()
+	{
+		try
+		{
+			T element;
+			if (timestamps == null)
+			{
+				element = queue.dequeueFirst();
+			} else
+			{
+				synchronized (timestamps)
+				{
+					element = queue.dequeueFirst();
+					metrics.residence(System.nanoTime() - timestamps.dequeueFirst());
+				}
+			}
+			metrics.dequeuedFirst(1);
+			return element;
+		} catch (EmptyQueueException ex)
+		{
+			metrics.emptyDequeue();
+			throw ex;
+		}
+	}
+
+	@Override
+	public T dequeueLast()
+	{
+		try
+		{
+			T element;
+			if (timestamps == null)
+			{
+				element = queue.dequeueLast();
+			} else
+			{
+				synchronized (timestamps)
+				{
+					element = queue.dequeueLast();
+					metrics.residence(System.nanoTime() - timestamps.dequeueLast());
+				}
+			}
+			metrics.dequeuedLast(1);
+			return element;
+		} catch (EmptyQueueException ex)
+		{
+			metrics.emptyDequeue();
+			throw ex;
+		}
+	}
+
+	@Override
+	public List<T> dequeueAll()
+	{
+		try
+		{
+			List<T> elements;
+			if (timestamps == null)
+			{
+				elements = queue.dequeueAll();
+			} else
+			{
+				synchronized (timestamps)
+				{
+					elements = queue.dequeueAll();
+					long now = System.nanoTime();
+					for (long enqueued : timestamps.dequeueAll())
+					{
+						metrics.residence(now - enqueued);
+					}
+				}
+			}
+			metrics.dequeuedFirst(elements.size());
+			return elements;
+		} catch (EmptyQueueException ex)
+		{
+			metrics.emptyDequeue();
+			throw ex;
+		}
+	}
+
+	@Override
+	public void enqueueFirst(T element)
+	{
+		if (timestamps == null)
+		{
+			queue.enqueueFirst(element);
+		} else
+		{
+			synchronized (timestamps)
+			{
+				queue.enqueueFirst(element);
+				timestamps.enqueueFirst(System.nanoTime());
+			}
+		}
+		metrics.enqueuedFirst(1);
+	}
+
+	@Override
+	public void enqueueLast(T element)
+	{
+		if (timestamps == null)
+		{
+			queue.enqueueLast(element);
+		} else
+		{
+			synchronized (timestamps)
+			{
+				queue.enqueueLast(element);
+				timestamps.enqueueLast(System.nanoTime());
+			}
+		}
+		metrics.enqueuedLast(1);
+	}
+
+	@Override
+	public void enqueueAllFirst(T[] elements)
+	{
+		if (timestamps == null)
+		{
+			queue.enqueueAllFirst(elements);
+		} else
+		{
+			synchronized (timestamps)
+			{
+				queue.enqueueAllFirst(elements);
+
+				// every element has the same time, so their order does not matter
+				long now = System.nanoTime();
+				for (int i = 0; i < elements.length; i++)
+				{
+					timestamps.enqueueFirst(now);
+				}
+			}
+		}
+		metrics.enqueuedFirst(elements.length);
+	}
+
+	@Override
+	public void enqueueAllLast(T[] elements)
+	{
+		if (timestamps == null)
+		{
+			queue.enqueueAllLast(elements);
+		} else
+		{
+			synchronized (timestamps)
+			{
+				queue.enqueueAllLast(elements);
+				long now = System.nanoTime();
+				for (int i = 0; i < elements.length; i++)
+				{
+					timestamps.enqueueLast(now);
+				}
+			}
+		}
+		metrics.enqueuedLast(elements.length);
+	}
+
+	@Override
+	public int size()
+	{
+		return queue.size();
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return queue.isEmpty();
+	}
+
+	/**
+	 * Removes all elements from the queue. They are counted as cleared rather
+	 * than dequeued, and no residence times are recorded for them. Without
+	 * residence tracking, elements added by other threads during clear() may be
+	 * miscounted.
+	 */
+	@Override
+	public void clear()
+	{
+		int removed;
+		if (timestamps == null)
+		{
+			removed = queue.size();
+			queue.clear();
+		} else
+		{
+			synchronized (timestamps)
+			{
+				removed = queue.size();
+				queue.clear();
+				timestamps.clear();
+			}
+		}
+		metrics.cleared(removed);
+	}
+
+	@Override
+	public Iterator<T> iterator()
+	{
+		// removing through the iterator would skip the metrics and leave the
+		// timestamps out of step
+		Iterator<T> iterator = queue.iterator();
+		return new Iterator<T>()
+		{
+			@Override
+			public boolean hasNext()
+			{
+				return iterator.hasNext();
+			}
+
+			@Override
+			public T next()
+			{
+				return iterator.next();
+			}
+		};
+	}
+
+	@Override
+	public Spliterator<T> spliterator()
+	{
+		return queue.spliterator();
+	}
+}
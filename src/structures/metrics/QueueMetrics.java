@@ -0,0 +1,266 @@
+/**
+ * Michael Horn
+ * Oct 18, 2026
+ * QueueMetrics.java
+ */
+package structures.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The live metrics of an instrumented queue. The operation counters are
+ * LongAdders, which spread updates from different threads over separate cells
+ * so that they do not contend. The depth is a single AtomicLong, since the
+ * high-water mark needs the exact depth after every enqueue.
+ *
+ * Use snapshot() to read every metric at once, or register() to publish the
+ * metrics as an MXBean.
+ *
+ * @author Michael Horn
+ * @version 1.0
+ */
+public class QueueMetrics implements QueueMetricsMXBean
+{
+	/**
+	 * The domain of the ObjectNames that register() uses
+	 */
+	public static final String JMX_DOMAIN = "structures";
+
+	private final LongAdder enqueuedFirst = new LongAdder();
+	private final LongAdder enqueuedLast = new LongAdder();
+	private final LongAdder dequeuedFirst = new LongAdder();
+	private final LongAdder dequeuedLast = new LongAdder();
+	private final LongAdder cleared = new LongAdder();
+	private final LongAdder emptyDequeues = new LongAdder();
+	private final AtomicLong depth = new AtomicLong();
+	private final AtomicLong highWaterMark = new AtomicLong();
+	private final ResidenceHistogram residence = new ResidenceHistogram();
+
+	private ObjectName registeredName;
+
+	QueueMetrics(long initialDepth)
+	{
+		depth.set(initialDepth);
+		highWaterMark.set(initialDepth);
+	}
+
+	void enqueuedFirst(int count)
+	{
+		enqueuedFirst.add(count);
+		grow(count);
+	}
+
+	void enqueuedLast(int count)
+	{
+		enqueuedLast.add(count);
+		grow(count);
+	}
+
+	void dequeuedFirst(int count)
+	{
+		dequeuedFirst.add(count);
+		depth.addAndGet(-count);
+	}
+
+	void dequeuedLast(int count)
+	{
+		dequeuedLast.add(count);
+		depth.addAndGet(-count);
+	}
+
+	void cleared(int count)
+	{
+		cleared.add(count);
+		depth.addAndGet(-count);
+	}
+
+	void emptyDequeue()
+	{
+		emptyDequeues.increment();
+	}
+
+	void residence(long nanos)
+	{
+		residence.record(nanos);
+	}
+
+	private void grow(int count)
+	{
+		long current = depth.addAndGet(count);
+
+		// most enqueues do not reach a new high, so read before trying to write
+		long high;
+		while (current > (high = highWaterMark.get()))
+		{
+			if (highWaterMark.compareAndSet(high, current))
+			{
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Returns a copy of every metric. The metrics are read one after another, so
+	 * while the queue is in use by other threads they may be mutually
+	 * inconsistent; the depth need not match the counts, for example. The copy
+	 * does not change as the queue is used.
+	 *
+	 * @return the current metrics
+	 */
+	public QueueMetricsSnapshot snapshot()
+	{
+		return new QueueMetricsSnapshot(System.nanoTime(), depth.get(), highWaterMark.get(),
+				enqueuedFirst.sum(), enqueuedLast.sum(), dequeuedFirst.sum(), dequeuedLast.sum(), cleared.sum(),
+				emptyDequeues.sum(), residence.copy());
+	}
+
+	/**
+	 * Registers these metrics with the platform MBean server under
+	 * structures:type=TwoWayQueue,name=[name].
+	 *
+	 * @param name
+	 *            a name that identifies the queue
+	 * @return the name the metrics were registered under
+	 * @throws IllegalStateException
+	 *             if the metrics are already registered, or the name is taken
+	 */
+	public synchronized ObjectName register(String name)
+	{
+		if (registeredName != null)
+		{
+			throw new IllegalStateException("Metrics are already registered as " + registeredName);
+		}
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try
+		{
+			ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=TwoWayQueue,name=" + ObjectName.quote(name));
+			server.registerMBean(this, objectName);
+			registeredName = objectName;
+			return objectName;
+		} catch (JMException ex)
+		{
+			throw new IllegalStateException("Could not register metrics for " + name, ex);
+		}
+	}
+
+	/**
+	 * Removes these metrics from the platform MBean server, if they were
+	 * registered
+	 */
+	public synchronized void unregister()
+	{
+		if (registeredName == null)
+		{
+			return;
+		}
+
+		try
+		{
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+		} catch (JMException ex)
+		{
+			throw new IllegalStateException("Could not unregister metrics " + registeredName, ex);
+		} finally
+		{
+			registeredName = null;
+		}
+	}
+
+	@Override
+	public long getDepth()
+	{
+		return depth.get();
+	}
+
+	@Override
+	public long getHighWaterMark()
+	{
+		return highWaterMark.get();
+	}
+
+	@Override
+	public long getEnqueuedFirst()
+	{
+		return enqueuedFirst.sum();
+	}
+
+	@Override
+	public long getEnqueuedLast()
+	{
+		return enqueuedLast.sum();
+	}
+
+	@Override
+	public long getDequeuedFirst()
+	{
+		return dequeuedFirst.sum();
+	}
+
+	@Override
+	public long getDequeuedLast()
+	{
+		return dequeuedLast.sum();
+	}
+
+	@Override
+	public long getCleared()
+	{
+		return cleared.sum();
+	}
+
+	@Override
+	public long getEmptyDequeues()
+	{
+		return emptyDequeues.sum();
+	}
+
+	@Override
+	public long getResidenceCount()
+	{
+		return residence.getCount();
+	}
+
+	@Override
+	public double getResidenceMeanNanos()
+	{
+		return residence.getMean();
+	}
+
+	@Override
+	public long getResidenceMedianNanos()
+	{
+		return residence.getValueAtPercentile(50);
+	}
+
+	@Override
+	public long getResidence99thPercentileNanos()
+	{
+		return residence.getValueAtPercentile(99);
+	}
+
+	@Override
+	public long getResidenceMaxNanos()
+	{
+		return residence.getMax();
+	}
+
+	@Override
+	public void reset()
+	{
+		enqueuedFirst.reset();
+		enqueuedLast.reset();
+		dequeuedFirst.reset();
+		dequeuedLast.reset();
+		cleared.reset();
+		emptyDequeues.reset();
+		highWaterMark.set(depth.get());
+		residence.reset();
+	}
+}
@@ -0,0 +1,116 @@
+/**
+ * Michael Horn
+ * Oct 18, 2026
+ * QueueMetricsMXBean.java
+ */
+package structures.metrics;
+
+/**
+ * The management interface of an instrumented queue's metrics, as seen through
+ * JMX. The counters only ever grow, so rates are found by sampling them twice.
+ *
+ * @author Michael Horn
+ * @version 1.0
+ */
+public interface QueueMetricsMXBean
+{
+	/**
+	 * Returns the number of elements in the queue
+	 *
+	 * @return the queue depth
+	 */
+	public long getDepth();
+
+	/**
+	 * Returns the largest number of elements the queue has held
+	 *
+	 * @return the high-water mark
+	 */
+	public long getHighWaterMark();
+
+	/**
+	 * Returns the number of elements added to the front of the queue
+	 *
+	 * @return the enqueueFirst() count
+	 */
+	public long getEnqueuedFirst();
+
+	/**
+	 * Returns the number of elements added to the end of the queue
+	 *
+	 * @return the enqueueLast() count
+	 */
+	public long getEnqueuedLast();
+
+	/**
+	 * Returns the number of elements removed from the front of the queue,
+	 * including those removed by dequeueAll()
+	 *
+	 * @return the dequeueFirst() count
+	 */
+	public long getDequeuedFirst();
+
+	/**
+	 * Returns the number of elements removed from the end of the queue
+	 *
+	 * @return the dequeueLast() count
+	 */
+	public long getDequeuedLast();
+
+	/**
+	 * Returns the number of elements thrown away by clear()
+	 *
+	 * @return the cleared count
+	 */
+	public long getCleared();
+
+	/**
+	 * Returns the number of times a dequeue found the queue empty and threw an
+	 * EmptyQueueException
+	 *
+	 * @return the empty dequeue count
+	 */
+	public long getEmptyDequeues();
+
+	/**
+	 * Returns the number of residence times recorded, or 0 if residence times are
+	 * not tracked
+	 *
+	 * @return the number of residence times
+	 */
+	public long getResidenceCount();
+
+	/**
+	 * Returns the mean time an element spent in the queue
+	 *
+	 * @return the mean residence time in nanoseconds
+	 */
+	public double getResidenceMeanNanos();
+
+	/**
+	 * Returns the median time an element spent in the queue
+	 *
+	 * @return the median residence time in nanoseconds
+	 */
+	public long getResidenceMedianNanos();
+
+	/**
+	 * Returns the 99th percentile of the time an element spent in the queue
+	 *
+	 * @return the 99th percentile residence time in nanoseconds
+	 */
+	public long getResidence99thPercentileNanos();
+
+	/**
+	 * Returns the longest time an element spent in the queue
+	 *
+	 * @return the longest residence time in nanoseconds
+	 */
+	public long getResidenceMaxNanos();
+
+	/**
+	 * Sets every counter, the high-water mark and the residence histogram back to
+	 * zero. The depth and high-water mark restart from the current depth.
+	 */
+	public void reset();
+}
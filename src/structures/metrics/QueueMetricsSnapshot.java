@@ -0,0 +1,139 @@
+/**
+ * Michael Horn
+ * Oct 18, 2026
+ * QueueMetricsSnapshot.java
+ */
+package structures.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The metrics of an instrumented queue at one moment. Counters only ever grow,
+ * so the rate of an operation between two snapshots is the difference of its
+ * counters divided by the elapsed time; see ratePerSecond().
+ *
+ * @author Michael Horn
+ * @version 1.0
+ */
+public final class QueueMetricsSnapshot
+{
+	private final long timestampNanos;
+	private final long depth;
+	private final long highWaterMark;
+	private final long enqueuedFirst;
+	private final long enqueuedLast;
+	private final long dequeuedFirst;
+	private final long dequeuedLast;
+	private final long cleared;
+	private final long emptyDequeues;
+	private final ResidenceHistogram residence;
+
+	QueueMetricsSnapshot(long timestampNanos, long depth, long highWaterMark, long enqueuedFirst, long enqueuedLast,
+			long dequeuedFirst, long dequeuedLast, long cleared, long emptyDequeues, ResidenceHistogram residence)
+	{
+		this.timestampNanos = timestampNanos;
+		this.depth = depth;
+		this.highWaterMark = highWaterMark;
+		this.enqueuedFirst = enqueuedFirst;
+		this.enqueuedLast = enqueuedLast;
+		this.dequeuedFirst = dequeuedFirst;
+		this.dequeuedLast = dequeuedLast;
+		this.cleared = cleared;
+		this.emptyDequeues = emptyDequeues;
+		this.residence = residence;
+	}
+
+	/**
+	 * Returns the System.nanoTime() at which the snapshot was taken
+	 *
+	 * @return the snapshot time in nanoseconds
+	 */
+	public long getTimestampNanos()
+	{
+		return timestampNanos;
+	}
+
+	public long getDepth()
+	{
+		return depth;
+	}
+
+	public long getHighWaterMark()
+	{
+		return highWaterMark;
+	}
+
+	public long getEnqueuedFirst()
+	{
+		return enqueuedFirst;
+	}
+
+	public long getEnqueuedLast()
+	{
+		return enqueuedLast;
+	}
+
+	public long getDequeuedFirst()
+	{
+		return dequeuedFirst;
+	}
+
+	public long getDequeuedLast()
+	{
+		return dequeuedLast;
+	}
+
+	public long getCleared()
+	{
+		return cleared;
+	}
+
+	public long getEmptyDequeues()
+	{
+		return emptyDequeues;
+	}
+
+	/**
+	 * Returns the residence times recorded up to the snapshot. The histogram is
+	 * empty if residence times are not tracked.
+	 *
+	 * @return a copy of the residence time histogram
+	 */
+	public ResidenceHistogram getResidence()
+	{
+		return residence;
+	}
+
+	/**
+	 * Returns how many times per second a counter grew between an earlier snapshot
+	 * and this one, e.g. ratePerSecond(earlier, earlier.getEnqueuedLast(),
+	 * getEnqueuedLast()).
+	 *
+	 * @param earlier
+	 *            a snapshot of the same queue taken before this one
+	 * @param before
+	 *            the counter's value in the earlier snapshot
+	 * @param after
+	 *            the counter's value in this snapshot
+	 * @return the rate per second, or 0 if no time has passed
+	 */
+	public double ratePerSecond(QueueMetricsSnapshot earlier, long before, long after)
+	{
+		long elapsed = timestampNanos - earlier.timestampNanos;
+		if (elapsed <= 0)
+		{
+			return 0;
+		}
+		return (after - before) * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "QueueMetricsSnapshot[depth=" + depth + ", highWaterMark=" + highWaterMark + ", enqueuedFirst="
+				+ enqueuedFirst + ", enqueuedLast=" + enqueuedLast + ", dequeuedFirst=" + dequeuedFirst
+				+ ", dequeuedLast=" + dequeuedLast + ", cleared=" + cleared + ", emptyDequeues=" + emptyDequeues
+				+ ", residenceCount=" + residence.getCount() + ", residenceMedianNanos="
+				+ residence.getValueAtPercentile(50) + ", residenceMaxNanos=" + residence.getMax() + "]";
+	}
+}
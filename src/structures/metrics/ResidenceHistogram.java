@@ -0,0 +1,193 @@
+/**
+ * Michael Horn
+ * Oct 18, 2026
+ * ResidenceHistogram.java
+ */
+package structures.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations in nanoseconds with a fixed relative error, laid out
+ * the same way as an HDR histogram. Durations below 32 ns get a bucket each.
+ * Every power-of-two range above that is split into 32 equal buckets, so a
+ * recorded duration is never reported more than about 3% away from its true
+ * value. The whole range of positive longs fits in under 2,000 buckets.
+ *
+ * Recording is thread-safe and allocates nothing. Reads made while other
+ * threads record may see some of their values and not others.
+ *
+ * @author Michael Horn
+ * @version 1.0
+ */
+public class ResidenceHistogram
+{
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKET_COUNT = SUB_BUCKET_COUNT * (64 - SUB_BUCKET_BITS);
+
+	private final AtomicLongArray counts;
+
+	/**
+	 * Creates an empty histogram
+	 */
+	public ResidenceHistogram()
+	{
+		counts = new AtomicLongArray(BUCKET_COUNT);
+	}
+
+	private ResidenceHistogram(AtomicLongArray counts)
+	{
+		this.counts = counts;
+	}
+
+	/**
+	 * Records one duration. Negative durations, which a clock going backwards
+	 * could produce, are recorded as zero.
+	 *
+	 * @param nanos
+	 *            the duration in nanoseconds
+	 */
+	public void record(long nanos)
+	{
+		counts.incrementAndGet(indexOf(Math.max(nanos, 0)));
+	}
+
+	/**
+	 * Returns a copy of the histogram as it is now
+	 *
+	 * @return a new histogram with the same counts
+	 */
+	public ResidenceHistogram copy()
+	{
+		AtomicLongArray copy = new AtomicLongArray(BUCKET_COUNT);
+		for (int i = 0; i < BUCKET_COUNT; i++)
+		{
+			copy.lazySet(i, counts.get(i));
+		}
+		return new ResidenceHistogram(copy);
+	}
+
+	/**
+	 * Returns the number of durations recorded
+	 *
+	 * @return the number of durations
+	 */
+	public long getCount()
+	{
+		long total = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++)
+		{
+			total += counts.get(i);
+		}
+		return total;
+	}
+
+	/**
+	 * Returns the mean of the recorded durations, or 0 if there are none
+	 *
+	 * @return the mean duration in nanoseconds
+	 */
+	public double getMean()
+	{
+		long total = 0;
+		double sum = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++)
+		{
+			long count = counts.get(i);
+			if (count != 0)
+			{
+				total += count;
+				sum += count * (lowestValueAt(i) / 2.0 + highestValueAt(i) / 2.0);
+			}
+		}
+		return total == 0 ? 0 : sum / total;
+	}
+
+	/**
+	 * Returns the longest recorded duration, or 0 if there are none
+	 *
+	 * @return the longest duration in nanoseconds
+	 */
+	public long getMax()
+	{
+		for (int i = BUCKET_COUNT - 1; i >= 0; i--)
+		{
+			if (counts.get(i) != 0)
+			{
+				return highestValueAt(i);
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Returns the duration that the given percentage of recorded durations are
+	 * at or below, or 0 if there are none
+	 *
+	 * @param percentile
+	 *            a percentage from 0 to 100
+	 * @return the duration in nanoseconds
+	 */
+	public long getValueAtPercentile(double percentile)
+	{
+		if (percentile < 0 || percentile > 100)
+		{
+			throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+		}
+
+		long total = getCount();
+		long target = Math.max(1, (long) Math.ceil(total * percentile / 100));
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++)
+		{
+			seen += counts.get(i);
+			if (seen >= target)
+			{
+				return highestValueAt(i);
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Removes all recorded durations
+	 */
+	public void reset()
+	{
+		for (int i = 0; i < BUCKET_COUNT; i++)
+		{
+			counts.set(i, 0);
+		}
+	}
+
+	static int indexOf(long value)
+	{
+		if (value < SUB_BUCKET_COUNT)
+		{
+			return (int) value;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return SUB_BUCKET_COUNT * (shift + 1) + (int) ((value >>> shift) & (SUB_BUCKET_COUNT - 1));
+	}
+
+	static long lowestValueAt(int index)
+	{
+		if (index < SUB_BUCKET_COUNT)
+		{
+			return index;
+		}
+		int shift = index / SUB_BUCKET_COUNT - 1;
+		return (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+	}
+
+	static long highestValueAt(int index)
+	{
+		if (index < SUB_BUCKET_COUNT)
+		{
+			return index;
+		}
+		int shift = index / SUB_BUCKET_COUNT - 1;
+		return lowestValueAt(index) + (1L << shift) - 1;
+	}
+}
@@ -0,0 +1,48 @@
+/**
+ * Michael Horn
+ * Oct 18, 2026
+ * ElementSerializer.java
+ */
+package structures.persistent;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts queue elements to and from bytes. Null elements never reach a
+ * serializer; queues record them separately.
+ *
+ * @author Michael Horn
+ * @version 1.0
+ */
+public interface ElementSerializer<T>
+{
+	/**
+	 * Returns the number of bytes write() will produce for the element.
+	 *
+	 * @param element
+	 *            a non-null element
+	 * @return the serialized length in bytes
+	 */
+	public int sizeOf(T element);
+
+	/**
+	 * Writes the element at the buffer's position, advancing it by exactly
+	 * sizeOf(element) bytes.
+	 *
+	 * @param element
+	 *            a non-null element
+	 * @param buffer
+	 *            the buffer to write to
+	 */
+	public void write(T element, ByteBuffer buffer);
+
+	/**
+	 * Reads an element from the buffer's remaining bytes, which are exactly the
+	 * bytes that write() produced.
+	 *
+	 * @param buffer
+	 *            the buffer to read from
+	 * @return the element
+	 */
+	public T read(ByteBuffer buffer);
+}
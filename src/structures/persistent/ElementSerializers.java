@@ -0,0 +1,142 @@
+/**
+ * Michael Horn
+ * Oct 18, 2026
+ * ElementSerializers.java
+ */
+package structures.persistent;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serializers for common element types.
+ *
+ * @author Michael Horn
+ * @version 1.0
+ */
+public final class ElementSerializers
+{
+	private static final ElementSerializer<Integer> INTEGERS = new ElementSerializer<Integer>()
+	{
+		@Override
+		public int sizeOf(Integer element)
+		{
+			return Integer.BYTES;
+		}
+
+		@Override
+		public void write(Integer element, ByteBuffer buffer)
+		{
+			buffer.putInt(element);
+		}
+
+		@Override
+		public Integer read(ByteBuffer buffer)
+		{
+			return buffer.getInt();
+		}
+	};
+
+	private static final ElementSerializer<Long> LONGS = new ElementSerializer<Long>()
+	{
+		@Override
+		public int sizeOf(Long element)
+		{
+			return Long.BYTES;
+		}
+
+		@Override
+		public void write(Long element, ByteBuffer buffer)
+		{
+			buffer.putLong(element);
+		}
+
+		@Override
+		public Long read(ByteBuffer buffer)
+		{
+			return buffer.getLong();
+		}
+	};
+
+	private static final ElementSerializer<byte[]> BYTE_ARRAYS = new ElementSerializer<byte[]>()
+	{
+		@Override
+		public int sizeOf(byte[] element)
+		{
+			return element.length;
+		}
+
+		@Override
+		public void write(byte[] element, ByteBuffer buffer)
+		{
+			buffer.put(element);
+		}
+
+		@Override
+		public byte[] read(ByteBuffer buffer)
+		{
+			byte[] element = new byte[buffer.remaining()];
+			buffer.get(element);
+			return element;
+		}
+	};
+
+	private static final ElementSerializer<String> STRINGS = new ElementSerializer<String>()
+	{
+		@Override
+		public int sizeOf(String element)
+		{
+			return element.getBytes(StandardCharsets.UTF_8).length;
+		}
+
+		@Override
+		public void write(String element, ByteBuffer buffer)
+		{
+			buffer.put(element.getBytes(StandardCharsets.UTF_8));
+		}
+
+		@Override
+		public String read(ByteBuffer buffer)
+		{
+			byte[] bytes = new byte[buffer.remaining()];
+			buffer.get(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	};
+
+	private ElementSerializers()
+	{
+	}
+
+	/**
+	 * @return a serializer that stores each Integer in 4 bytes
+	 */
+	public static ElementSerializer<Integer> integers()
+	{
+		return INTEGERS;
+	}
+
+	/**
+	 * @return a serializer that stores each Long in 8 bytes
+	 */
+	public static ElementSerializer<Long> longs()
+	{
+		return LONGS;
+	}
+
+	/**
+	 * @return a serializer that stores byte arrays as they are
+	 */
+	public static ElementSerializer<byte[]> byteArrays()
+	{
+		return BYTE_ARRAYS;
+	}
+
+	/**
+	 * @return a serializer that stores strings as UTF-8
+	 */
+	public static ElementSerializer<String> strings()
+	{
+		return STRINGS;
+	}
+}
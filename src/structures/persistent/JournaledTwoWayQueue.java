@@ -0,0 +1,920 @@
+/**
+ * Michael Horn
+ * Oct 18, 2026
+ * JournaledTwoWayQueue.java
+ */
+package structures.persistent;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+import structures.IStreamableTwoWayQueue;
+import structures.ITwoWayQueue;
+
+/**
+ * Makes any in-memory two-way queue survive a restart by recording every change
+ * in a write-ahead journal. Each enqueue, dequeue and clear() made through this
+ * wrapper is appended to the journal as a small binary record with a checksum.
+ * Changes made to the wrapped queue directly are not recorded.
+ *
+ * Records are collected in a buffer and written and flushed to disk together
+ * (group commit). The sync interval decides when that happens.
+ * SYNC_EVERY_OPERATION flushes after every change. With a positive interval,
+ * the first record buffered after a flush schedules the next flush one interval
+ * later on a shared background thread, so no change stays unflushed for longer
+ * than the interval, even if no further change follows. SYNC_NEVER only writes
+ * when the buffer fills and leaves flushing to the operating system, so
+ * buffered records are lost if the process dies before the buffer fills or
+ * sync() or close() is called. Call sync() to flush on demand.
+ *
+ * Once the journal holds at least as many records as the snapshot interval, and
+ * at least as many as there are elements in the queue, the whole queue is
+ * written to a snapshot file and a fresh journal is started. This keeps both
+ * the journal and the cost of snapshots proportional to the number of changes.
+ *
+ * On construction the queue is rebuilt from the latest snapshot plus its
+ * journal. A record that was only partly written when the process died is
+ * detected by its checksum and discarded. This class is not thread-safe.
+ *
+ * @author Michael Horn
+ * @version 1.0
+ */
+public class JournaledTwoWayQueue<T> implements IStreamableTwoWayQueue<T>, AutoCloseable
+{
+	/**
+	 * Flush the journal to disk after every change
+	 */
+	public static final long SYNC_EVERY_OPERATION = 0;
+
+	/**
+	 * Never flush the journal to disk explicitly
+	 */
+	public static final long SYNC_NEVER = -1;
+
+	private static final long DEFAULT_SYNC_INTERVAL_MILLIS = 10;
+	private static final long DEFAULT_SNAPSHOT_INTERVAL = 1_000_000;
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final byte ENQUEUE_FIRST = 1;
+	private static final byte ENQUEUE_LAST = 2;
+	private static final byte ENQUEUE_ALL_FIRST = 3;
+	private static final byte ENQUEUE_ALL_LAST = 4;
+	private static final byte DEQUEUE_FIRST = 5;
+	private static final byte DEQUEUE_LAST = 6;
+	private static final byte CLEAR = 7;
+
+	private static final int SNAPSHOT_MAGIC = 0x54575153;
+	private static final int NULL_LENGTH = -1;
+
+	private static final String SNAPSHOT_FILE = "snapshot.dat";
+	private static final String SNAPSHOT_TEMP_FILE = "snapshot.tmp";
+	private static final String JOURNAL_PREFIX = "journal-";
+	private static final String JOURNAL_SUFFIX = ".log";
+
+	// one daemon thread flushes the journals of every queue with a sync interval
+	private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(task ->
+	{
+		Thread thread = new Thread(task, "JournaledTwoWayQueue-flusher");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final ITwoWayQueue<T> queue;
+	private final Path directory;
+	private final ElementSerializer<T> serializer;
+	private final long syncIntervalNanos;
+	private final long snapshotInterval;
+	private final CRC32 checksum;
+
+	// guards the buffer and the journal against the background flush
+	private final ReentrantLock journalLock = new ReentrantLock();
+
+	private ByteBuffer buffer;
+	private int recordStart;
+	private FileChannel journal;
+	private long generation;
+	private long recordsSinceSnapshot;
+	private boolean flushScheduled;
+	private boolean closed;
+	private IOException flushFailure;
+
+	/**
+	 * Wraps an empty queue, restoring any contents saved in the given directory.
+	 * Every change is flushed to disk within 10 milliseconds, and a snapshot is
+	 * taken at most every million changes.
+	 *
+	 * @param queue
+	 *            an empty queue to hold the elements in memory
+	 * @param directory
+	 *            the directory holding the snapshot and journal
+	 * @param serializer
+	 *            converts elements to and from bytes
+	 * @throws IOException
+	 *             if the saved contents cannot be read or the journal cannot be
+	 *             opened
+	 */
+	public JournaledTwoWayQueue(ITwoWayQueue<T> queue, Path directory, ElementSerializer<T> serializer)
+			throws IOException
+	{
+		this(queue, directory, serializer, DEFAULT_SYNC_INTERVAL_MILLIS, DEFAULT_SNAPSHOT_INTERVAL);
+	}
+
+	/**
+	 * Wraps an empty queue, restoring any contents saved in the given directory.
+	 *
+	 * @param queue
+	 *            an empty queue to hold the elements in memory
+	 * @param directory
+	 *            the directory holding the snapshot and journal
+	 * @param serializer
+	 *            converts elements to and from bytes
+	 * @param syncIntervalMillis
+	 *            the longest time a change waits before it is flushed to disk, or
+	 *            SYNC_EVERY_OPERATION or SYNC_NEVER
+	 * @param snapshotInterval
+	 *            the fewest changes to journal before taking a snapshot
+	 * @throws IOException
+	 *             if the saved contents cannot be read or the journal cannot be
+	 *             opened
+	 */
+	public JournaledTwoWayQueue(ITwoWayQueue<T> queue, Path directory, ElementSerializer<T> serializer,
+			long syncIntervalMillis, long snapshotInterval) throws IOException
+	{
+		if (!queue.isEmpty())
+		{
+			throw new IllegalArgumentException("The wrapped queue must be empty");
+		}
+		if (snapshotInterval <= 0)
+		{
+			throw new IllegalArgumentException("Snapshot interval must be positive: " + snapshotInterval);
+		}
+		this.queue = queue;
+		this.directory = directory;
+		this.serializer = serializer;
+		this.syncIntervalNanos = syncIntervalMillis < 0 ? SYNC_NEVER
+				: TimeUnit.MILLISECONDS.toNanos(syncIntervalMillis);
+		this.snapshotInterval = snapshotInterval;
+		this.checksum = new CRC32();
+		this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+		Files.createDirectories(directory);
+		recover();
+	}
+
+	/**
+	 * Removes and returns the first element in the queue.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueFirst() is called
+	 * @return the first element
+	 */
+	@Override
+	public T dequeueFirst()
+	{
+		T element = queue.dequeueFirst();
+		appendOperation(DEQUEUE_FIRST);
+		return element;
+	}
+
+	/**
+	 * Removes and returns the last element in the queue.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueLast() is called
+	 * @return the last element
+	 */
+	@Override
+	public T dequeueLast()
+	{
+		T element = queue.dequeueLast();
+		appendOperation(DEQUEUE_LAST);
+		return element;
+	}
+
+	/**
+	 * Removes and returns all elements in the queue. The first element in the queue
+	 * should be located at the last index of the resulting list (index size() - 1)
+	 * and the last element in the queue at index zero.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueAll() is called
+	 * @return a list of all elements in the queue
+	 */
+	@Override
+	public List<T> dequeueAll()
+	{
+		List<T> all = queue.dequeueAll();
+		appendOperation(CLEAR);
+		return all;
+	}
+
+	/**
+	 * Adds a new element to the front of the queue.
+	 *
+	 * @param element
+	 *            the new element to be added to the front of the queue
+	 */
+	@Override
+	public void enqueueFirst(T element)
+	{
+		beginElementRecord(ENQUEUE_FIRST, element);
+		try
+		{
+			queue.enqueueFirst(element);
+		} catch (RuntimeException ex)
+		{
+			abandonRecord();
+			throw ex;
+		}
+		endRecord();
+	}
+
+	/**
+	 * Adds a new element to the end of the queue.
+	 *
+	 * @param element
+	 *            the new element to be added to the end of the queue
+	 */
+	@Override
+	public void enqueueLast(T element)
+	{
+		beginElementRecord(ENQUEUE_LAST, element);
+		try
+		{
+			queue.enqueueLast(element);
+		} catch (RuntimeException ex)
+		{
+			abandonRecord();
+			throw ex;
+		}
+		endRecord();
+	}
+
+	/**
+	 * Adds a group of elements to the front of the queue, journaled as a single
+	 * record.
+	 *
+	 * @param elements
+	 *            an array of elements to be added to the beginning of the queue
+	 */
+	@Override
+	public void enqueueAllFirst(T[] elements)
+	{
+		beginElementsRecord(ENQUEUE_ALL_FIRST, elements);
+		try
+		{
+			queue.enqueueAllFirst(elements);
+		} catch (RuntimeException ex)
+		{
+			abandonRecord();
+			throw ex;
+		}
+		endRecord();
+	}
+
+	/**
+	 * Adds a group of elements to the end of the queue, journaled as a single
+	 * record.
+	 *
+	 * @param elements
+	 *            an array of elements to be added to the end of the queue
+	 */
+	@Override
+	public void enqueueAllLast(T[] elements)
+	{
+		beginElementsRecord(ENQUEUE_ALL_LAST, elements);
+		try
+		{
+			queue.enqueueAllLast(elements);
+		} catch (RuntimeException ex)
+		{
+			abandonRecord();
+			throw ex;
+		}
+		endRecord();
+	}
+
+	/**
+	 * Returns the number of elements in the queue.
+	 *
+	 * @return the number of elements in the queue
+	 */
+	@Override
+	public int size()
+	{
+		return queue.size();
+	}
+
+	/**
+	 * Reports whether the queue is empty or not.
+	 *
+	 * @return true if no elements are in the queue, otherwise returns false
+	 */
+	@Override
+	public boolean isEmpty()
+	{
+		return queue.isEmpty();
+	}
+
+	/**
+	 * Removes all elements from the queue.
+	 */
+	@Override
+	public void clear()
+	{
+		queue.clear();
+		appendOperation(CLEAR);
+	}
+
+	/**
+	 * Returns an iterator over the wrapped queue. Its remove() is not supported,
+	 * since a removal through it would not be journaled.
+	 *
+	 * @return an object using the Iterator<T> interface
+	 */
+	@Override
+	public Iterator<T> iterator()
+	{
+		Iterator<T> iterator = queue.iterator();
+		return new Iterator<T>()
+		{
+			@Override
+			public boolean hasNext()
+			{
+				return iterator.hasNext();
+			}
+
+			@Override
+			public T next()
+			{
+				return iterator.next();
+			}
+		};
+	}
+
+	/**
+	 * Returns the wrapped queue's spliterator.
+	 *
+	 * @return a spliterator over the elements of the queue
+	 */
+	@Override
+	public Spliterator<T> spliterator()
+	{
+		return queue.spliterator();
+	}
+
+	/**
+	 * Writes any buffered journal records and flushes them to disk.
+	 *
+	 * @throws UncheckedIOException
+	 *             if the journal cannot be written, now or by an earlier
+	 *             background flush
+	 */
+	public void sync()
+	{
+		journalLock.lock();
+		try
+		{
+			checkFlushFailure();
+			writeBuffer();
+			journal.force(false);
+		} catch (IOException ex)
+		{
+			throw new UncheckedIOException(ex);
+		} finally
+		{
+			journalLock.unlock();
+		}
+	}
+
+	/**
+	 * Writes the whole queue to a new snapshot and starts an empty journal. The
+	 * snapshot is written to a temporary file and renamed into place, so a crash
+	 * part way through leaves the previous snapshot and journal in use.
+	 */
+	public void snapshot()
+	{
+		journalLock.lock();
+		try
+		{
+			writeBuffer();
+			long next = generation + 1;
+			writeSnapshot(next);
+
+			journal.close();
+			journal = FileChannel.open(journalFile(next), StandardOpenOption.CREATE,
+					StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+			Files.deleteIfExists(journalFile(generation));
+			generation = next;
+			recordsSinceSnapshot = 0;
+		} catch (IOException ex)
+		{
+			throw new UncheckedIOException(ex);
+		} finally
+		{
+			journalLock.unlock();
+		}
+	}
+
+	/**
+	 * Flushes the journal and closes it. The wrapped queue is left as it is.
+	 *
+	 * @throws IOException
+	 *             if the journal cannot be flushed or closed
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		journalLock.lock();
+		try
+		{
+			closed = true;
+			writeBuffer();
+			journal.force(false);
+			journal.close();
+		} finally
+		{
+			journalLock.unlock();
+		}
+	}
+
+	/**
+	 * Loads the latest snapshot, replays its journal, discards any torn record at
+	 * the end of the journal and removes files left over from older generations
+	 */
+	private void recover() throws IOException
+	{
+		Path snapshot = directory.resolve(SNAPSHOT_FILE);
+		if (Files.exists(snapshot))
+		{
+			readSnapshot(snapshot);
+		}
+
+		Path journalFile = journalFile(generation);
+		long validLength = Files.exists(journalFile) ? replayJournal(journalFile) : 0;
+
+		Files.deleteIfExists(directory.resolve(SNAPSHOT_TEMP_FILE));
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+				JOURNAL_PREFIX + "*" + JOURNAL_SUFFIX))
+		{
+			for (Path file : files)
+			{
+				if (!file.equals(journalFile))
+				{
+					Files.delete(file);
+				}
+			}
+		}
+
+		journal = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		journal.truncate(validLength);
+		journal.position(validLength);
+	}
+
+	private void readSnapshot(Path snapshot) throws IOException
+	{
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot))))
+		{
+			if (in.readInt() != SNAPSHOT_MAGIC)
+			{
+				throw new IOException("Not a queue snapshot: " + snapshot);
+			}
+			generation = in.readLong();
+			long count = in.readLong();
+			// the snapshot lists elements from last to first, so each one goes in front
+			for (long i = 0; i < count; i++)
+			{
+				queue.enqueueFirst(readElement(in));
+			}
+		}
+	}
+
+	/**
+	 * Applies every complete record in the journal to the queue. A record's bytes
+	 * are read and checked against its checksum before any element is decoded, so
+	 * a torn record is never handed to the serializer.
+	 *
+	 * @return the length of the journal up to the end of the last complete record
+	 */
+	private long replayJournal(Path file) throws IOException
+	{
+		long fileLength = Files.size(file);
+		CRC32 crc = new CRC32();
+		InputStream stream = new BufferedInputStream(Files.newInputStream(file));
+		try (DataInputStream in = new DataInputStream(new CheckedInputStream(stream, crc)))
+		{
+			long validLength = 0;
+			while (true)
+			{
+				crc.reset();
+				List<byte[]> elements = new ArrayList<>();
+				byte operation;
+				long length;
+				try
+				{
+					operation = in.readByte();
+					length = 1 + readRecordElements(operation, in, elements, fileLength - validLength - 1);
+					long expected = crc.getValue();
+					if (in.readInt() != (int) expected)
+					{
+						return validLength;
+					}
+				} catch (EOFException ex)
+				{
+					return validLength;
+				}
+
+				long recordEnd = validLength + length + Integer.BYTES;
+				List<T> decoded = new ArrayList<>(elements.size());
+				try
+				{
+					for (byte[] element : elements)
+					{
+						decoded.add(element == null ? null : serializer.read(ByteBuffer.wrap(element)));
+					}
+				} catch (RuntimeException ex)
+				{
+					if (recordEnd == fileLength)
+					{
+						// the last record may be garbage that passed the checksum by chance
+						return validLength;
+					}
+					throw new IOException("Cannot read the journal record at byte " + validLength + " of " + file, ex);
+				}
+
+				applyRecord(operation, decoded);
+				validLength = recordEnd;
+				recordsSinceSnapshot++;
+			}
+		}
+	}
+
+	/**
+	 * Reads the undecoded elements of one journal record, none of which may
+	 * extend past the given number of remaining bytes
+	 *
+	 * @return the number of bytes read
+	 */
+	private long readRecordElements(byte operation, DataInputStream in, List<byte[]> elements, long remaining)
+			throws IOException
+	{
+		switch (operation)
+		{
+		case ENQUEUE_FIRST:
+		case ENQUEUE_LAST:
+			byte[] element = readElementBytes(in, remaining);
+			elements.add(element);
+			return storedBytes(element);
+		case ENQUEUE_ALL_FIRST:
+		case ENQUEUE_ALL_LAST:
+			int count = in.readInt();
+			long bytes = Integer.BYTES;
+			// every element takes at least its length
+			if (count < 0 || count > (remaining - bytes) / Integer.BYTES)
+			{
+				throw new EOFException();
+			}
+			for (int i = 0; i < count; i++)
+			{
+				byte[] next = readElementBytes(in, remaining - bytes);
+				elements.add(next);
+				bytes += storedBytes(next);
+			}
+			return bytes;
+		case DEQUEUE_FIRST:
+		case DEQUEUE_LAST:
+		case CLEAR:
+			return 0;
+		default:
+			// a torn record can leave garbage where the operation should be
+			throw new EOFException();
+		}
+	}
+
+	/**
+	 * Reads the bytes of one element, or null for a null element. A length that
+	 * runs past the remaining bytes can only come from a torn record.
+	 */
+	private static byte[] readElementBytes(DataInputStream in, long remaining) throws IOException
+	{
+		int length = in.readInt();
+		if (length == NULL_LENGTH)
+		{
+			return null;
+		}
+		if (length < 0 || length > remaining - Integer.BYTES)
+		{
+			throw new EOFException();
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return bytes;
+	}
+
+	private static long storedBytes(byte[] element)
+	{
+		return Integer.BYTES + (element == null ? 0 : element.length);
+	}
+
+	private void applyRecord(byte operation, List<T> elements) throws IOException
+	{
+		if ((operation == DEQUEUE_FIRST || operation == DEQUEUE_LAST) && queue.isEmpty())
+		{
+			throw new IOException("Journal removes an element from an empty queue");
+		}
+
+		switch (operation)
+		{
+		case ENQUEUE_FIRST:
+		case ENQUEUE_ALL_FIRST:
+			for (T element : elements)
+			{
+				queue.enqueueFirst(element);
+			}
+			break;
+		case ENQUEUE_LAST:
+		case ENQUEUE_ALL_LAST:
+			for (T element : elements)
+			{
+				queue.enqueueLast(element);
+			}
+			break;
+		case DEQUEUE_FIRST:
+			queue.dequeueFirst();
+			break;
+		case DEQUEUE_LAST:
+			queue.dequeueLast();
+			break;
+		default:
+			queue.clear();
+		}
+	}
+
+	private T readElement(DataInputStream in) throws IOException
+	{
+		int length = in.readInt();
+		if (length == NULL_LENGTH)
+		{
+			return null;
+		}
+		if (length < 0)
+		{
+			throw new EOFException();
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return serializer.read(ByteBuffer.wrap(bytes));
+	}
+
+	private void writeSnapshot(long next) throws IOException
+	{
+		Path temp = directory.resolve(SNAPSHOT_TEMP_FILE);
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+		{
+			buffer.putInt(SNAPSHOT_MAGIC);
+			buffer.putLong(next);
+			buffer.putLong(queue.size());
+			for (T element : queue)
+			{
+				int bytes = elementBytes(element);
+				if (buffer.remaining() < bytes)
+				{
+					writeBuffer(channel);
+					ensureCapacity(bytes);
+				}
+				putElement(element);
+			}
+			writeBuffer(channel);
+			channel.force(false);
+		}
+		Files.move(temp, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.ATOMIC_MOVE,
+				StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	private void appendOperation(byte operation)
+	{
+		beginRecord(operation, 0);
+		endRecord();
+	}
+
+	/**
+	 * Writes an enqueue record without finishing it, so it can be abandoned if the
+	 * wrapped queue rejects the element
+	 */
+	private void beginElementRecord(byte operation, T element)
+	{
+		beginRecord(operation, elementBytes(element));
+		try
+		{
+			putElement(element);
+		} catch (RuntimeException ex)
+		{
+			abandonRecord();
+			throw ex;
+		}
+	}
+
+	private void beginElementsRecord(byte operation, T[] elements)
+	{
+		long bytes = Integer.BYTES;
+		for (T element : elements)
+		{
+			bytes += elementBytes(element);
+		}
+		if (bytes > Integer.MAX_VALUE - 16)
+		{
+			throw new IllegalArgumentException("Too many bytes to journal in one record: " + bytes);
+		}
+
+		beginRecord(operation, (int) bytes);
+		try
+		{
+			buffer.putInt(elements.length);
+			for (T element : elements)
+			{
+				putElement(element);
+			}
+		} catch (RuntimeException ex)
+		{
+			abandonRecord();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Makes room for a record with the given number of payload bytes and writes its
+	 * operation. The journal lock is held until endRecord() or abandonRecord(), so
+	 * the background flush never writes half a record.
+	 */
+	private void beginRecord(byte operation, int payloadBytes)
+	{
+		journalLock.lock();
+		try
+		{
+			int recordBytes = 1 + payloadBytes + Integer.BYTES;
+			if (buffer.remaining() < recordBytes)
+			{
+				writeBuffer();
+				ensureCapacity(recordBytes);
+			}
+			recordStart = buffer.position();
+			buffer.put(operation);
+		} catch (IOException ex)
+		{
+			journalLock.unlock();
+			throw new UncheckedIOException(ex);
+		} catch (RuntimeException ex)
+		{
+			journalLock.unlock();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Appends the checksum of the record started by beginRecord() and applies the
+	 * sync and snapshot policies
+	 */
+	private void endRecord()
+	{
+		try
+		{
+			checksum.reset();
+			checksum.update(buffer.array(), recordStart, buffer.position() - recordStart);
+			buffer.putInt((int) checksum.getValue());
+
+			recordsSinceSnapshot++;
+			if (syncIntervalNanos == SYNC_EVERY_OPERATION)
+			{
+				sync();
+			} else if (syncIntervalNanos > 0 && !flushScheduled)
+			{
+				checkFlushFailure();
+				flushScheduled = true;
+				FLUSHER.schedule(this::backgroundFlush, syncIntervalNanos, TimeUnit.NANOSECONDS);
+			}
+			if (recordsSinceSnapshot >= Math.max(snapshotInterval, queue.size()))
+			{
+				snapshot();
+			}
+		} finally
+		{
+			journalLock.unlock();
+		}
+	}
+
+	/**
+	 * Drops the record started by beginRecord()
+	 */
+	private void abandonRecord()
+	{
+		buffer.position(recordStart);
+		journalLock.unlock();
+	}
+
+	/**
+	 * Writes and flushes the records buffered since the flush was scheduled. Runs
+	 * on the flusher thread; a failure is reported by the next change or sync().
+	 */
+	private void backgroundFlush()
+	{
+		journalLock.lock();
+		try
+		{
+			flushScheduled = false;
+			if (!closed)
+			{
+				writeBuffer();
+				journal.force(false);
+			}
+		} catch (IOException ex)
+		{
+			flushFailure = ex;
+		} finally
+		{
+			journalLock.unlock();
+		}
+	}
+
+	private void checkFlushFailure()
+	{
+		IOException failure = flushFailure;
+		if (failure != null)
+		{
+			flushFailure = null;
+			throw new UncheckedIOException("Background flush of the journal failed", failure);
+		}
+	}
+
+	private int elementBytes(T element)
+	{
+		return Integer.BYTES + (element == null ? 0 : serializer.sizeOf(element));
+	}
+
+	private void putElement(T element)
+	{
+		if (element == null)
+		{
+			buffer.putInt(NULL_LENGTH);
+			return;
+		}
+
+		int length = serializer.sizeOf(element);
+		buffer.putInt(length);
+		int start = buffer.position();
+		serializer.write(element, buffer);
+		if (buffer.position() != start + length)
+		{
+			throw new IllegalStateException("Serializer wrote a different number of bytes than sizeOf() reported");
+		}
+	}
+
+	private void ensureCapacity(int bytes)
+	{
+		if (buffer.capacity() < bytes)
+		{
+			buffer = ByteBuffer.allocate(bytes);
+		}
+	}
+
+	private void writeBuffer() throws IOException
+	{
+		writeBuffer(journal);
+	}
+
+	private void writeBuffer(FileChannel channel) throws IOException
+	{
+		buffer.flip();
+		while (buffer.hasRemaining())
+		{
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	private Path journalFile(long generation)
+	{
+		return directory.resolve(JOURNAL_PREFIX + generation + JOURNAL_SUFFIX);
+	}
+}
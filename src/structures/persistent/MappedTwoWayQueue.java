@@ -0,0 +1,750 @@
+/**
+ * Michael Horn
+ * Oct 18, 2026
+ * MappedTwoWayQueue.java
+ */
+package structures.persistent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+import exceptions.EmptyQueueException;
+import structures.IStreamableTwoWayQueue;
+
+/**
+ * A two-way queue whose elements live in memory-mapped segment files instead of
+ * on the heap, so a backlog can grow far past the heap size and is still there
+ * after the process restarts. Only a small index of open segments is kept on the
+ * heap.
+ *
+ * Each segment file starts with a header holding the bounds of its records and
+ * their count. Records are stored as [length][bytes][length]; the length at both
+ * ends lets the queue step over a record from either side, so enqueue and
+ * dequeue at both ends are O(1). The first segment grows downwards and the last
+ * segment grows upwards; when one fills up a new segment file is added, and a
+ * segment file is deleted as soon as it is emptied.
+ *
+ * The header has two slots for the bounds, each with a sequence number. An
+ * update fills the older slot and then writes its sequence number, and on reopen
+ * the slot with the newer sequence number wins, so a crash part way through an
+ * update leaves the previous bounds in place. The header is updated after the
+ * record is written, so a crash never exposes a half written record. A new
+ * segment file gets its magic number last; on reopen, segment files without one
+ * and empty segments left behind by a crash are deleted.
+ *
+ * Changes reach the operating system's page cache immediately and survive a
+ * process crash. Call force() to also make them survive a power failure. This
+ * class is not thread-safe.
+ *
+ * @author Michael Horn
+ * @version 1.0
+ */
+public class MappedTwoWayQueue<T> implements IStreamableTwoWayQueue<T>, AutoCloseable
+{
+	private static final int MAGIC = 0x54575153;
+	private static final int MAGIC_OFFSET = 0;
+	private static final int SLOT_OFFSET = 4;
+	private static final int SLOT_BYTES = 16;
+	private static final int SEQUENCE_OFFSET = 0;
+	private static final int LOW_OFFSET = 4;
+	private static final int HIGH_OFFSET = 8;
+	private static final int COUNT_OFFSET = 12;
+	private static final int HEADER_BYTES = SLOT_OFFSET + 2 * SLOT_BYTES;
+
+	private static final int LENGTH_BYTES = 4;
+	private static final int NULL_LENGTH = -1;
+	private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+	private static final String SEGMENT_PREFIX = "segment-";
+	private static final String SEGMENT_SUFFIX = ".dat";
+
+	private final Path directory;
+	private final int segmentSize;
+	private final ElementSerializer<T> serializer;
+	private final ArrayDeque<Segment> segments;
+	private long size;
+	private int modCount;
+
+	/**
+	 * Opens the queue stored in the given directory with 64MB segments, creating
+	 * an empty one if the directory holds no segments.
+	 *
+	 * @param directory
+	 *            the directory holding the segment files
+	 * @param serializer
+	 *            converts elements to and from bytes
+	 * @throws IOException
+	 *             if the segments cannot be created or mapped
+	 */
+	public MappedTwoWayQueue(Path directory, ElementSerializer<T> serializer) throws IOException
+	{
+		this(directory, DEFAULT_SEGMENT_SIZE, serializer);
+	}
+
+	/**
+	 * Opens the queue stored in the given directory, creating an empty one if the
+	 * directory holds no segments. Existing segments must have been written with
+	 * the same segment size.
+	 *
+	 * @param directory
+	 *            the directory holding the segment files
+	 * @param segmentSize
+	 *            the size of each segment file in bytes
+	 * @param serializer
+	 *            converts elements to and from bytes
+	 * @throws IOException
+	 *             if the segments cannot be created or mapped, or an existing
+	 *             segment has a different size
+	 */
+	public MappedTwoWayQueue(Path directory, int segmentSize, ElementSerializer<T> serializer) throws IOException
+	{
+		if (segmentSize < HEADER_BYTES + 2 * LENGTH_BYTES)
+		{
+			throw new IllegalArgumentException("Segment size is too small: " + segmentSize);
+		}
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		this.serializer = serializer;
+		this.segments = new ArrayDeque<>();
+
+		Files.createDirectories(directory);
+		recover();
+	}
+
+	/**
+	 * Removes and returns the first element in the queue.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueFirst() is called
+	 * @return the first element
+	 */
+	@Override
+	public T dequeueFirst()
+	{
+		modCount++;
+		if (isEmpty())
+		{
+			throw EmptyQueueException.instance();
+		}
+
+		Segment segment = segments.peekFirst();
+		int length = segment.buffer.getInt(segment.low);
+		T element = readRecord(segment, segment.low, length);
+		segment.setBounds(segment.low + recordBytes(length), segment.high, segment.count - 1);
+		size--;
+		afterRemove(segment, true);
+		return element;
+	}
+
+	/**
+	 * Removes and returns the last element in the queue.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueLast() is called
+	 * @return the last element
+	 */
+	@Override
+	public T dequeueLast()
+	{
+		modCount++;
+		if (isEmpty())
+		{
+			throw EmptyQueueException.instance();
+		}
+
+		Segment segment = segments.peekLast();
+		int length = segment.buffer.getInt(segment.high - LENGTH_BYTES);
+		int start = segment.high - recordBytes(length);
+		T element = readRecord(segment, start, length);
+		segment.setBounds(segment.low, start, segment.count - 1);
+		size--;
+		afterRemove(segment, false);
+		return element;
+	}
+
+	/**
+	 * Removes and returns all elements in the queue. The first element in the queue
+	 * should be located at the last index of the resulting list (index size() - 1)
+	 * and the last element in the queue at index zero.
+	 *
+	 * @return a list of all elements in the queue
+	 */
+	@Override
+	public List<T> dequeueAll()
+	{
+		if (isEmpty())
+		{
+			modCount++;
+			throw EmptyQueueException.instance();
+		}
+
+		List<T> list = new ArrayList<>(size());
+		for (T element : this)
+		{
+			list.add(element);
+		}
+		clear();
+		return list;
+	}
+
+	/**
+	 * Adds a new element to the front of the queue, starting a new segment file
+	 * when the first one is full.
+	 *
+	 * @param element
+	 *            the new element to be added to the front of the queue
+	 */
+	@Override
+	public void enqueueFirst(T element)
+	{
+		modCount++;
+		int length = element == null ? NULL_LENGTH : serializer.sizeOf(element);
+		int bytes = checkRecordFits(length);
+
+		Segment segment = segments.peekFirst();
+		if (segment.low - bytes < HEADER_BYTES)
+		{
+			if (segment.count == 0)
+			{
+				// an empty segment must not be left behind at the other end, so
+				// move its bounds to the end of its data instead
+				segment.setBounds(segmentSize, segmentSize, 0);
+			} else
+			{
+				segment = addSegment(segment.id - 1, segmentSize, true);
+			}
+		}
+
+		int start = segment.low - bytes;
+		writeRecord(segment, start, length, element);
+		segment.setBounds(start, segment.high, segment.count + 1);
+		size++;
+	}
+
+	/**
+	 * Adds a new element to the end of the queue, starting a new segment file when
+	 * the last one is full.
+	 *
+	 * @param element
+	 *            the new element to be added to the end of the queue
+	 */
+	@Override
+	public void enqueueLast(T element)
+	{
+		modCount++;
+		int length = element == null ? NULL_LENGTH : serializer.sizeOf(element);
+		int bytes = checkRecordFits(length);
+
+		Segment segment = segments.peekLast();
+		if (segment.high + bytes > segmentSize)
+		{
+			if (segment.count == 0)
+			{
+				// an empty segment must not be left behind at the other end, so
+				// move its bounds to the start of its data instead
+				segment.setBounds(HEADER_BYTES, HEADER_BYTES, 0);
+			} else
+			{
+				segment = addSegment(segment.id + 1, HEADER_BYTES, false);
+			}
+		}
+
+		int start = segment.high;
+		writeRecord(segment, start, length, element);
+		segment.setBounds(segment.low, start + bytes, segment.count + 1);
+		size++;
+	}
+
+	/**
+	 * Adds a group of elements to the front of the queue.
+	 *
+	 * @param elements
+	 *            an array of elements to be added to the beginning of the queue
+	 */
+	@Override
+	public void enqueueAllFirst(T[] elements)
+	{
+		for (T element : elements)
+		{
+			enqueueFirst(element);
+		}
+	}
+
+	/**
+	 * Adds a group of elements to the end of the queue.
+	 *
+	 * @param elements
+	 *            an array of elements to be added to the end of the queue
+	 */
+	@Override
+	public void enqueueAllLast(T[] elements)
+	{
+		for (T element : elements)
+		{
+			enqueueLast(element);
+		}
+	}
+
+	/**
+	 * Returns the number of elements in the queue, or Integer.MAX_VALUE if there
+	 * are more than that.
+	 *
+	 * @return the number of elements in the queue
+	 */
+	@Override
+	public int size()
+	{
+		return (int) Math.min(size, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Returns the number of elements in the queue as a long, since a disk backed
+	 * queue can hold more than Integer.MAX_VALUE elements.
+	 *
+	 * @return the number of elements in the queue
+	 */
+	public long longSize()
+	{
+		return size;
+	}
+
+	/**
+	 * Reports whether the queue is empty or not.
+	 *
+	 * @return true if no elements are in the queue, otherwise returns false
+	 */
+	@Override
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	/**
+	 * Removes all elements from the queue, deleting every segment file but one.
+	 */
+	@Override
+	public void clear()
+	{
+		modCount++;
+		while (segments.size() > 1)
+		{
+			deleteSegment(segments.pollLast());
+		}
+		Segment segment = segments.peekFirst();
+		int middle = middle();
+		segment.setBounds(middle, middle, 0);
+		size = 0;
+	}
+
+	/**
+	 * Returns an iterator over the elements of the queue. It should not be possible
+	 * to use the iterator while making any changes to the stack itself.
+	 *
+	 * Elements should return in FIFO order (i.e. The first element added should be
+	 * the first returned by the iterator. The last element added should be the last
+	 * returned by the iterator.)
+	 *
+	 * @return an object using the Iterator<T> interface
+	 */
+	@Override
+	public Iterator<T> iterator()
+	{
+		return new MappedTwoWayQueueIterator();
+	}
+
+	/**
+	 * Returns a spliterator over the elements of the queue, in the same order as
+	 * the iterator. Reading a segment is not thread-safe, so parallel streams split
+	 * it by copying batches of elements on one thread at a time.
+	 *
+	 * @return a spliterator over the elements of the queue
+	 */
+	@Override
+	public Spliterator<T> spliterator()
+	{
+		return Spliterators.spliterator(iterator(), size, Spliterator.ORDERED);
+	}
+
+	/**
+	 * Flushes every segment to the storage device.
+	 */
+	public void force()
+	{
+		for (Segment segment : segments)
+		{
+			segment.buffer.force();
+		}
+	}
+
+	/**
+	 * Flushes and closes every segment file. The queue must not be used afterwards;
+	 * construct a new one over the same directory to reopen it.
+	 *
+	 * @throws IOException
+	 *             if a segment file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		force();
+		for (Segment segment : segments)
+		{
+			segment.channel.close();
+		}
+		segments.clear();
+	}
+
+	/**
+	 * Loads every segment file in the directory, or creates the first segment if
+	 * there are none. Segment files a crash left unfinished, and empty segments
+	 * that were about to be deleted, are deleted.
+	 */
+	private void recover() throws IOException
+	{
+		List<Long> ids = new ArrayList<>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX))
+		{
+			for (Path file : files)
+			{
+				String name = file.getFileName().toString();
+				String hex = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+				ids.add(Long.parseUnsignedLong(hex, 16) ^ Long.MIN_VALUE);
+			}
+		}
+		ids.sort(null);
+
+		for (long id : ids)
+		{
+			Path file = segmentFile(id);
+			long fileSize = Files.size(file);
+			if (fileSize == 0)
+			{
+				// created but never mapped
+				Files.delete(file);
+				continue;
+			}
+			if (fileSize != segmentSize)
+			{
+				throw new IOException("Segment " + file + " is " + fileSize + " bytes, expected " + segmentSize);
+			}
+
+			Segment segment = mapSegment(id);
+			int magic = segment.buffer.getInt(MAGIC_OFFSET);
+			if (magic == 0)
+			{
+				// the header was never finished, so no record was ever added
+				deleteSegment(segment);
+				continue;
+			}
+			if (magic != MAGIC)
+			{
+				segment.channel.close();
+				throw new IOException("Not a queue segment: " + file);
+			}
+			segment.loadBounds();
+			segments.addLast(segment);
+			size += segment.count;
+		}
+
+		Iterator<Segment> iterator = segments.iterator();
+		while (segments.size() > 1 && iterator.hasNext())
+		{
+			Segment segment = iterator.next();
+			if (segment.count == 0)
+			{
+				iterator.remove();
+				deleteSegment(segment);
+			}
+		}
+
+		if (segments.isEmpty())
+		{
+			addSegment(0, middle(), false);
+		}
+	}
+
+	/**
+	 * Creates a new, empty segment file at one end of the queue. The magic number
+	 * is written after the rest of the header.
+	 *
+	 * @param id
+	 *            the segment's position in the queue
+	 * @param start
+	 *            where the segment's first record will go
+	 * @param atFront
+	 *            whether the segment goes before the first segment
+	 */
+	private Segment addSegment(long id, int start, boolean atFront)
+	{
+		try
+		{
+			Segment segment = mapSegment(id);
+			segment.setBounds(start, start, 0);
+			segment.buffer.putInt(MAGIC_OFFSET, MAGIC);
+			if (atFront)
+			{
+				segments.addFirst(segment);
+			} else
+			{
+				segments.addLast(segment);
+			}
+			return segment;
+		} catch (IOException ex)
+		{
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private Segment mapSegment(long id) throws IOException
+	{
+		FileChannel channel = FileChannel.open(segmentFile(id), StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		try
+		{
+			return new Segment(id, channel, channel.map(MapMode.READ_WRITE, 0, segmentSize));
+		} catch (IOException | RuntimeException ex)
+		{
+			channel.close();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Deletes a segment once its last record has been removed, unless it is the
+	 * only segment left
+	 */
+	private void afterRemove(Segment segment, boolean first)
+	{
+		if (segment.count > 0)
+		{
+			return;
+		}
+
+		if (segments.size() > 1)
+		{
+			if (first)
+			{
+				segments.pollFirst();
+			} else
+			{
+				segments.pollLast();
+			}
+			deleteSegment(segment);
+		} else
+		{
+			int middle = middle();
+			segment.setBounds(middle, middle, 0);
+		}
+	}
+
+	private void deleteSegment(Segment segment)
+	{
+		try
+		{
+			segment.channel.close();
+			Files.deleteIfExists(segmentFile(segment.id));
+		} catch (IOException ex)
+		{
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private void writeRecord(Segment segment, int start, int length, T element)
+	{
+		MappedByteBuffer buffer = segment.buffer;
+		buffer.putInt(start, length);
+		int dataStart = start + LENGTH_BYTES;
+		int dataLength = Math.max(length, 0);
+		if (element != null)
+		{
+			buffer.limit(dataStart + dataLength);
+			buffer.position(dataStart);
+			try
+			{
+				serializer.write(element, buffer);
+				if (buffer.position() != dataStart + dataLength)
+				{
+					throw new IllegalStateException("Serializer wrote a different number of bytes than sizeOf() reported");
+				}
+			} finally
+			{
+				buffer.clear();
+			}
+		}
+		buffer.putInt(dataStart + dataLength, length);
+	}
+
+	private T readRecord(Segment segment, int start, int length)
+	{
+		if (length == NULL_LENGTH)
+		{
+			return null;
+		}
+
+		MappedByteBuffer buffer = segment.buffer;
+		int dataStart = start + LENGTH_BYTES;
+		buffer.limit(dataStart + length);
+		buffer.position(dataStart);
+		try
+		{
+			return serializer.read(buffer);
+		} finally
+		{
+			buffer.clear();
+		}
+	}
+
+	private int checkRecordFits(int length)
+	{
+		int bytes = recordBytes(length);
+		if (bytes > segmentSize - HEADER_BYTES)
+		{
+			throw new IllegalArgumentException("Element of " + length + " bytes does not fit in a segment");
+		}
+		return bytes;
+	}
+
+	private static int recordBytes(int length)
+	{
+		return Math.max(length, 0) + 2 * LENGTH_BYTES;
+	}
+
+	/**
+	 * The starting point of an empty segment, halfway through its data, so it can
+	 * grow in either direction
+	 */
+	private int middle()
+	{
+		return HEADER_BYTES + (segmentSize - HEADER_BYTES) / 2;
+	}
+
+	private Path segmentFile(long id)
+	{
+		// flipping the sign bit makes the hex names sort in id order, negative ids included
+		return directory.resolve(SEGMENT_PREFIX + String.format("%016x", id ^ Long.MIN_VALUE) + SEGMENT_SUFFIX);
+	}
+
+	private class MappedTwoWayQueueIterator implements Iterator<T>
+	{
+		final Iterator<Segment> segmentIterator;
+		Segment segment;
+		int position;
+		long remaining;
+		int savedModCount;
+
+		/**
+		 * Starts the iterator after the last record of the last segment, walking
+		 * towards the first element
+		 */
+		public MappedTwoWayQueueIterator()
+		{
+			this.segmentIterator = segments.descendingIterator();
+			this.segment = segmentIterator.next();
+			this.position = segment.high;
+			this.remaining = size;
+			this.savedModCount = modCount;
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			if (savedModCount != MappedTwoWayQueue.this.modCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+			return remaining > 0;
+		}
+
+		@Override
+		public T next()
+		{
+			if (savedModCount != MappedTwoWayQueue.this.modCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+			if (remaining == 0)
+			{
+				throw new NoSuchElementException();
+			}
+
+			while (position == segment.low)
+			{
+				segment = segmentIterator.next();
+				position = segment.high;
+			}
+			int length = segment.buffer.getInt(position - LENGTH_BYTES);
+			position -= recordBytes(length);
+			remaining--;
+			return readRecord(segment, position, length);
+		}
+	}
+
+	/**
+	 * One mapped segment file and the bounds of the records in it
+	 */
+	private static class Segment
+	{
+		final long id;
+		final FileChannel channel;
+		final MappedByteBuffer buffer;
+		int low;
+		int high;
+		int count;
+		int sequence;
+
+		Segment(long id, FileChannel channel, MappedByteBuffer buffer)
+		{
+			this.id = id;
+			this.channel = channel;
+			this.buffer = buffer;
+		}
+
+		/**
+		 * Reads the bounds from the header slot that was written last
+		 */
+		void loadBounds()
+		{
+			int first = buffer.getInt(SLOT_OFFSET + SEQUENCE_OFFSET);
+			int second = buffer.getInt(SLOT_OFFSET + SLOT_BYTES + SEQUENCE_OFFSET);
+			// sequence numbers wrap around, so compare their difference
+			int slot = second - first > 0 ? SLOT_OFFSET + SLOT_BYTES : SLOT_OFFSET;
+			sequence = buffer.getInt(slot + SEQUENCE_OFFSET);
+			low = buffer.getInt(slot + LOW_OFFSET);
+			high = buffer.getInt(slot + HIGH_OFFSET);
+			count = buffer.getInt(slot + COUNT_OFFSET);
+		}
+
+		/**
+		 * Updates the bounds both on the heap and in the file header. The bounds go
+		 * to the older slot, which only becomes the current one when its sequence
+		 * number is written.
+		 */
+		void setBounds(int low, int high, int count)
+		{
+			this.low = low;
+			this.high = high;
+			this.count = count;
+			sequence++;
+			int slot = SLOT_OFFSET + (sequence & 1) * SLOT_BYTES;
+			buffer.putInt(slot + LOW_OFFSET, low);
+			buffer.putInt(slot + HIGH_OFFSET, high);
+			buffer.putInt(slot + COUNT_OFFSET, count);
+			buffer.putInt(slot + SEQUENCE_OFFSET, sequence);
+		}
+	}
+}
@@ -0,0 +1,482 @@
+/**
+ * Michael Horn
+ * Oct 18, 2026
+ * QueueSerializer.java
+ */
+package structures.persistent;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.function.IntFunction;
+
+import structures.IExtendedTwoWayQueue;
+import structures.ITwoWayQueue;
+
+/**
+ * Writes the contents of a two-way queue to a channel or buffer in a compact
+ * binary form and reads them back into a new queue. Elements are streamed
+ * straight from the queue's iterator, so no copy of the queue is built along
+ * the way.
+ *
+ * The stream starts with a header holding the element count, which the reader
+ * passes to a factory so the new queue can be sized up front (for example
+ * ArrayTwoWayQueue::new). The elements follow in chunks, each starting with a
+ * count: a positive count is followed by that many elements, and a negative
+ * count stands for that many nulls. Each element is its length followed by the
+ * serializer's bytes, except with ElementSerializers.integers() and longs(),
+ * where the fixed length is left out and the values are written directly.
+ *
+ * The size passed to the factory is capped at 65536, so a corrupt header
+ * cannot make the reader allocate a huge queue before any element has been
+ * read; larger queues grow as their elements arrive. For the same reason an
+ * element may take at most 64 MiB (67108864 bytes) in the stream, and a larger
+ * length is rejected rather than allocated.
+ *
+ * Everything is written in big-endian order, whatever the order of a buffer
+ * passed in.
+ *
+ * @author Michael Horn
+ * @version 1.0
+ */
+public class QueueSerializer<T>
+{
+	private static final int MAGIC = 0x54575153;
+	private static final byte GENERIC = 0;
+	private static final byte INTEGERS = 1;
+	private static final byte LONGS = 2;
+
+	private static final int HEADER_BYTES = Integer.BYTES + 1 + Integer.BYTES;
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int MAX_RUN = 1 << 30;
+	private static final int LOAD_BATCH = 1024;
+	private static final int MAX_PRESIZE = 1 << 16;
+	private static final int MAX_ELEMENT_BYTES = 1 << 26;
+
+	private final ElementSerializer<T> serializer;
+	private final byte codec;
+
+	/**
+	 * Creates a queue serializer that converts elements with the given serializer.
+	 *
+	 * @param serializer
+	 *            converts elements to and from bytes
+	 */
+	public QueueSerializer(ElementSerializer<T> serializer)
+	{
+		this.serializer = serializer;
+		if (serializer == (Object) ElementSerializers.integers())
+		{
+			this.codec = INTEGERS;
+		} else if (serializer == (Object) ElementSerializers.longs())
+		{
+			this.codec = LONGS;
+		} else
+		{
+			this.codec = GENERIC;
+		}
+	}
+
+	/**
+	 * Writes every element of the queue to the channel, from the last element to
+	 * the first. The queue is not changed.
+	 *
+	 * @param queue
+	 *            the queue to write
+	 * @param channel
+	 *            the channel to write to
+	 * @throws IOException
+	 *             if the channel cannot be written
+	 * @throws IllegalArgumentException
+	 *             if an element takes more than 64 MiB
+	 */
+	public void write(ITwoWayQueue<T> queue, WritableByteChannel channel) throws IOException
+	{
+		ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		buffer = writeElements(queue, buffer, channel);
+		drain(buffer, channel);
+	}
+
+	/**
+	 * Writes every element of the queue into the buffer, starting at its position.
+	 * The queue is not changed.
+	 *
+	 * @param queue
+	 *            the queue to write
+	 * @param buffer
+	 *            the buffer to write to
+	 * @throws BufferOverflowException
+	 *             if the buffer does not have room for the whole queue
+	 * @throws IllegalArgumentException
+	 *             if an element takes more than 64 MiB
+	 */
+	public void write(ITwoWayQueue<T> queue, ByteBuffer buffer)
+	{
+		ByteOrder order = buffer.order();
+		buffer.order(ByteOrder.BIG_ENDIAN);
+		try
+		{
+			writeElements(queue, buffer, null);
+		} catch (IOException ex)
+		{
+			// only thrown when writing to a channel
+			throw new IllegalStateException(ex);
+		} finally
+		{
+			buffer.order(order);
+		}
+	}
+
+	/**
+	 * Reads a queue written by write() from the channel.
+	 *
+	 * @param channel
+	 *            the channel to read from
+	 * @param factory
+	 *            creates an empty queue given the number of elements it should
+	 *            make room for, which is at most 65536
+	 * @return the queue created by the factory, holding the elements read
+	 * @throws IOException
+	 *             if the channel cannot be read or does not hold a queue written
+	 *             with the same kind of serializer
+	 */
+	public <Q extends ITwoWayQueue<T>> Q read(ReadableByteChannel channel, IntFunction<Q> factory)
+			throws IOException
+	{
+		ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		buffer.flip();
+		return readElements(buffer, channel, factory);
+	}
+
+	/**
+	 * Reads a queue written by write() from the buffer, starting at its position.
+	 *
+	 * @param buffer
+	 *            the buffer to read from
+	 * @param factory
+	 *            creates an empty queue given the number of elements it should
+	 *            make room for, which is at most 65536
+	 * @return the queue created by the factory, holding the elements read
+	 * @throws IOException
+	 *             if the buffer does not hold a queue written with the same kind
+	 *             of serializer
+	 */
+	public <Q extends ITwoWayQueue<T>> Q read(ByteBuffer buffer, IntFunction<Q> factory) throws IOException
+	{
+		ByteOrder order = buffer.order();
+		buffer.order(ByteOrder.BIG_ENDIAN);
+		try
+		{
+			return readElements(buffer, null, factory);
+		} finally
+		{
+			buffer.order(order);
+		}
+	}
+
+	/**
+	 * Writes the header and elements, emptying the buffer into the channel when it
+	 * fills up
+	 *
+	 * @return the buffer holding whatever has not been written to the channel yet,
+	 *         which is a larger one if an element did not fit in the original
+	 */
+	private ByteBuffer writeElements(ITwoWayQueue<T> queue, ByteBuffer buffer, WritableByteChannel channel)
+			throws IOException
+	{
+		int count = queue.size();
+		buffer = ensureRoom(buffer, HEADER_BYTES, channel);
+		buffer.putInt(MAGIC);
+		buffer.put(codec);
+		buffer.putInt(count);
+
+		Iterator<T> iterator = queue.iterator();
+		int chunkStart = -1;
+		int run = 0;
+		for (int i = 0; i < count; i++)
+		{
+			if (!iterator.hasNext())
+			{
+				throw new ConcurrentModificationException();
+			}
+			T element = iterator.next();
+			int length = element == null ? 0 : dataLength(element);
+			int bytes = element == null ? 0 : elementBytes(length);
+
+			boolean continueRun = chunkStart >= 0 && (element == null) == (run < 0) && Math.abs(run) < MAX_RUN
+					&& buffer.remaining() >= bytes;
+			if (!continueRun)
+			{
+				if (chunkStart >= 0)
+				{
+					buffer.putInt(chunkStart, run);
+				}
+				buffer = ensureRoom(buffer, Integer.BYTES + bytes, channel);
+				chunkStart = buffer.position();
+				buffer.putInt(0);
+				run = 0;
+			}
+
+			if (element == null)
+			{
+				run--;
+			} else
+			{
+				putElement(element, length, buffer);
+				run++;
+			}
+		}
+		if (chunkStart >= 0)
+		{
+			buffer.putInt(chunkStart, run);
+		}
+		if (iterator.hasNext())
+		{
+			throw new ConcurrentModificationException();
+		}
+		return buffer;
+	}
+
+	private <Q extends ITwoWayQueue<T>> Q readElements(ByteBuffer buffer, ReadableByteChannel channel,
+			IntFunction<Q> factory) throws IOException
+	{
+		buffer = ensureReadable(buffer, HEADER_BYTES, channel);
+		if (buffer.getInt() != MAGIC)
+		{
+			throw new IOException("Not a serialized queue");
+		}
+		if (buffer.get() != codec)
+		{
+			throw new IOException("Queue was serialized with a different kind of element serializer");
+		}
+		int count = buffer.getInt();
+		if (count < 0)
+		{
+			throw new IOException("Invalid element count: " + count);
+		}
+
+		Q queue = factory.apply(Math.min(count, MAX_PRESIZE));
+		T[] batch = newArray(Math.min(count, LOAD_BATCH));
+		int batched = 0;
+		int read = 0;
+		while (read < count)
+		{
+			buffer = ensureReadable(buffer, Integer.BYTES, channel);
+			int run = buffer.getInt();
+			if (run == 0 || Math.abs((long) run) > count - read)
+			{
+				throw new IOException("Invalid chunk length: " + run);
+			}
+
+			for (int i = Math.abs(run); i > 0; i--)
+			{
+				T element = null;
+				if (run > 0 && codec == GENERIC)
+				{
+					buffer = ensureReadable(buffer, Integer.BYTES, channel);
+					int length = buffer.getInt();
+					if (length < 0 || length > MAX_ELEMENT_BYTES)
+					{
+						throw new IOException("Invalid element length: " + length);
+					}
+					buffer = ensureReadable(buffer, length, channel);
+					element = getElement(length, buffer);
+				} else if (run > 0)
+				{
+					buffer = ensureReadable(buffer, fixedLength(), channel);
+					element = getFixedLengthElement(buffer);
+				}
+
+				// the stream lists elements from last to first, so they go in at the front
+				batch[batched++] = element;
+				if (batched == batch.length)
+				{
+					enqueueAllFirst(queue, batch, batched);
+					batched = 0;
+				}
+				read++;
+			}
+		}
+		enqueueAllFirst(queue, batch, batched);
+		return queue;
+	}
+
+	private void enqueueAllFirst(ITwoWayQueue<T> queue, T[] batch, int length)
+	{
+		if (length == 0)
+		{
+			return;
+		}
+
+		if (queue instanceof IExtendedTwoWayQueue)
+		{
+			((IExtendedTwoWayQueue<T>) queue).enqueueAllFirst(batch, 0, length);
+		} else
+		{
+			queue.enqueueAllFirst(length == batch.length ? batch : Arrays.copyOf(batch, length));
+		}
+		Arrays.fill(batch, 0, length, null);
+	}
+
+	/**
+	 * Returns the number of bytes the serializer produces for the element
+	 */
+	private int dataLength(T element)
+	{
+		if (codec != GENERIC)
+		{
+			return fixedLength();
+		}
+		int length = serializer.sizeOf(element);
+		if (length > MAX_ELEMENT_BYTES)
+		{
+			throw new IllegalArgumentException("Element takes more than " + MAX_ELEMENT_BYTES + " bytes: " + length);
+		}
+		return length;
+	}
+
+	/**
+	 * Returns the length of every element when the codec writes values directly
+	 */
+	private int fixedLength()
+	{
+		return codec == INTEGERS ? Integer.BYTES : Long.BYTES;
+	}
+
+	/**
+	 * Returns the number of bytes an element takes in the stream, including its
+	 * length if one is written
+	 */
+	private int elementBytes(int length)
+	{
+		return codec == GENERIC ? Integer.BYTES + length : length;
+	}
+
+	private void putElement(T element, int length, ByteBuffer buffer)
+	{
+		switch (codec)
+		{
+		case INTEGERS:
+			buffer.putInt((Integer) element);
+			return;
+		case LONGS:
+			buffer.putLong((Long) element);
+			return;
+		default:
+			buffer.putInt(length);
+			int start = buffer.position();
+			serializer.write(element, buffer);
+			if (buffer.position() != start + length)
+			{
+				throw new IllegalStateException("Serializer wrote a different number of bytes than sizeOf() reported");
+			}
+		}
+	}
+
+	/**
+	 * Reads one element whose length has already been read
+	 */
+	private T getElement(int length, ByteBuffer buffer)
+	{
+		int limit = buffer.limit();
+		int end = buffer.position() + length;
+		buffer.limit(end);
+		try
+		{
+			return serializer.read(buffer);
+		} finally
+		{
+			buffer.limit(limit);
+			buffer.position(end);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private T getFixedLengthElement(ByteBuffer buffer)
+	{
+		if (codec == INTEGERS)
+		{
+			return (T) Integer.valueOf(buffer.getInt());
+		}
+		return (T) Long.valueOf(buffer.getLong());
+	}
+
+	/**
+	 * Makes sure the buffer has room for the given number of bytes, writing its
+	 * contents to the channel and growing it if needed
+	 */
+	private static ByteBuffer ensureRoom(ByteBuffer buffer, int bytes, WritableByteChannel channel)
+			throws IOException
+	{
+		if (buffer.remaining() >= bytes)
+		{
+			return buffer;
+		}
+		if (channel == null)
+		{
+			throw new BufferOverflowException();
+		}
+
+		drain(buffer, channel);
+		return buffer.capacity() >= bytes ? buffer : ByteBuffer.allocate(bytes);
+	}
+
+	private static void drain(ByteBuffer buffer, WritableByteChannel channel) throws IOException
+	{
+		buffer.flip();
+		while (buffer.hasRemaining())
+		{
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Makes sure the buffer holds at least the given number of unread bytes,
+	 * reading more from the channel and growing the buffer if needed
+	 */
+	private static ByteBuffer ensureReadable(ByteBuffer buffer, int bytes, ReadableByteChannel channel)
+			throws IOException
+	{
+		if (buffer.remaining() >= bytes)
+		{
+			return buffer;
+		}
+		if (channel == null)
+		{
+			throw new EOFException("Serialized queue ends part way through");
+		}
+
+		if (buffer.capacity() < bytes)
+		{
+			ByteBuffer larger = ByteBuffer.allocate(bytes);
+			larger.put(buffer);
+			buffer = larger;
+		} else
+		{
+			buffer.compact();
+		}
+		while (buffer.position() < bytes)
+		{
+			if (channel.read(buffer) < 0)
+			{
+				throw new EOFException("Serialized queue ends part way through");
+			}
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T[] newArray(int length)
+	{
+		return (T[]) new Object[length];
+	}
+}
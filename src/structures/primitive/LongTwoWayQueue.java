@@ -0,0 +1,367 @@
+/**
+ * Michael Horn
+ * Oct 18, 2026
+ * LongTwoWayQueue.java
+ */
+package structures.primitive;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+import exceptions.EmptyQueueException;
+
+/**
+ * A two-way queue of long values backed by a circular long array. It mirrors
+ * the operations of structures.ITwoWayQueue without boxing, so adding, removing
+ * and iterating allocate nothing per element.
+ *
+ * @author Michael Horn
+ * @version 1.0
+ */
+public class LongTwoWayQueue
+{
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	private long[] elements;
+	private int head;
+	private int tail;
+	private int modCount;
+
+	/**
+	 * Creates an empty queue with the default capacity
+	 */
+	public LongTwoWayQueue()
+	{
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates an empty queue that can hold at least the given number of elements
+	 * before resizing
+	 *
+	 * @param initialCapacity
+	 *            the number of elements to make room for
+	 */
+	public LongTwoWayQueue(int initialCapacity)
+	{
+		if (initialCapacity < 0)
+		{
+			throw new IllegalArgumentException("Capacity cannot be negative: " + initialCapacity);
+		}
+		this.elements = new long[capacityFor(initialCapacity)];
+	}
+
+	/**
+	 * Removes and returns the first element in the queue.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueFirst() is called
+	 * @return the first element
+	 */
+	public long dequeueFirst()
+	{
+		modCount++;
+		if (isEmpty())
+		{
+			throw EmptyQueueException.instance();
+		}
+
+		long element = elements[head];
+		head = (head + 1) & (elements.length - 1);
+		return element;
+	}
+
+	/**
+	 * Removes and returns the last element in the queue.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueLast() is called
+	 * @return the last element
+	 */
+	public long dequeueLast()
+	{
+		modCount++;
+		if (isEmpty())
+		{
+			throw EmptyQueueException.instance();
+		}
+
+		tail = (tail - 1) & (elements.length - 1);
+		return elements[tail];
+	}
+
+	/**
+	 * Returns the first element in the queue without removing it.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and peekFirst() is called
+	 * @return the first element
+	 */
+	public long peekFirst()
+	{
+		if (isEmpty())
+		{
+			throw EmptyQueueException.instance();
+		}
+		return elements[head];
+	}
+
+	/**
+	 * Returns the last element in the queue without removing it.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and peekLast() is called
+	 * @return the last element
+	 */
+	public long peekLast()
+	{
+		if (isEmpty())
+		{
+			throw EmptyQueueException.instance();
+		}
+		return elements[(tail - 1) & (elements.length - 1)];
+	}
+
+	/**
+	 * Removes and returns all elements in the queue. The first element in the queue
+	 * is located at the last index of the resulting array and the last element in
+	 * the queue at index zero.
+	 *
+	 * @throws exceptions.EmptyQueueException
+	 *             if the queue is empty and dequeueAll() is called
+	 * @return an array of all elements in the queue
+	 */
+	public long[] dequeueAll()
+	{
+		modCount++;
+		if (isEmpty())
+		{
+			throw EmptyQueueException.instance();
+		}
+
+		int mask = elements.length - 1;
+		long[] all = new long[size()];
+		int index = 0;
+		for (int i = (tail - 1) & mask; index < all.length; i = (i - 1) & mask)
+		{
+			all[index++] = elements[i];
+		}
+		clear();
+		return all;
+	}
+
+	/**
+	 * Adds a new element to the front of the queue. The queue continually resizes
+	 * to make room for new elements.
+	 *
+	 * @param element
+	 *            the new element to be added to the front of the queue
+	 */
+	public void enqueueFirst(long element)
+	{
+		modCount++;
+		head = (head - 1) & (elements.length - 1);
+		elements[head] = element;
+		if (head == tail)
+		{
+			doubleCapacity();
+		}
+	}
+
+	/**
+	 * Adds a new element to the end of the queue. The queue continually resizes to
+	 * make room for new elements.
+	 *
+	 * @param element
+	 *            the new element to be added to the end of the queue
+	 */
+	public void enqueueLast(long element)
+	{
+		modCount++;
+		elements[tail] = element;
+		tail = (tail + 1) & (elements.length - 1);
+		if (head == tail)
+		{
+			doubleCapacity();
+		}
+	}
+
+	/**
+	 * Adds a group of elements to the front of the queue, as if enqueueFirst() was
+	 * called for each element in order.
+	 *
+	 * @param elements
+	 *            an array of elements to be added to the beginning of the queue
+	 */
+	public void enqueueAllFirst(long[] elements)
+	{
+		if (elements.length == 0)
+		{
+			return;
+		}
+
+		modCount++;
+		ensureCapacity(size() + elements.length);
+		int mask = this.elements.length - 1;
+		for (long element : elements)
+		{
+			head = (head - 1) & mask;
+			this.elements[head] = element;
+		}
+	}
+
+	/**
+	 * Adds a group of elements to the end of the queue, as if enqueueLast() was
+	 * called for each element in order.
+	 *
+	 * @param elements
+	 *            an array of elements to be added to the end of the queue
+	 */
+	public void enqueueAllLast(long[] elements)
+	{
+		if (elements.length == 0)
+		{
+			return;
+		}
+
+		modCount++;
+		ensureCapacity(size() + elements.length);
+		int toEnd = Math.min(elements.length, this.elements.length - tail);
+		System.arraycopy(elements, 0, this.elements, tail, toEnd);
+		System.arraycopy(elements, toEnd, this.elements, 0, elements.length - toEnd);
+		tail = (tail + elements.length) & (this.elements.length - 1);
+	}
+
+	/**
+	 * Returns the number of elements in the queue.
+	 *
+	 * @return the number of elements in the queue
+	 */
+	public int size()
+	{
+		return (tail - head) & (elements.length - 1);
+	}
+
+	/**
+	 * Reports whether the queue is empty or not.
+	 *
+	 * @return true if no elements are in the queue, otherwise returns false
+	 */
+	public boolean isEmpty()
+	{
+		return head == tail;
+	}
+
+	/**
+	 * Removes all elements from the queue. The backing array keeps its capacity.
+	 */
+	public void clear()
+	{
+		modCount++;
+		head = 0;
+		tail = 0;
+	}
+
+	/**
+	 * Returns an iterator over the elements of the queue, from the last element to
+	 * the first, in the same order as ITwoWayQueue iterators. The iterator fails
+	 * fast if the queue is changed while it is in use. Use nextLong() to read
+	 * elements without boxing.
+	 *
+	 * @return a primitive iterator over the queue
+	 */
+	public PrimitiveIterator.OfLong iterator()
+	{
+		return new LongTwoWayQueueIterator();
+	}
+
+	private static int capacityFor(int requested)
+	{
+		if (requested >= MAX_CAPACITY)
+		{
+			return MAX_CAPACITY;
+		}
+		return Integer.highestOneBit(Math.max(requested, 1)) << 1;
+	}
+
+	private void doubleCapacity()
+	{
+		int length = elements.length;
+		if (length == MAX_CAPACITY)
+		{
+			throw new IllegalStateException("Queue cannot grow past " + MAX_CAPACITY + " elements");
+		}
+
+		int rightOfHead = length - head;
+		long[] resized = new long[length << 1];
+		System.arraycopy(elements, head, resized, 0, rightOfHead);
+		System.arraycopy(elements, 0, resized, rightOfHead, head);
+		elements = resized;
+		head = 0;
+		tail = length;
+	}
+
+	private void ensureCapacity(int required)
+	{
+		if (required < 0 || required >= MAX_CAPACITY)
+		{
+			throw new IllegalStateException("Queue cannot grow past " + MAX_CAPACITY + " elements");
+		}
+		if (required < elements.length)
+		{
+			return;
+		}
+
+		int size = size();
+		long[] resized = new long[capacityFor(required)];
+		int rightOfHead = Math.min(size, elements.length - head);
+		System.arraycopy(elements, head, resized, 0, rightOfHead);
+		System.arraycopy(elements, 0, resized, rightOfHead, size - rightOfHead);
+		elements = resized;
+		head = 0;
+		tail = size;
+	}
+
+	private class LongTwoWayQueueIterator implements PrimitiveIterator.OfLong
+	{
+		int cursor;
+		int remaining;
+		int savedModCount;
+
+		public LongTwoWayQueueIterator()
+		{
+			this.cursor = tail;
+			this.remaining = size();
+			this.savedModCount = modCount;
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			if (savedModCount != LongTwoWayQueue.this.modCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+			return remaining > 0;
+		}
+
+		@Override
+		public long nextLong()
+		{
+			if (savedModCount != LongTwoWayQueue.this.modCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+			if (remaining == 0)
+			{
+				throw new NoSuchElementException();
+			}
+
+			cursor = (cursor - 1) & (elements.length - 1);
+			remaining--;
+			return elements[cursor];
+		}
+	}
+}
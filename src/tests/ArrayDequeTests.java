@@ -0,0 +1,17 @@
+package tests;
+
+import structures.ArrayTwoWayQueue;
+import structures.ITwoWayQueue;
+
+/**
+ * Runs the deque tests against the array-backed queue.
+ */
+public class ArrayDequeTests extends DequeTests
+{
+	@Override
+	protected ITwoWayQueue<Integer> createQueue()
+	{
+		// start small so the tests exercise wrapping and resizing
+		return new ArrayTwoWayQueue<>(2);
+	}
+}
@@ -0,0 +1,173 @@
+package tests;
+
+import org.junit.Test;
+import structures.ArrayTwoWayQueue;
+import structures.concurrent.BlockingTwoWayQueue;
+import exceptions.EmptyQueueException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class BlockingDequeTests extends TestFacade
+{
+	@Test
+	public void testNonBlockingOperations()
+	{
+		BlockingTwoWayQueue<Integer> queue = new BlockingTwoWayQueue<>(3);
+		queue.enqueueFirst(2);
+		queue.enqueueFirst(3);
+		queue.enqueueLast(1);
+		equals("remainingCapacity() is incorrect for a full queue", 0, queue.remainingCapacity());
+
+		// enqueuing on a full queue fails straight away
+		try
+		{
+			queue.enqueueLast(4);
+			fail("No exception thrown after invoking enqueueLast() on a full queue");
+		} catch (IllegalStateException ex)
+		{
+			// do nothing...
+		}
+
+		int expected = 1;
+		for (int element : queue)
+		{
+			equals("Unexpected element found using an iterator", expected++, element);
+		}
+
+		equals("Elements are not returned in FIFO order", 3, queue.dequeueFirst());
+		equals("Elements are not returned in FIFO order", 1, queue.dequeueLast());
+		equals("Elements are not returned in FIFO order", 2, queue.dequeueLast());
+
+		try
+		{
+			queue.dequeueFirst();
+			fail("No exception thrown after invoking dequeueFirst() on an empty queue");
+		} catch (EmptyQueueException ex)
+		{
+			// do nothing...
+		}
+
+		equals("pollFirst() should return null for an empty queue", null, queue.pollFirst());
+		queue.enqueueLast(5);
+		equals("pollLast() returned the wrong element", 5, queue.pollLast());
+		equals("pollLast() should return null for an empty queue", null, queue.pollLast());
+	}
+
+	@Test
+	public void testLargeCapacity()
+	{
+		// the backing array grows with the contents, so the largest bound allocates
+		// no more than a small queue
+		BlockingTwoWayQueue<Integer> queue = new BlockingTwoWayQueue<>(ArrayTwoWayQueue.MAX_SIZE);
+		for (int i = 0; i < 100; i++)
+		{
+			queue.enqueueLast(i);
+		}
+		equals("size() is incorrect for a large-bound queue", 100, queue.size());
+		equals("remainingCapacity() is incorrect for a large-bound queue", ArrayTwoWayQueue.MAX_SIZE - 100, queue.remainingCapacity());
+		equals("Elements are not returned in FIFO order", 0, queue.dequeueFirst());
+
+		try
+		{
+			new BlockingTwoWayQueue<Integer>(ArrayTwoWayQueue.MAX_SIZE + 1);
+			fail("No exception thrown for a capacity the backing array cannot reach");
+		} catch (IllegalArgumentException ex)
+		{
+			// do nothing...
+		}
+
+		try
+		{
+			new BlockingTwoWayQueue<Integer>(Integer.MAX_VALUE);
+			fail("No exception thrown for a capacity the backing array cannot reach");
+		} catch (IllegalArgumentException ex)
+		{
+			// do nothing...
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void testTimedOperationsTimeOut() throws InterruptedException
+	{
+		BlockingTwoWayQueue<Integer> queue = new BlockingTwoWayQueue<>(1);
+
+		equals("pollFirst() should return null after timing out", null, queue.pollFirst(10, TimeUnit.MILLISECONDS));
+		equals("pollLast() should return null after timing out", null, queue.pollLast(10, TimeUnit.MILLISECONDS));
+
+		isTrue("offerLast() should succeed with room in the queue", queue.offerLast(1, 10, TimeUnit.MILLISECONDS));
+		isFalse("offerFirst() should time out on a full queue", queue.offerFirst(2, 10, TimeUnit.MILLISECONDS));
+		equals("size() is incorrect after a timed out offer", 1, queue.size());
+	}
+
+	@Test(timeout = 10000)
+	public void testTakeWaitsForElement() throws InterruptedException
+	{
+		final BlockingTwoWayQueue<Integer> queue = new BlockingTwoWayQueue<>(1);
+		final AtomicReference<Integer> taken = new AtomicReference<>();
+
+		Thread consumer = new Thread(() -> {
+			try
+			{
+				taken.set(queue.takeLast());
+			} catch (InterruptedException ex)
+			{
+				Thread.currentThread().interrupt();
+			}
+		});
+		consumer.start();
+
+		queue.putFirst(7);
+		consumer.join();
+		equals("takeLast() returned the wrong element", 7, taken.get());
+	}
+
+	@Test(timeout = 30000)
+	public void testProducerConsumerBackpressure() throws InterruptedException
+	{
+		final int NUM_ELEMENTS = 100_000;
+		final BlockingTwoWayQueue<Integer> queue = new BlockingTwoWayQueue<>(16);
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+		Thread producer = new Thread(() -> {
+			try
+			{
+				for (int i = 0; i < NUM_ELEMENTS; i++)
+				{
+					queue.putLast(i);
+				}
+			} catch (InterruptedException ex)
+			{
+				Thread.currentThread().interrupt();
+			}
+		});
+		Thread consumer = new Thread(() -> {
+			try
+			{
+				for (int i = 0; i < NUM_ELEMENTS; i++)
+				{
+					int element = queue.takeFirst();
+					if (element != i)
+					{
+						throw new AssertionError("Expected " + i + " but was " + element);
+					}
+				}
+			} catch (InterruptedException ex)
+			{
+				Thread.currentThread().interrupt();
+			}
+		});
+		producer.setUncaughtExceptionHandler((t, ex) -> failure.compareAndSet(null, ex));
+		consumer.setUncaughtExceptionHandler((t, ex) -> failure.compareAndSet(null, ex));
+		producer.start();
+		consumer.start();
+		producer.join();
+		consumer.join();
+
+		if (failure.get() != null)
+		{
+			throw new AssertionError(failure.get());
+		}
+		isTrue("Queue should be empty after every element was consumed", queue.isEmpty());
+	}
+}
@@ -0,0 +1,57 @@
+package tests;
+
+import org.junit.Test;
+import structures.ITwoWayQueue;
+import structures.concurrent.ConcurrentTwoWayQueue;
+
+/**
+ * Runs the deque tests against the lock-free queue. Its iterator is weakly
+ * consistent, so the iterator test checks that instead of fail-fast behavior.
+ */
+public class ConcurrentDequeTests extends DequeTests
+{
+	private ITwoWayQueue<Integer> queue;
+
+	@Override
+	protected ITwoWayQueue<Integer> createQueue()
+	{
+		queue = new ConcurrentTwoWayQueue<>();
+		return queue;
+	}
+
+	@Override
+	@Test
+	public void testIterator()
+	{
+		// iterator should still work with zero elements
+		for (int element : queue)
+		{
+			fail("Iterator returns an element from an empty queue");
+		}
+
+		final int NUM_ELEMENTS = 5;
+		for (int i = 1; i <= NUM_ELEMENTS; i++)
+		{
+			queue.enqueueFirst(i);
+		}
+
+		int count = 1;
+		for (int element : queue)
+		{
+			equals("Unexpected element found using an iterator after adding elements", count, element);
+			count++;
+		}
+
+		// changing the queue while iterating is allowed
+		count = 0;
+		for (int element : queue)
+		{
+			if (count == 0)
+			{
+				queue.dequeueLast();
+			}
+			count++;
+		}
+		isTrue("Iterator should keep going after a concurrent change", count >= NUM_ELEMENTS - 1);
+	}
+}
@@ -0,0 +1,168 @@
+package tests;
+
+import org.junit.Test;
+import structures.ITwoWayQueue;
+import structures.concurrent.ConcurrentTwoWayQueue;
+import exceptions.EmptyQueueException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hammers a thread-safe queue from many threads at once and checks that no
+ * element is lost or returned twice.
+ */
+public class ConcurrentStressTests extends TestFacade
+{
+	private static final int PRODUCERS = 4;
+	private static final int CONSUMERS = 4;
+	private static final int PER_PRODUCER = 50_000;
+
+	/**
+	 * Creates the queue under test. Subclasses override this to stress other
+	 * thread-safe ITwoWayQueue implementations.
+	 *
+	 * @return a new, empty queue
+	 */
+	protected ITwoWayQueue<Integer> createQueue()
+	{
+		return new ConcurrentTwoWayQueue<>();
+	}
+
+	@Test(timeout = 60000)
+	public void testBothEndsManyThreads() throws InterruptedException
+	{
+		final ITwoWayQueue<Integer> queue = createQueue();
+		final int total = PRODUCERS * PER_PRODUCER;
+		final AtomicIntegerArray seen = new AtomicIntegerArray(total);
+		final AtomicInteger consumed = new AtomicInteger();
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+		final CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+
+		for (int p = 0; p < PRODUCERS; p++)
+		{
+			final int base = p * PER_PRODUCER;
+			threads.add(new Thread(() -> {
+				await(start);
+				for (int i = 0; i < PER_PRODUCER; i++)
+				{
+					if ((i & 1) == 0)
+					{
+						queue.enqueueFirst(base + i);
+					} else
+					{
+						queue.enqueueLast(base + i);
+					}
+				}
+			}));
+		}
+		for (int c = 0; c < CONSUMERS; c++)
+		{
+			threads.add(new Thread(() -> {
+				await(start);
+				while (consumed.get() < total && failure.get() == null)
+				{
+					try
+					{
+						int element = ThreadLocalRandom.current().nextBoolean() ? queue.dequeueFirst()
+								: queue.dequeueLast();
+						if (seen.getAndIncrement(element) != 0)
+						{
+							failure.compareAndSet(null, new AssertionError("Element returned twice: " + element));
+						}
+						consumed.incrementAndGet();
+					} catch (EmptyQueueException ex)
+					{
+						Thread.yield();
+					}
+				}
+			}));
+		}
+
+		runAll(threads, start, failure);
+
+		equals("Number of elements consumed is incorrect", total, consumed.get());
+		for (int i = 0; i < total; i++)
+		{
+			equals("Element was lost: " + i, 1, seen.get(i));
+		}
+		isTrue("Queue should be empty after every element was consumed", queue.isEmpty());
+		equals("size() is incorrect after every element was consumed", 0, queue.size());
+	}
+
+	@Test(timeout = 60000)
+	public void testSingleProducerOrder() throws InterruptedException
+	{
+		final ITwoWayQueue<Integer> queue = createQueue();
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+		final CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+
+		threads.add(new Thread(() -> {
+			await(start);
+			for (int i = 0; i < PER_PRODUCER; i++)
+			{
+				queue.enqueueLast(i);
+			}
+		}));
+		threads.add(new Thread(() -> {
+			await(start);
+			int expected = 0;
+			while (expected < PER_PRODUCER)
+			{
+				try
+				{
+					int element = queue.dequeueFirst();
+					if (element != expected)
+					{
+						throw new AssertionError("Expected " + expected + " but was " + element);
+					}
+					expected++;
+				} catch (EmptyQueueException ex)
+				{
+					Thread.yield();
+				}
+			}
+		}));
+
+		runAll(threads, start, failure);
+		isTrue("Queue should be empty after every element was consumed", queue.isEmpty());
+	}
+
+	private void runAll(List<Thread> threads, CountDownLatch start, AtomicReference<Throwable> failure)
+			throws InterruptedException
+	{
+		for (Thread thread : threads)
+		{
+			thread.setUncaughtExceptionHandler((t, ex) -> failure.compareAndSet(null, ex));
+			thread.start();
+		}
+		start.countDown();
+		for (Thread thread : threads)
+		{
+			thread.join();
+		}
+
+		if (failure.get() != null)
+		{
+			throw new AssertionError(failure.get());
+		}
+	}
+
+	private static void await(CountDownLatch latch)
+	{
+		try
+		{
+			latch.await();
+		} catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+}
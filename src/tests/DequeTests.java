@@ -2,12 +2,21 @@ package tests;
 
 import org.junit.Before;
 import org.junit.Test;
+import structures.IExtendedTwoWayQueue;
+import structures.IStreamableTwoWayQueue;
 import structures.ITwoWayQueue;
 import structures.TwoWayQueue;
 import exceptions.EmptyQueueException;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 public class DequeTests extends TestFacade
 {
@@ -16,7 +25,18 @@ public class DequeTests extends TestFacade
 	@Before
 	public void setup()
 	{
-		queue = new TwoWayQueue<>();
+		queue = createQueue();
+	}
+
+	/**
+	 * Creates the queue under test. Subclasses override this to run the same
+	 * tests against other ITwoWayQueue implementations.
+	 *
+	 * @return a new, empty queue
+	 */
+	protected ITwoWayQueue<Integer> createQueue()
+	{
+		return new TwoWayQueue<>();
 	}
 
 	@Test
@@ -314,6 +334,24 @@ public class DequeTests extends TestFacade
 		equals("Unexpected size() after removing elements", 0, queue.size());
 	}
 
+	@Test
+	public void testNullElements()
+	{
+		// null is a legitimate element and must not be mistaken for an empty queue
+		queue.enqueueFirst(null);
+		testSize(1);
+		isFalse("isEmpty() should return false for a queue holding null", queue.isEmpty());
+
+		queue.enqueueFirst(1);
+		queue.enqueueLast(null);
+		testSize(3);
+
+		equals("Elements are not returned in FIFO order", null, queue.dequeueLast());
+		equals("Elements are not returned in FIFO order", null, queue.dequeueLast());
+		equals("Elements are not returned in FIFO order", 1, queue.dequeueLast());
+		isTrue("Queue should be empty after removing every element", queue.isEmpty());
+	}
+
 	@Test
 	public void testIterator()
 	{
@@ -358,6 +396,543 @@ public class DequeTests extends TestFacade
 		}
 	}
 
+	@Test
+	public void testPoll()
+	{
+		if (!(queue instanceof IExtendedTwoWayQueue))
+		{
+			return;
+		}
+		IExtendedTwoWayQueue<Integer> extended = (IExtendedTwoWayQueue<Integer>) queue;
+
+		equals("pollFirst() should return null for an empty queue", null, extended.pollFirst());
+		equals("pollLast() should return null for an empty queue", null, extended.pollLast());
+
+		extended.enqueueAllLast(new Integer[] { 1, 2, 3 });
+		equals("pollFirst() returned the wrong element", 1, extended.pollFirst());
+		equals("pollLast() returned the wrong element", 3, extended.pollLast());
+		equals("pollLast() returned the wrong element", 2, extended.pollLast());
+		isTrue("Queue should be empty after polling every element", extended.isEmpty());
+		equals("pollFirst() should return null for an empty queue", null, extended.pollFirst());
+	}
+
+	@Test
+	public void testPeekAndGet()
+	{
+		if (!(queue instanceof IExtendedTwoWayQueue))
+		{
+			return;
+		}
+		IExtendedTwoWayQueue<Integer> extended = (IExtendedTwoWayQueue<Integer>) queue;
+
+		try
+		{
+			extended.peekFirst();
+			fail("No exception thrown after invoking peekFirst() on an empty queue");
+		} catch (EmptyQueueException ex)
+		{
+			// do nothing...
+		}
+		try
+		{
+			extended.peekLast();
+			fail("No exception thrown after invoking peekLast() on an empty queue");
+		} catch (EmptyQueueException ex)
+		{
+			// do nothing...
+		}
+
+		// build 0..NUM_ELEMENTS - 1 from the front, adding at both ends
+		final int NUM_ELEMENTS = 25;
+		for (int i = NUM_ELEMENTS / 2; i < NUM_ELEMENTS; i++)
+		{
+			extended.enqueueLast(i);
+		}
+		for (int i = NUM_ELEMENTS / 2 - 1; i >= 0; i--)
+		{
+			extended.enqueueFirst(i);
+		}
+
+		equals("peekFirst() returned the wrong element", 0, extended.peekFirst());
+		equals("peekLast() returned the wrong element", NUM_ELEMENTS - 1, extended.peekLast());
+		for (int i = 0; i < NUM_ELEMENTS; i++)
+		{
+			equals("get() returned the wrong element", i, extended.get(i));
+		}
+		equals("Peeking should not remove elements", NUM_ELEMENTS, extended.size());
+
+		// peeking does not count as a modification
+		for (int element : extended)
+		{
+			extended.peekFirst();
+			extended.get(element);
+		}
+
+		try
+		{
+			extended.get(NUM_ELEMENTS);
+			fail("No exception thrown after invoking get() with an index past the end");
+		} catch (IndexOutOfBoundsException ex)
+		{
+			// do nothing...
+		}
+		try
+		{
+			extended.get(-1);
+			fail("No exception thrown after invoking get() with a negative index");
+		} catch (IndexOutOfBoundsException ex)
+		{
+			// do nothing...
+		}
+	}
+
+	@Test
+	public void testEnqueueAllRange()
+	{
+		if (!(queue instanceof IExtendedTwoWayQueue))
+		{
+			return;
+		}
+		IExtendedTwoWayQueue<Integer> extended = (IExtendedTwoWayQueue<Integer>) queue;
+		Integer[] elements = { 1, 2, 3, 4, 5, 6 };
+
+		// a range in the middle, and ranges running to each end of the array
+		extended.enqueueAllLast(elements, 1, 3);
+		checkContents("enqueueAllLast() added the range in the wrong order", new Integer[] { 2, 3, 4 }, extended);
+		extended.enqueueAllFirst(elements, 3, 3);
+		checkContents("enqueueAllFirst() added the range in the wrong order", new Integer[] { 6, 5, 4, 2, 3, 4 },
+				extended);
+		extended.enqueueAllFirst(elements, 0, 1);
+		extended.enqueueAllLast(elements, 5, 1);
+		checkContents("Ranges at the ends of the array were added incorrectly",
+				new Integer[] { 1, 6, 5, 4, 2, 3, 4, 6 }, extended);
+
+		// empty ranges, including one starting just past the end of the array
+		extended.enqueueAllFirst(elements, 6, 0);
+		extended.enqueueAllLast(elements, 0, 0);
+		extended.enqueueAllFirst(new Integer[0], 0, 0);
+		equals("Adding an empty range should not change the queue", 8, extended.size());
+
+		int[][] badRanges = { { -1, 1 }, { 0, 7 }, { 6, 1 }, { 2, -1 }, { 1, Integer.MAX_VALUE } };
+		for (int[] range : badRanges)
+		{
+			try
+			{
+				extended.enqueueAllFirst(elements, range[0], range[1]);
+				fail("No exception thrown after invoking enqueueAllFirst() with offset " + range[0] + " and length "
+						+ range[1]);
+			} catch (IndexOutOfBoundsException ex)
+			{
+				// do nothing...
+			}
+			try
+			{
+				extended.enqueueAllLast(elements, range[0], range[1]);
+				fail("No exception thrown after invoking enqueueAllLast() with offset " + range[0] + " and length "
+						+ range[1]);
+			} catch (IndexOutOfBoundsException ex)
+			{
+				// do nothing...
+			}
+		}
+		equals("A rejected range should not change the queue", 8, extended.size());
+
+		// enough elements to make the queue grow in both directions
+		extended.clear();
+		Integer[] many = new Integer[100];
+		for (int i = 0; i < many.length; i++)
+		{
+			many[i] = i;
+		}
+		extended.enqueueAllLast(many, 50, 50);
+		extended.enqueueAllFirst(many, 0, 50);
+		for (int i = 0; i < 50; i++)
+		{
+			equals("enqueueAllFirst() added the range in the wrong order", 49 - i, extended.get(i));
+			equals("enqueueAllLast() added the range in the wrong order", 50 + i, extended.get(50 + i));
+		}
+
+		checkInvalidatesIterator(extended, () -> extended.enqueueAllFirst(elements, 1, 2),
+				"enqueueAllFirst()");
+		checkInvalidatesIterator(extended, () -> extended.enqueueAllLast(elements, 1, 2), "enqueueAllLast()");
+	}
+
+	@Test
+	public void testEnqueueAllCollection()
+	{
+		if (!(queue instanceof IExtendedTwoWayQueue))
+		{
+			return;
+		}
+		IExtendedTwoWayQueue<Integer> extended = (IExtendedTwoWayQueue<Integer>) queue;
+
+		extended.enqueueAllLast(Arrays.asList(3, 4, 5));
+		extended.enqueueAllFirst(Arrays.asList(2, 1));
+		checkContents("Collections were added in the wrong order", new Integer[] { 1, 2, 3, 4, 5 }, extended);
+
+		extended.enqueueAllFirst(Collections.<Integer> emptyList());
+		extended.enqueueAllLast(new ArrayList<>());
+		equals("Adding an empty collection should not change the queue", 5, extended.size());
+
+		extended.enqueueAllLast(Arrays.asList(6, null, 8));
+		equals("Null elements of a collection were not added", null, extended.get(6));
+
+		// enough elements to make the queue grow in both directions
+		extended.clear();
+		List<Integer> first = new ArrayList<>();
+		List<Integer> last = new ArrayList<>();
+		for (int i = 0; i < 50; i++)
+		{
+			first.add(i);
+			last.add(50 + i);
+		}
+		extended.enqueueAllLast(last);
+		extended.enqueueAllFirst(first);
+		for (int i = 0; i < 50; i++)
+		{
+			equals("enqueueAllFirst() added the collection in the wrong order", 49 - i, extended.get(i));
+			equals("enqueueAllLast() added the collection in the wrong order", 50 + i, extended.get(50 + i));
+		}
+
+		checkInvalidatesIterator(extended, () -> extended.enqueueAllFirst(Arrays.asList(1, 2)),
+				"enqueueAllFirst()");
+		checkInvalidatesIterator(extended, () -> extended.enqueueAllLast(Arrays.asList(1, 2)),
+				"enqueueAllLast()");
+	}
+
+	@Test
+	public void testDrainToCollection()
+	{
+		if (!(queue instanceof IExtendedTwoWayQueue))
+		{
+			return;
+		}
+		IExtendedTwoWayQueue<Integer> extended = (IExtendedTwoWayQueue<Integer>) queue;
+
+		List<Integer> sink = new ArrayList<>();
+		equals("drainTo() should move nothing from an empty queue", 0, extended.drainTo(sink));
+		isTrue("drainTo() should not add to the collection from an empty queue", sink.isEmpty());
+
+		fillFromBothEnds(extended, 10);
+		sink.add(-1);
+		equals("drainTo() returned the wrong count", 10, extended.drainTo(sink));
+		isTrue("Queue should be empty after drainTo()", extended.isEmpty());
+		equals("drainTo() should add after the collection's existing elements", 11, sink.size());
+		for (int i = 0; i < 10; i++)
+		{
+			equals("drainTo() moved the elements in the wrong order", i, sink.get(i + 1));
+		}
+
+		checkDrainInvalidatesIterator(extended, () -> extended.drainTo(new ArrayList<>()), "drainTo()");
+	}
+
+	@Test
+	public void testDrainToArray()
+	{
+		if (!(queue instanceof IExtendedTwoWayQueue))
+		{
+			return;
+		}
+		IExtendedTwoWayQueue<Integer> extended = (IExtendedTwoWayQueue<Integer>) queue;
+
+		Integer[] dest = new Integer[8];
+		equals("drainTo() should move nothing from an empty queue", 0, extended.drainTo(dest, 0));
+
+		// elements added at both ends wrap around the end of a circular array
+		fillFromBothEnds(extended, 10);
+		equals("drainTo() should stop when the array is full", 5, extended.drainTo(dest, 3));
+		for (int i = 0; i < 5; i++)
+		{
+			equals("drainTo() moved the elements in the wrong order", i, dest[i + 3]);
+		}
+		equals("drainTo() should not write before the offset", null, dest[2]);
+		equals("drainTo() removed the wrong number of elements", 5, extended.size());
+		equals("drainTo() should leave the rest of the queue in place", 5, extended.peekFirst());
+
+		equals("drainTo() should move nothing into a full array", 0, extended.drainTo(dest, dest.length));
+		dest = new Integer[20];
+		equals("drainTo() should stop when the queue is empty", 5, extended.drainTo(dest, 0));
+		for (int i = 0; i < 5; i++)
+		{
+			equals("drainTo() moved the elements in the wrong order", 5 + i, dest[i]);
+		}
+		isTrue("Queue should be empty after drainTo()", extended.isEmpty());
+
+		try
+		{
+			extended.drainTo(dest, -1);
+			fail("No exception thrown after invoking drainTo() with a negative offset");
+		} catch (IndexOutOfBoundsException ex)
+		{
+			// do nothing...
+		}
+		try
+		{
+			extended.drainTo(dest, dest.length + 1);
+			fail("No exception thrown after invoking drainTo() with an offset past the end of the array");
+		} catch (IndexOutOfBoundsException ex)
+		{
+			// do nothing...
+		}
+
+		Integer[] target = new Integer[1];
+		checkDrainInvalidatesIterator(extended, () -> extended.drainTo(target, 0), "drainTo()");
+	}
+
+	@Test
+	public void testDrainFirstAndLast()
+	{
+		if (!(queue instanceof IExtendedTwoWayQueue))
+		{
+			return;
+		}
+		IExtendedTwoWayQueue<Integer> extended = (IExtendedTwoWayQueue<Integer>) queue;
+
+		List<Integer> sink = new ArrayList<>();
+		equals("drainFirst() should move nothing from an empty queue", 0, extended.drainFirst(5, sink::add));
+		equals("drainLast() should move nothing from an empty queue", 0, extended.drainLast(5, sink::add));
+		isTrue("Nothing should be drained from an empty queue", sink.isEmpty());
+
+		fillFromBothEnds(extended, 10);
+		equals("drainFirst() with zero elements should move nothing", 0, extended.drainFirst(0, sink::add));
+		equals("drainFirst() returned the wrong count", 3, extended.drainFirst(3, sink::add));
+		equals("drainLast() returned the wrong count", 3, extended.drainLast(3, sink::add));
+		arrayEquals("Elements were drained in the wrong order", new Object[] { 0, 1, 2, 9, 8, 7 }, sink.toArray());
+		checkContents("Draining should leave the middle of the queue in place", new Integer[] { 3, 4, 5, 6 },
+				extended);
+
+		sink.clear();
+		equals("drainLast() should stop when the queue is empty", 4, extended.drainLast(100, sink::add));
+		arrayEquals("drainLast() moved the elements in the wrong order", new Object[] { 6, 5, 4, 3 },
+				sink.toArray());
+		isTrue("Queue should be empty after draining every element", extended.isEmpty());
+
+		fillFromBothEnds(extended, 4);
+		sink.clear();
+		equals("drainFirst() should stop when the queue is empty", 4, extended.drainFirst(Integer.MAX_VALUE, sink::add));
+		arrayEquals("drainFirst() moved the elements in the wrong order", new Object[] { 0, 1, 2, 3 },
+				sink.toArray());
+
+		try
+		{
+			extended.drainFirst(-1, sink::add);
+			fail("No exception thrown after invoking drainFirst() with a negative count");
+		} catch (IllegalArgumentException ex)
+		{
+			// do nothing...
+		}
+		try
+		{
+			extended.drainLast(-1, sink::add);
+			fail("No exception thrown after invoking drainLast() with a negative count");
+		} catch (IllegalArgumentException ex)
+		{
+			// do nothing...
+		}
+
+		checkDrainInvalidatesIterator(extended, () -> extended.drainFirst(1, sink::add), "drainFirst()");
+		checkDrainInvalidatesIterator(extended, () -> extended.drainLast(1, sink::add), "drainLast()");
+	}
+
+	/**
+	 * Fills the queue with 0 to count - 1 from the front, adding half of them at
+	 * each end
+	 */
+	private void fillFromBothEnds(ITwoWayQueue<Integer> queue, int count)
+	{
+		for (int i = count / 2; i < count; i++)
+		{
+			queue.enqueueLast(i);
+		}
+		for (int i = count / 2 - 1; i >= 0; i--)
+		{
+			queue.enqueueFirst(i);
+		}
+	}
+
+	private void checkDrainInvalidatesIterator(ITwoWayQueue<Integer> queue, Runnable drain, String methodName)
+	{
+		fillFromBothEnds(queue, 4);
+		checkInvalidatesIterator(queue, drain, methodName);
+	}
+
+	/**
+	 * Checks the queue holds exactly the expected elements, from first to last
+	 */
+	private void checkContents(String message, Integer[] expected, IExtendedTwoWayQueue<Integer> extended)
+	{
+		equals(message, expected.length, extended.size());
+		for (int i = 0; i < expected.length; i++)
+		{
+			equals(message, expected[i], extended.get(i));
+		}
+	}
+
+	private void checkInvalidatesIterator(ITwoWayQueue<Integer> queue, Runnable change, String methodName)
+	{
+		try
+		{
+			Iterator<Integer> iterator = queue.iterator();
+			iterator.next();
+			change.run();
+			iterator.next();
+			fail("Concurrent modification allowed with " + methodName);
+		} catch (ConcurrentModificationException ex)
+		{
+			// do nothing...
+		}
+	}
+
+	@Test
+	public void testDescendingIterator()
+	{
+		if (!(queue instanceof IExtendedTwoWayQueue))
+		{
+			return;
+		}
+		IExtendedTwoWayQueue<Integer> extended = (IExtendedTwoWayQueue<Integer>) queue;
+
+		final int NUM_ELEMENTS = 5;
+		for (int i = 1; i <= NUM_ELEMENTS; i++)
+		{
+			extended.enqueueLast(i);
+		}
+
+		// the descending iterator runs from the first element to the last
+		Iterator<Integer> iterator = extended.descendingIterator();
+		for (int i = 1; i <= NUM_ELEMENTS; i++)
+		{
+			equals("Unexpected element found using a descending iterator", i, iterator.next());
+		}
+		isFalse("Descending iterator should be finished", iterator.hasNext());
+
+		try
+		{
+			iterator = extended.descendingIterator();
+			iterator.next();
+			extended.enqueueLast(0);
+			iterator.next();
+			fail("Concurrent modification allowed with descending iterator");
+		} catch (ConcurrentModificationException ex)
+		{
+			// do nothing...
+		}
+	}
+
+	@Test
+	public void testListIterator()
+	{
+		if (!(queue instanceof TwoWayQueue))
+		{
+			return;
+		}
+		TwoWayQueue<Integer> linked = (TwoWayQueue<Integer>) queue;
+		linked.enqueueAllLast(new Integer[] { 1, 2, 3, 4 });
+
+		// indices count from the front of the queue, as with get(int)
+		for (int i = 0; i < linked.size(); i++)
+		{
+			equals("listIterator(int) disagrees with get(int)", linked.get(i), linked.listIterator(i).next());
+		}
+		equals("Unexpected element found using a list iterator", 4, linked.listIterator(4).previous());
+
+		ListIterator<Integer> cursor = linked.listIterator();
+		equals("Unexpected element found using a list iterator", 1, cursor.next());
+		equals("Unexpected element found using a list iterator", 2, cursor.next());
+		cursor.remove();
+		equals("Unexpected element found using a list iterator", 1, cursor.previous());
+		cursor.set(10);
+		cursor.add(5);
+		equals("Unexpected index found using a list iterator", 1, cursor.nextIndex());
+		equals("Unexpected element found using a list iterator", 10, cursor.next());
+		equals("Unexpected element found using a list iterator", 3, cursor.next());
+		equals("First element is incorrect after changes through a list iterator", 5, linked.peekFirst());
+
+		// removing through the iterators keeps them usable
+		Iterator<Integer> iterator = linked.iterator();
+		iterator.next();
+		iterator.remove();
+		equals("Unexpected element found after removing with an iterator", 3, iterator.next());
+		equals("size() is incorrect after removing with an iterator", 3, linked.size());
+
+		Iterator<Integer> descending = linked.descendingIterator();
+		equals("Unexpected element found using a descending iterator", 5, descending.next());
+		descending.remove();
+		equals("First element is incorrect after removing with a descending iterator", 10, linked.dequeueFirst());
+		equals("Last element is incorrect after removing with iterators", 3, linked.dequeueLast());
+		isTrue("Queue should be empty", linked.isEmpty());
+
+		try
+		{
+			cursor.next();
+			fail("Concurrent modification allowed with list iterator");
+		} catch (ConcurrentModificationException ex)
+		{
+			// do nothing...
+		}
+	}
+
+	@Test
+	public void testSpliterator()
+	{
+		final int NUM_ELEMENTS = 1000;
+		for (int i = 0; i < NUM_ELEMENTS; i++)
+		{
+			queue.enqueueFirst(i);
+		}
+
+		Spliterator<Integer> spliterator = queue.spliterator();
+		isTrue("Spliterator should be ordered", spliterator.hasCharacteristics(Spliterator.ORDERED));
+		if (spliterator.hasCharacteristics(Spliterator.SIZED))
+		{
+			equals("Spliterator size is incorrect", (long) NUM_ELEMENTS, spliterator.estimateSize());
+			Spliterator<Integer> prefix = spliterator.trySplit();
+			equals("Split spliterators should cover every element", (long) NUM_ELEMENTS,
+					prefix.estimateSize() + spliterator.estimateSize());
+
+			List<Integer> elements = new ArrayList<>();
+			prefix.forEachRemaining(elements::add);
+			while (spliterator.tryAdvance(elements::add))
+			{
+				// keep advancing
+			}
+			for (int i = 0; i < NUM_ELEMENTS; i++)
+			{
+				equals("Unexpected element found using a split spliterator", i, elements.get(i));
+			}
+		}
+
+		if (queue instanceof IStreamableTwoWayQueue)
+		{
+			List<Integer> elements = ((IStreamableTwoWayQueue<Integer>) queue).parallelStream()
+					.collect(Collectors.toList());
+			equals("Parallel stream returned the wrong number of elements", NUM_ELEMENTS, elements.size());
+			for (int i = 0; i < NUM_ELEMENTS; i++)
+			{
+				equals("Unexpected element found using a parallel stream", i, elements.get(i));
+			}
+		}
+
+		// verify that changes during traversal are reported, unless the queue allows them
+		spliterator = queue.spliterator();
+		if (!spliterator.hasCharacteristics(Spliterator.CONCURRENT))
+		{
+			try
+			{
+				spliterator.forEachRemaining(element -> {
+					if (element == 0)
+					{
+						queue.dequeueLast();
+					}
+				});
+				fail("Concurrent modification allowed with spliterator");
+			} catch (ConcurrentModificationException ex)
+			{
+				// do nothing...
+			}
+		}
+	}
+
 	private interface SingleArgDelegate<T>
 	{
 		public void execute(T element);
@@ -0,0 +1,159 @@
+package tests;
+
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+import exceptions.EmptyQueueException;
+import structures.ITwoWayQueue;
+import structures.PriorityTwoWayQueue;
+import structures.TwoWayQueue;
+import structures.concurrent.StripedTwoWayQueue;
+import structures.metrics.InstrumentedTwoWayQueue;
+import structures.metrics.QueueMetricsSnapshot;
+import structures.metrics.ResidenceHistogram;
+
+/**
+ * Runs the deque tests against the instrumented queue, and checks the metrics
+ * it records.
+ */
+public class InstrumentedDequeTests extends DequeTests
+{
+	@Override
+	protected ITwoWayQueue<Integer> createQueue()
+	{
+		return new InstrumentedTwoWayQueue<>(new TwoWayQueue<>(), true);
+	}
+
+	@Test
+	public void testMetrics()
+	{
+		InstrumentedTwoWayQueue<Integer> instrumented = new InstrumentedTwoWayQueue<>(new TwoWayQueue<>(), true);
+		instrumented.enqueueFirst(1);
+		instrumented.enqueueAllLast(new Integer[] { 2, 3, 4 });
+		instrumented.dequeueFirst();
+		instrumented.dequeueLast();
+		instrumented.enqueueLast(5);
+		instrumented.dequeueAll();
+		try
+		{
+			instrumented.dequeueLast();
+			fail("EmptyQueueException not thrown");
+		} catch (EmptyQueueException ex)
+		{
+			// do nothing...
+		}
+		instrumented.enqueueAllFirst(new Integer[] { 6, 7 });
+		instrumented.clear();
+
+		QueueMetricsSnapshot snapshot = instrumented.getMetrics().snapshot();
+		equals("enqueueFirst() count is incorrect", 3L, snapshot.getEnqueuedFirst());
+		equals("enqueueLast() count is incorrect", 4L, snapshot.getEnqueuedLast());
+		equals("dequeueFirst() count is incorrect", 4L, snapshot.getDequeuedFirst());
+		equals("dequeueLast() count is incorrect", 1L, snapshot.getDequeuedLast());
+		equals("Cleared count is incorrect", 2L, snapshot.getCleared());
+		equals("Empty dequeue count is incorrect", 1L, snapshot.getEmptyDequeues());
+		equals("Depth is incorrect", 0L, snapshot.getDepth());
+		equals("High-water mark is incorrect", 4L, snapshot.getHighWaterMark());
+		equals("Residence times should be recorded for each dequeued element", 5L,
+				snapshot.getResidence().getCount());
+
+		// the snapshot is a copy
+		instrumented.enqueueLast(8);
+		equals("Snapshot changed after the queue was used", 0L, snapshot.getDepth());
+		equals("Live depth is incorrect", 1L, instrumented.getMetrics().getDepth());
+	}
+
+	@Test
+	public void testResidenceNeedsPositionalQueue()
+	{
+		try
+		{
+			new InstrumentedTwoWayQueue<>(new PriorityTwoWayQueue<Integer>(), true);
+			fail("Residence tracking allowed for a queue that dequeues by priority");
+		} catch (IllegalArgumentException ex)
+		{
+			// do nothing...
+		}
+		try
+		{
+			new InstrumentedTwoWayQueue<>(new StripedTwoWayQueue<Integer>(4), true);
+			fail("Residence tracking allowed for a queue that dequeues from any lane");
+		} catch (IllegalArgumentException ex)
+		{
+			// do nothing...
+		}
+
+		InstrumentedTwoWayQueue<Integer> untracked = new InstrumentedTwoWayQueue<>(new PriorityTwoWayQueue<Integer>());
+		untracked.enqueueLast(1);
+		untracked.enqueueLast(2);
+		equals("Priority order is incorrect through the wrapper", 2, untracked.dequeueFirst());
+		isFalse("Residence times should not be tracked", untracked.isTrackingResidence());
+	}
+
+	@Test
+	public void testIteratorRemove()
+	{
+		InstrumentedTwoWayQueue<Integer> untracked = new InstrumentedTwoWayQueue<>(new TwoWayQueue<>());
+		untracked.enqueueLast(1);
+		untracked.enqueueLast(2);
+
+		// a removal the wrapper does not see would leave the depth wrong
+		Iterator<Integer> iterator = untracked.iterator();
+		iterator.next();
+		try
+		{
+			iterator.remove();
+			fail("remove() allowed through the iterator of an instrumented queue");
+		} catch (UnsupportedOperationException ex)
+		{
+			// do nothing...
+		}
+		equals("size() is incorrect after a rejected remove()", 2, untracked.size());
+		equals("Depth is incorrect after a rejected remove()", 2L, untracked.getMetrics().getDepth());
+	}
+
+	@Test
+	public void testHistogram()
+	{
+		ResidenceHistogram histogram = new ResidenceHistogram();
+		for (long nanos = 1; nanos <= 1000; nanos++)
+		{
+			histogram.record(nanos * 1000);
+		}
+
+		equals("Histogram count is incorrect", 1000L, histogram.getCount());
+		isTrue("Median is too far from the recorded value",
+				Math.abs(histogram.getValueAtPercentile(50) - 500_000) < 500_000 / 32);
+		isTrue("99th percentile is too far from the recorded value",
+				Math.abs(histogram.getValueAtPercentile(99) - 990_000) < 990_000 / 32);
+		isTrue("Max is too far from the recorded value",
+				Math.abs(histogram.getMax() - 1_000_000) < 1_000_000 / 32);
+		isTrue("Mean is too far from the recorded value",
+				Math.abs(histogram.getMean() - 500_500) < 500_500 / 32);
+
+		histogram.record(Long.MAX_VALUE);
+		equals("Largest duration is not recorded exactly", Long.MAX_VALUE, histogram.getMax());
+	}
+
+	@Test
+	public void testMBean() throws Exception
+	{
+		InstrumentedTwoWayQueue<Integer> instrumented = new InstrumentedTwoWayQueue<>(new TwoWayQueue<>(), true);
+		ObjectName name = instrumented.getMetrics().register("tests");
+		try
+		{
+			instrumented.enqueueLast(1);
+			instrumented.enqueueLast(2);
+			equals("Depth is incorrect through JMX", 2L,
+					ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Depth"));
+		} finally
+		{
+			instrumented.getMetrics().unregister();
+		}
+		isFalse("Metrics are still registered", ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+	}
+}
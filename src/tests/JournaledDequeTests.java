@@ -0,0 +1,195 @@
+package tests;
+
+import org.junit.After;
+import org.junit.Test;
+import structures.ITwoWayQueue;
+import structures.TwoWayQueue;
+import structures.persistent.ElementSerializers;
+import structures.persistent.JournaledTwoWayQueue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Runs the deque tests against the journaled queue, and checks that its contents
+ * are rebuilt from the snapshot and journal.
+ */
+public class JournaledDequeTests extends DequeTests
+{
+	// small enough that the tests take several snapshots
+	private static final int SNAPSHOT_INTERVAL = 8;
+
+	private final List<JournaledTwoWayQueue<Integer>> opened = new ArrayList<>();
+	private Path directory;
+
+	@Override
+	protected ITwoWayQueue<Integer> createQueue()
+	{
+		try
+		{
+			directory = Files.createTempDirectory("journaled-queue");
+			return open();
+		} catch (IOException ex)
+		{
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	@After
+	public void cleanup() throws Exception
+	{
+		for (JournaledTwoWayQueue<Integer> queue : opened)
+		{
+			queue.close();
+		}
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory))
+		{
+			for (Path file : files)
+			{
+				Files.delete(file);
+			}
+		}
+		Files.delete(directory);
+	}
+
+	@Test
+	public void testRecovery() throws Exception
+	{
+		JournaledTwoWayQueue<Integer> queue = open();
+		for (int i = 1; i <= 20; i++)
+		{
+			queue.enqueueLast(i);
+		}
+		queue.enqueueAllFirst(new Integer[] { -1, null, -3 });
+		queue.dequeueLast();
+		queue.dequeueFirst();
+
+		// reopen without closing, as if the process had died
+		JournaledTwoWayQueue<Integer> recovered = open();
+		arrayEquals("Queue was not rebuilt from the snapshot and journal", toArray(queue), toArray(recovered));
+	}
+
+	@Test
+	public void testTornRecord() throws Exception
+	{
+		JournaledTwoWayQueue<Integer> queue = open();
+		queue.enqueueLast(1);
+		queue.enqueueLast(2);
+		queue.close();
+		opened.remove(queue);
+
+		// the start of a record that was never finished
+		Path journal = directory.resolve("journal-0.log");
+		Files.write(journal, new byte[] { 2, 0, 0 }, StandardOpenOption.APPEND);
+
+		JournaledTwoWayQueue<Integer> recovered = open();
+		equals("size() is incorrect after discarding a torn record", 2, recovered.size());
+		recovered.enqueueLast(3);
+
+		JournaledTwoWayQueue<Integer> reopened = open();
+		arrayEquals("Records after a torn record were not recovered", new Integer[] { 3, 2, 1 }, toArray(reopened));
+	}
+
+	@Test(timeout = 10000)
+	public void testFlushWithoutFurtherChanges() throws Exception
+	{
+		JournaledTwoWayQueue<Integer> queue = open(10);
+		queue.enqueueLast(1);
+		queue.enqueueLast(2);
+
+		// no further change arrives, so only the background flush can write the records
+		Path journal = directory.resolve("journal-0.log");
+		while (Files.size(journal) == 0)
+		{
+			Thread.sleep(5);
+		}
+
+		// reopen without closing, as if the process had died
+		JournaledTwoWayQueue<Integer> recovered = open(10);
+		arrayEquals("Records were not flushed within the sync interval", new Integer[] { 2, 1 }, toArray(recovered));
+	}
+
+	@Test
+	public void testIteratorRemove() throws Exception
+	{
+		JournaledTwoWayQueue<Integer> queue = open();
+		queue.enqueueAllLast(new Integer[] { 1, 2, 3 });
+
+		Iterator<Integer> iterator = queue.iterator();
+		iterator.next();
+		try
+		{
+			iterator.remove();
+			fail("Removing through the iterator should not bypass the journal");
+		} catch (UnsupportedOperationException ex)
+		{
+			// do nothing...
+		}
+		equals("size() is incorrect after a rejected remove()", 3, queue.size());
+
+		JournaledTwoWayQueue<Integer> reopened = open();
+		arrayEquals("Reopened queue does not match the live queue", toArray(queue), toArray(reopened));
+	}
+
+	@Test
+	public void testGarbageRecord() throws Exception
+	{
+		JournaledTwoWayQueue<Integer> queue = open();
+		queue.enqueueLast(1);
+		queue.close();
+		opened.remove(queue);
+
+		// an element length far past the end of the file
+		Path journal = directory.resolve("journal-0.log");
+		Files.write(journal, new byte[] { 2, 0x7f, -1, -1, -1, 0 }, StandardOpenOption.APPEND);
+		JournaledTwoWayQueue<Integer> recovered = open();
+		equals("size() is incorrect after discarding a record with a bad length", 1, recovered.size());
+		recovered.close();
+		opened.remove(recovered);
+
+		// a record with a valid checksum that the serializer cannot read
+		ByteBuffer record = ByteBuffer.allocate(12);
+		record.put((byte) 2).putInt(3).put(new byte[] { 1, 2, 3 });
+		CRC32 crc = new CRC32();
+		crc.update(record.array(), 0, record.position());
+		record.putInt((int) crc.getValue());
+		Files.write(journal, record.array(), StandardOpenOption.APPEND);
+
+		JournaledTwoWayQueue<Integer> reopened = open();
+		equals("size() is incorrect after discarding a record that cannot be read", 1, reopened.size());
+		reopened.enqueueLast(2);
+		arrayEquals("Records after a discarded record were not kept", new Integer[] { 2, 1 }, toArray(open()));
+	}
+
+	private JournaledTwoWayQueue<Integer> open() throws IOException
+	{
+		return open(JournaledTwoWayQueue.SYNC_EVERY_OPERATION);
+	}
+
+	private JournaledTwoWayQueue<Integer> open(long syncIntervalMillis) throws IOException
+	{
+		JournaledTwoWayQueue<Integer> queue = new JournaledTwoWayQueue<>(new TwoWayQueue<>(), directory,
+				ElementSerializers.integers(), syncIntervalMillis, SNAPSHOT_INTERVAL);
+		opened.add(queue);
+		return queue;
+	}
+
+	private static Object[] toArray(ITwoWayQueue<Integer> queue)
+	{
+		List<Integer> list = new ArrayList<>();
+		for (Integer element : queue)
+		{
+			list.add(element);
+		}
+		return list.toArray();
+	}
+}
@@ -0,0 +1,188 @@
+package tests;
+
+import org.junit.After;
+import org.junit.Test;
+import structures.ITwoWayQueue;
+import structures.persistent.ElementSerializers;
+import structures.persistent.MappedTwoWayQueue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the deque tests against the memory-mapped queue, and checks that its
+ * contents survive being closed and reopened.
+ */
+public class PersistentDequeTests extends DequeTests
+{
+	// room for two integer records per segment, so the tests cross many segments
+	private static final int SEGMENT_SIZE = 64;
+
+	private final List<MappedTwoWayQueue<Integer>> opened = new ArrayList<>();
+	private Path directory;
+
+	@Override
+	protected ITwoWayQueue<Integer> createQueue()
+	{
+		try
+		{
+			directory = Files.createTempDirectory("mapped-queue");
+			return open();
+		} catch (IOException ex)
+		{
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	@After
+	public void cleanup() throws Exception
+	{
+		for (MappedTwoWayQueue<Integer> queue : opened)
+		{
+			queue.close();
+		}
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory))
+		{
+			for (Path file : files)
+			{
+				Files.delete(file);
+			}
+		}
+		Files.delete(directory);
+	}
+
+	@Test
+	public void testReopen() throws Exception
+	{
+		MappedTwoWayQueue<Integer> queue = open();
+		for (int i = 1; i <= 10; i++)
+		{
+			queue.enqueueLast(i);
+			queue.enqueueFirst(-i);
+		}
+		queue.enqueueLast(null);
+		queue.dequeueFirst();
+		queue.dequeueLast();
+		queue.close();
+		opened.remove(queue);
+
+		MappedTwoWayQueue<Integer> reopened = open();
+		equals("size() is incorrect after reopening the queue", 19, reopened.size());
+		equals("First element is incorrect after reopening the queue", -9, reopened.dequeueFirst());
+		equals("Last element is incorrect after reopening the queue", 10, reopened.dequeueLast());
+
+		reopened.enqueueFirst(100);
+		List<Integer> all = reopened.dequeueAll();
+		equals("number of elements returned from dequeueAll() is incorrect", 18, all.size());
+		equals("dequeueAll() returned the wrong last element", 9, all.get(0));
+		equals("dequeueAll() returned the wrong first element", 100, all.get(17));
+	}
+
+	@Test
+	public void testReopenAfterCrash() throws Exception
+	{
+		MappedTwoWayQueue<Integer> queue = open();
+		for (int i = 1; i <= 4; i++)
+		{
+			queue.enqueueLast(i);
+		}
+		queue.close();
+		opened.remove(queue);
+
+		// a segment file created just before a crash, and one whose header was never finished
+		List<Path> segments = segmentFiles();
+		Path last = segments.get(segments.size() - 1);
+		String name = last.getFileName().toString();
+		long id = Long.parseUnsignedLong(name.substring(8, 24), 16);
+		Files.createFile(directory.resolve(String.format("segment-%016x.dat", id + 1)));
+		Files.write(directory.resolve(String.format("segment-%016x.dat", id + 2)), new byte[SEGMENT_SIZE]);
+
+		MappedTwoWayQueue<Integer> reopened = open();
+		equals("unfinished segment files should be deleted on reopen", segments, segmentFiles());
+		equals("size() is incorrect after reopening the queue", 4, reopened.size());
+		reopened.enqueueLast(5);
+		for (int i = 1; i <= 5; i++)
+		{
+			equals("Element is incorrect after reopening the queue", i, reopened.dequeueFirst());
+		}
+	}
+
+	@Test
+	public void testReopenWithDifferentSegmentSize() throws Exception
+	{
+		try
+		{
+			new MappedTwoWayQueue<>(directory, SEGMENT_SIZE * 2, ElementSerializers.integers()).close();
+			fail("Reopening a queue with a different segment size should throw IOException");
+		} catch (IOException ex)
+		{
+			// do nothing, this is expected
+		}
+	}
+
+	@Test
+	public void testRecordsLargerThanHalfASegment() throws Exception
+	{
+		// an empty segment starts in the middle, so these records never fit in it
+		Path strings = Files.createTempDirectory("mapped-queue");
+		try (MappedTwoWayQueue<String> queue = new MappedTwoWayQueue<>(strings, SEGMENT_SIZE,
+				ElementSerializers.strings()))
+		{
+			queue.enqueueLast("abcdefghijklmnopqrst");
+			equals("Element is incorrect after enqueueLast() into an empty segment", "abcdefghijklmnopqrst",
+					queue.dequeueFirst());
+			isTrue("Queue should be empty after removing its only element", queue.isEmpty());
+
+			queue.enqueueFirst("tsrqponmlkjihgfedcba");
+			equals("Element is incorrect after enqueueFirst() into an empty segment", "tsrqponmlkjihgfedcba",
+					queue.dequeueLast());
+			isTrue("Queue should be empty after removing its only element", queue.isEmpty());
+
+			queue.enqueueLast("abcdefghijklmnopqrst");
+			queue.enqueueFirst("tsrqponmlkjihgfedcba");
+			queue.enqueueLast("ABCDEFGHIJKLMNOPQRST");
+			equals("size() is incorrect", 3, queue.size());
+			equals("First element is incorrect", "tsrqponmlkjihgfedcba", queue.dequeueFirst());
+			equals("Middle element is incorrect", "abcdefghijklmnopqrst", queue.dequeueFirst());
+			equals("Last element is incorrect", "ABCDEFGHIJKLMNOPQRST", queue.dequeueFirst());
+			isTrue("Queue should be empty after removing every element", queue.isEmpty());
+		} finally
+		{
+			try (DirectoryStream<Path> files = Files.newDirectoryStream(strings))
+			{
+				for (Path file : files)
+				{
+					Files.delete(file);
+				}
+			}
+			Files.delete(strings);
+		}
+	}
+
+	private List<Path> segmentFiles() throws IOException
+	{
+		List<Path> files = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory))
+		{
+			for (Path file : stream)
+			{
+				files.add(file);
+			}
+		}
+		files.sort(null);
+		return files;
+	}
+
+	private MappedTwoWayQueue<Integer> open() throws IOException
+	{
+		MappedTwoWayQueue<Integer> queue = new MappedTwoWayQueue<>(directory, SEGMENT_SIZE,
+				ElementSerializers.integers());
+		opened.add(queue);
+		return queue;
+	}
+}
@@ -0,0 +1,17 @@
+package tests;
+
+import structures.ITwoWayQueue;
+import structures.TwoWayQueue;
+
+/**
+ * Runs the deque tests against a linked queue that reuses its nodes.
+ */
+public class PooledDequeTests extends DequeTests
+{
+	@Override
+	protected ITwoWayQueue<Integer> createQueue()
+	{
+		// a small pool so the tests cover both a full and an empty free list
+		return new TwoWayQueue<>(2);
+	}
+}
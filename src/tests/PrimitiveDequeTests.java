@@ -0,0 +1,154 @@
+package tests;
+
+import org.junit.Test;
+import structures.primitive.DoubleTwoWayQueue;
+import structures.primitive.IntTwoWayQueue;
+import structures.primitive.LongTwoWayQueue;
+import exceptions.EmptyQueueException;
+
+import java.util.ConcurrentModificationException;
+import java.util.PrimitiveIterator;
+
+public class PrimitiveDequeTests extends TestFacade
+{
+	@Test
+	public void testIntQueue()
+	{
+		IntTwoWayQueue queue = new IntTwoWayQueue(2);
+
+		// add past the initial capacity at both ends
+		queue.enqueueAllFirst(new int[] { 3, 4, 5 });
+		queue.enqueueFirst(6);
+		queue.enqueueLast(2);
+		queue.enqueueAllLast(new int[] { 1, 0 });
+		equals("size() is incorrect after adding elements", 7, queue.size());
+
+		// the iterator walks from the last element to the first
+		int expected = 0;
+		PrimitiveIterator.OfInt iterator = queue.iterator();
+		while (iterator.hasNext())
+		{
+			equals("Unexpected element found using an iterator", expected++, iterator.nextInt());
+		}
+		equals("Iterator did not return every element", 7, expected);
+
+		equals("dequeueFirst() returned the wrong element", 6, queue.dequeueFirst());
+		equals("dequeueLast() returned the wrong element", 0, queue.dequeueLast());
+
+		int[] all = queue.dequeueAll();
+		equals("number of elements returned from dequeueAll() is incorrect", 5, all.length);
+		for (int i = 0; i < all.length; i++)
+		{
+			equals("Elements returned from dequeueAll() are incorrect", i + 1, all[i]);
+		}
+		isTrue("Queue should be empty after calling dequeueAll()", queue.isEmpty());
+
+		try
+		{
+			queue.dequeueFirst();
+			fail("No exception thrown after invoking dequeueFirst() on an empty queue");
+		} catch (EmptyQueueException ex)
+		{
+			// do nothing...
+		}
+	}
+
+	@Test
+	public void testLongQueue()
+	{
+		LongTwoWayQueue queue = new LongTwoWayQueue();
+		for (long i = 1; i <= 100; i++)
+		{
+			queue.enqueueLast(i * 1_000_000_000L);
+		}
+
+		equals("size() is incorrect after adding elements", 100, queue.size());
+		for (long i = 1; i <= 100; i++)
+		{
+			equals("Elements are not accessible in FIFO order", i * 1_000_000_000L, queue.dequeueFirst());
+		}
+		isTrue("Queue should be empty after removing every element", queue.isEmpty());
+	}
+
+	@Test
+	public void testDoubleQueue()
+	{
+		DoubleTwoWayQueue queue = new DoubleTwoWayQueue();
+		queue.enqueueFirst(0.5);
+		queue.enqueueFirst(1.5);
+		queue.clear();
+		equals("Unexpected size() after removing elements", 0, queue.size());
+
+		queue.enqueueAllFirst(new double[] { 0.25, 0.75 });
+		equals("Elements are not returned in FIFO order", 0.25, queue.dequeueLast());
+		equals("Elements are not returned in FIFO order", 0.75, queue.dequeueLast());
+	}
+
+	@Test
+	public void testPeek()
+	{
+		// adding at the front first wraps the head around the end of the array
+		IntTwoWayQueue ints = new IntTwoWayQueue(2);
+		ints.enqueueFirst(2);
+		ints.enqueueFirst(1);
+		ints.enqueueLast(3);
+		equals("peekFirst() returned the wrong element", 1, ints.peekFirst());
+		equals("peekLast() returned the wrong element", 3, ints.peekLast());
+		equals("Peeking should not remove elements", 3, ints.size());
+
+		LongTwoWayQueue longs = new LongTwoWayQueue();
+		longs.enqueueFirst(2_000_000_000_000L);
+		longs.enqueueLast(3_000_000_000_000L);
+		equals("peekFirst() returned the wrong element", 2_000_000_000_000L, longs.peekFirst());
+		equals("peekLast() returned the wrong element", 3_000_000_000_000L, longs.peekLast());
+
+		DoubleTwoWayQueue doubles = new DoubleTwoWayQueue();
+		doubles.enqueueFirst(0.5);
+		equals("peekFirst() returned the wrong element", 0.5, doubles.peekFirst());
+		equals("peekLast() returned the wrong element", 0.5, doubles.peekLast());
+		doubles.enqueueLast(1.5);
+		equals("peekLast() returned the wrong element", 1.5, doubles.peekLast());
+
+		// peeking does not count as a modification
+		PrimitiveIterator.OfInt iterator = ints.iterator();
+		ints.peekFirst();
+		ints.peekLast();
+		equals("Iterator failed after peeking", 3, iterator.nextInt());
+
+		ints.clear();
+		longs.clear();
+		doubles.clear();
+		Runnable[] peeks = { ints::peekFirst, ints::peekLast, longs::peekFirst, longs::peekLast, doubles::peekFirst,
+				doubles::peekLast };
+		for (Runnable peek : peeks)
+		{
+			try
+			{
+				peek.run();
+				fail("No exception thrown after peeking at an empty queue");
+			} catch (EmptyQueueException ex)
+			{
+				// do nothing...
+			}
+		}
+	}
+
+	@Test
+	public void testIteratorFailsFast()
+	{
+		IntTwoWayQueue queue = new IntTwoWayQueue();
+		queue.enqueueAllLast(new int[] { 1, 2, 3 });
+
+		try
+		{
+			PrimitiveIterator.OfInt iterator = queue.iterator();
+			iterator.nextInt();
+			queue.dequeueFirst();
+			iterator.hasNext();
+			fail("Concurrent modification allowed with iterator");
+		} catch (ConcurrentModificationException ex)
+		{
+			// do nothing...
+		}
+	}
+}
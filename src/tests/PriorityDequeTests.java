@@ -0,0 +1,102 @@
+package tests;
+
+import org.junit.Test;
+import structures.PriorityTwoWayQueue;
+import exceptions.EmptyQueueException;
+
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+public class PriorityDequeTests extends TestFacade
+{
+	@Test
+	public void testBothEnds()
+	{
+		PriorityTwoWayQueue<Integer> queue = new PriorityTwoWayQueue<>();
+		int[] values = { 5, 1, 9, 3, 7, 3, 8, 2 };
+		for (int value : values)
+		{
+			queue.enqueueFirst(value);
+		}
+
+		equals("peekFirst() should return the greatest element", 9, queue.peekFirst());
+		equals("peekLast() should return the least element", 1, queue.peekLast());
+		equals("dequeueFirst() should remove the greatest element", 9, queue.dequeueFirst());
+		equals("dequeueLast() should remove the least element", 1, queue.dequeueLast());
+		equals("dequeueFirst() should remove the greatest element", 8, queue.dequeueFirst());
+		equals("dequeueLast() should remove the least element", 2, queue.dequeueLast());
+		equals("dequeueLast() should remove the least element", 3, queue.dequeueLast());
+		equals("size() is incorrect after removing elements", 3, queue.size());
+
+		List<Integer> all = queue.dequeueAll();
+		equals("dequeueAll() should put the least element first", 3, all.get(0));
+		equals("dequeueAll() should put the greatest element last", 7, all.get(2));
+		isTrue("Queue should be empty after calling dequeueAll()", queue.isEmpty());
+		equals("pollFirst() should return null for an empty queue", null, queue.pollFirst());
+		try
+		{
+			queue.dequeueLast();
+			fail("No exception thrown after invoking dequeueLast() on an empty queue");
+		} catch (EmptyQueueException ex)
+		{
+			// do nothing...
+		}
+	}
+
+	@Test
+	public void testHeapify()
+	{
+		final int NUM_ELEMENTS = 1000;
+		Random random = new Random(42);
+		PriorityTwoWayQueue<Integer> queue = new PriorityTwoWayQueue<>(Comparator.reverseOrder());
+		queue.enqueueLast(-1);
+
+		// large enough compared to the queue that the heap is rebuilt
+		Integer[] elements = new Integer[NUM_ELEMENTS];
+		for (int i = 0; i < NUM_ELEMENTS; i++)
+		{
+			elements[i] = random.nextInt(100);
+		}
+		queue.enqueueAllLast(elements);
+		equals("size() is incorrect after adding elements", NUM_ELEMENTS + 1, queue.size());
+
+		// under the reversed comparator the smallest value is the greatest element
+		equals("dequeueFirst() should follow the comparator", -1, queue.dequeueFirst());
+		int previous = Integer.MIN_VALUE;
+		while (!queue.isEmpty())
+		{
+			int element = queue.dequeueFirst();
+			isTrue("Elements are not returned in priority order", element >= previous);
+			previous = element;
+		}
+	}
+
+	@Test
+	public void testIterator()
+	{
+		PriorityTwoWayQueue<Integer> queue = new PriorityTwoWayQueue<>();
+		queue.enqueueAllFirst(new Integer[] { 4, 2, 5, 1, 3 });
+
+		int expected = 1;
+		for (int element : queue)
+		{
+			equals("Iterator should run from the least element to the greatest", expected, element);
+			expected++;
+		}
+
+		try
+		{
+			Iterator<Integer> iterator = queue.iterator();
+			iterator.next();
+			queue.enqueueLast(6);
+			iterator.next();
+			fail("Concurrent modification allowed with iterator");
+		} catch (ConcurrentModificationException ex)
+		{
+			// do nothing...
+		}
+	}
+}
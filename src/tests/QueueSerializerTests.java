@@ -0,0 +1,149 @@
+package tests;
+
+import org.junit.Test;
+import structures.ArrayTwoWayQueue;
+import structures.ITwoWayQueue;
+import structures.TwoWayQueue;
+import structures.persistent.ElementSerializers;
+import structures.persistent.QueueSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+
+public class QueueSerializerTests extends TestFacade
+{
+	@Test
+	public void testChannelRoundTrip() throws Exception
+	{
+		// enough elements to fill the buffer several times, with runs of nulls
+		TwoWayQueue<Integer> queue = new TwoWayQueue<>();
+		for (int i = 0; i < 100_000; i++)
+		{
+			queue.enqueueLast(i % 1000 < 10 ? null : i);
+		}
+
+		QueueSerializer<Integer> serializer = new QueueSerializer<>(ElementSerializers.integers());
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		serializer.write(queue, Channels.newChannel(bytes));
+		equals("Queue should not change when it is written", 100_000, queue.size());
+
+		ArrayTwoWayQueue<Integer> copy = serializer
+				.read(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())), ArrayTwoWayQueue::new);
+		arrayEquals("Queue read from a channel does not match the queue written", toArray(queue), toArray(copy));
+	}
+
+	@Test
+	public void testBufferRoundTrip() throws Exception
+	{
+		TwoWayQueue<String> queue = new TwoWayQueue<>();
+		queue.enqueueAllLast(new String[] { "first", "", null, "\u00e9t\u00e9", "last" });
+
+		QueueSerializer<String> serializer = new QueueSerializer<>(ElementSerializers.strings());
+		ByteBuffer buffer = ByteBuffer.allocate(1024);
+		serializer.write(queue, buffer);
+		buffer.flip();
+
+		TwoWayQueue<String> copy = serializer.read(buffer, size -> new TwoWayQueue<>());
+		arrayEquals("Queue read from a buffer does not match the queue written", toArray(queue), toArray(copy));
+		isFalse("The whole serialized queue should have been read", buffer.hasRemaining());
+	}
+
+	@Test
+	public void testErrors() throws Exception
+	{
+		TwoWayQueue<Long> queue = new TwoWayQueue<>();
+		queue.enqueueAllLast(new Long[] { 1L, 2L, 3L });
+
+		try
+		{
+			new QueueSerializer<>(ElementSerializers.longs()).write(queue, ByteBuffer.allocate(16));
+			fail("No exception thrown when writing to a buffer that is too small");
+		} catch (BufferOverflowException ex)
+		{
+			// do nothing...
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(1024);
+		new QueueSerializer<>(ElementSerializers.longs()).write(queue, buffer);
+		buffer.flip();
+		try
+		{
+			new QueueSerializer<>(ElementSerializers.integers()).read(buffer, ArrayTwoWayQueue::new);
+			fail("No exception thrown when reading with a different kind of serializer");
+		} catch (IOException ex)
+		{
+			// do nothing...
+		}
+
+		buffer.rewind();
+		buffer.limit(buffer.limit() - 1);
+		try
+		{
+			new QueueSerializer<>(ElementSerializers.longs()).read(buffer, ArrayTwoWayQueue::new);
+			fail("No exception thrown when reading a truncated queue");
+		} catch (IOException ex)
+		{
+			// do nothing...
+		}
+
+		// a corrupt element count must not size the queue before anything is read
+		buffer.rewind();
+		buffer.limit(buffer.capacity());
+		buffer.putInt(5, Integer.MAX_VALUE);
+		int[] requested = new int[1];
+		try
+		{
+			new QueueSerializer<>(ElementSerializers.longs()).read(buffer, size ->
+			{
+				requested[0] = size;
+				return new ArrayTwoWayQueue<Long>(size);
+			});
+			fail("No exception thrown when reading a queue with a corrupt element count");
+		} catch (IOException ex)
+		{
+			// do nothing...
+		}
+		isTrue("Queue was sized from a corrupt element count", requested[0] <= 1 << 16);
+
+		// a corrupt element length must not be allocated before its bytes are read
+		TwoWayQueue<String> strings = new TwoWayQueue<>();
+		strings.enqueueLast("element");
+		QueueSerializer<String> serializer = new QueueSerializer<>(ElementSerializers.strings());
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		serializer.write(strings, Channels.newChannel(bytes));
+		byte[] corrupt = bytes.toByteArray();
+		ByteBuffer.wrap(corrupt).putInt(13, Integer.MAX_VALUE - 8);
+		try
+		{
+			serializer.read(Channels.newChannel(new ByteArrayInputStream(corrupt)), ArrayTwoWayQueue::new);
+			fail("No exception thrown when reading a queue with a corrupt element length");
+		} catch (IOException ex)
+		{
+			// do nothing...
+		}
+		try
+		{
+			serializer.read(ByteBuffer.wrap(corrupt), ArrayTwoWayQueue::new);
+			fail("No exception thrown when reading a queue with a corrupt element length");
+		} catch (IOException ex)
+		{
+			// do nothing...
+		}
+	}
+
+	private static Object[] toArray(ITwoWayQueue<?> queue)
+	{
+		List<Object> list = new ArrayList<>();
+		for (Object element : queue)
+		{
+			list.add(element);
+		}
+		return list.toArray();
+	}
+}
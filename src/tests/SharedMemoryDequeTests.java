@@ -0,0 +1,179 @@
+package tests;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import structures.ipc.SharedMemoryTwoWayQueue;
+import exceptions.EmptyQueueException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class SharedMemoryDequeTests extends TestFacade
+{
+	private Path file;
+
+	@Before
+	public void setup() throws Exception
+	{
+		file = Files.createTempFile("shared-queue", ".dat");
+	}
+
+	@After
+	public void cleanup() throws Exception
+	{
+		Files.deleteIfExists(file);
+	}
+
+	@Test
+	public void testSingleProcess() throws Exception
+	{
+		try (SharedMemoryTwoWayQueue producer = SharedMemoryTwoWayQueue.create(file, 4, 16);
+				SharedMemoryTwoWayQueue consumer = SharedMemoryTwoWayQueue.open(file))
+		{
+			equals("maxRecordLength() is incorrect", 12, producer.maxRecordLength());
+
+			producer.enqueueLast(new byte[] { 1 });
+			producer.enqueueAllLast(new byte[][] { { 2, 2 }, {}, { 4 } });
+			equals("size() is incorrect after adding records", 4, consumer.size());
+			isFalse("offerLast() should fail on a full queue", producer.offerLast(new byte[] { 5 }));
+
+			arrayEquals("Records are not returned in FIFO order", toObjects(new byte[] { 1 }),
+					toObjects(consumer.dequeueFirst()));
+
+			List<byte[]> all = consumer.dequeueAll();
+			equals("number of records returned from dequeueAll() is incorrect", 3, all.size());
+			arrayEquals("Records returned from dequeueAll() are incorrect", toObjects(new byte[] { 4 }),
+					toObjects(all.get(0)));
+			arrayEquals("Records returned from dequeueAll() are incorrect", toObjects(new byte[] { 2, 2 }),
+					toObjects(all.get(2)));
+
+			isTrue("Queue should be empty after calling dequeueAll()", producer.isEmpty());
+			equals("pollFirst() should return null for an empty queue", null, consumer.pollFirst());
+			try
+			{
+				consumer.dequeueFirst();
+				fail("No exception thrown after invoking dequeueFirst() on an empty queue");
+			} catch (EmptyQueueException ex)
+			{
+				// do nothing...
+			}
+		}
+	}
+
+	@Test
+	public void testCorruptFile() throws Exception
+	{
+		try (SharedMemoryTwoWayQueue producer = SharedMemoryTwoWayQueue.create(file, 4, 16);
+				SharedMemoryTwoWayQueue consumer = SharedMemoryTwoWayQueue.open(file))
+		{
+			producer.enqueueLast(new byte[] { 1 });
+			// overwrite the length of the first record, which starts the data after the header
+			writeInt(384, 1 << 30);
+			try
+			{
+				consumer.pollFirst();
+				fail("No exception thrown after reading a record longer than its slot");
+			} catch (IllegalStateException ex)
+			{
+				// do nothing...
+			}
+			writeInt(384, -2);
+			try
+			{
+				consumer.pollFirst();
+				fail("No exception thrown after reading a record with a negative length");
+			} catch (IllegalStateException ex)
+			{
+				// do nothing...
+			}
+		}
+
+		// a slot count that is not a power of two, with a file size to match
+		SharedMemoryTwoWayQueue.create(file, 4, 16).close();
+		writeInt(8, 3);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE))
+		{
+			channel.truncate(384 + 3 * 16);
+		}
+		try
+		{
+			SharedMemoryTwoWayQueue.open(file).close();
+			fail("No exception thrown after opening a queue whose slot count is not a power of two");
+		} catch (IOException ex)
+		{
+			// do nothing...
+		}
+	}
+
+	/**
+	 * Writes an int into the queue file, in the byte order the queue uses
+	 */
+	private void writeInt(long position, int value) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE))
+		{
+			ByteBuffer buffer = ByteBuffer.allocate(4).order(ByteOrder.nativeOrder());
+			buffer.putInt(value).flip();
+			channel.write(buffer, position);
+		}
+	}
+
+	@Test(timeout = 120000)
+	public void testTwoProcesses() throws Exception
+	{
+		final int NUM_RECORDS = 1_000_000;
+
+		try (SharedMemoryTwoWayQueue queue = SharedMemoryTwoWayQueue.create(file, 1024, 32))
+		{
+			String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+			Process producer = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+					SharedMemoryProducer.class.getName(), file.toString(), Integer.toString(NUM_RECORDS))
+							.inheritIO().start();
+			try
+			{
+				for (int i = 0; i < NUM_RECORDS; i++)
+				{
+					byte[] record;
+					while ((record = queue.pollFirst()) == null)
+					{
+						if (!producer.isAlive() && queue.isEmpty())
+						{
+							fail("Producer process exited after " + i + " records");
+						}
+						Thread.yield();
+					}
+					if (!Arrays.equals(SharedMemoryProducer.recordFor(i), record))
+					{
+						fail("Record " + i + " was not received intact and in order");
+					}
+				}
+				isTrue("Producer process did not exit", producer.waitFor(30, TimeUnit.SECONDS));
+				equals("Producer process failed", 0, producer.exitValue());
+			} finally
+			{
+				producer.destroy();
+			}
+			isTrue("Queue should be empty after every record was consumed", queue.isEmpty());
+		}
+	}
+
+	private static Byte[] toObjects(byte[] bytes)
+	{
+		Byte[] boxed = new Byte[bytes.length];
+		for (int i = 0; i < bytes.length; i++)
+		{
+			boxed[i] = bytes[i];
+		}
+		return boxed;
+	}
+}
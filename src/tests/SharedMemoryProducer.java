@@ -0,0 +1,50 @@
+package tests;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+
+import structures.ipc.SharedMemoryTwoWayQueue;
+
+/**
+ * The producer half of SharedMemoryDequeTests. It runs in its own JVM, opens the
+ * queue file created by the test and adds numbered records to the end.
+ *
+ * Usage: SharedMemoryProducer queue-file record-count
+ */
+public class SharedMemoryProducer
+{
+	public static void main(String[] args) throws Exception
+	{
+		int count = Integer.parseInt(args[1]);
+		try (SharedMemoryTwoWayQueue queue = SharedMemoryTwoWayQueue.open(Paths.get(args[0])))
+		{
+			for (int i = 0; i < count; i++)
+			{
+				byte[] record = recordFor(i);
+				while (!queue.offerLast(record))
+				{
+					Thread.yield();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Builds the record for a sequence number: the number itself followed by a
+	 * varying number of filler bytes, so records have different lengths.
+	 *
+	 * @param sequence
+	 *            the record's position in the stream
+	 * @return the record bytes
+	 */
+	static byte[] recordFor(int sequence)
+	{
+		ByteBuffer record = ByteBuffer.allocate(4 + sequence % 17);
+		record.putInt(sequence);
+		while (record.hasRemaining())
+		{
+			record.put((byte) sequence);
+		}
+		return record.array();
+	}
+}
@@ -0,0 +1,98 @@
+package tests;
+
+import org.junit.Test;
+import structures.SlidingWindowTwoWayQueue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SlidingWindowDequeTests extends TestFacade
+{
+	private static final double TOLERANCE = 1e-9;
+
+	@Test
+	public void testEviction()
+	{
+		AtomicLong clock = new AtomicLong();
+		SlidingWindowTwoWayQueue<Integer> window = new SlidingWindowTwoWayQueue<>(10, clock::get, i -> i);
+
+		for (int i = 0; i < 5; i++)
+		{
+			clock.set(i * 3);
+			window.enqueueFirst(i);
+		}
+		// added at 0, 3, 6, 9 and 12; the element from time 0 expired at 10
+		equals("Expired elements should be removed on insert", 4, window.size());
+		equals("The oldest element should be at the end", 1, window.dequeueLast());
+		equals("The newest element should be at the front", 4, window.dequeueFirst());
+
+		clock.set(16);
+		equals("evict() removed the wrong number of elements", 1, window.evict());
+		equals("Only unexpired elements should remain", 3, window.dequeueFirst());
+		isTrue("Queue should be empty", window.isEmpty());
+
+		window.enqueueAllFirst(new Integer[] { 7, 8 });
+		List<Integer> all = window.dequeueAll();
+		equals("dequeueAll() should put the oldest element first", 7, all.get(0));
+
+		try
+		{
+			window.enqueueFirst(9, 15);
+			window.enqueueFirst(9, 14);
+			fail("Out of order timestamps should be rejected");
+		} catch (IllegalArgumentException ex)
+		{
+			// do nothing...
+		}
+		try
+		{
+			window.enqueueLast(1);
+			fail("enqueueLast() should not be supported");
+		} catch (UnsupportedOperationException ex)
+		{
+			// do nothing...
+		}
+	}
+
+	@Test
+	public void testStatistics()
+	{
+		final int WINDOW = 50;
+		Random random = new Random(42);
+		SlidingWindowTwoWayQueue<Double> window = new SlidingWindowTwoWayQueue<>(WINDOW, () -> 0, d -> d);
+
+		// large, close values are where a running sum of squares loses precision,
+		// so the expected values are computed relative to the offset
+		final double OFFSET = 1e6;
+		double[] history = new double[1000];
+		for (int time = 0; time < history.length; time++)
+		{
+			history[time] = random.nextDouble();
+			window.enqueueFirst(OFFSET + history[time], time);
+
+			int first = Math.max(0, time - WINDOW + 1);
+			int count = time - first + 1;
+			double sum = 0;
+			for (int i = first; i <= time; i++)
+			{
+				sum += history[i];
+			}
+			double mean = sum / count;
+			double squares = 0;
+			for (int i = first; i <= time; i++)
+			{
+				squares += (history[i] - mean) * (history[i] - mean);
+			}
+
+			equals("Count is incorrect", count, window.getCount());
+			isTrue("Sum is incorrect", Math.abs(window.getSum() - (OFFSET * count + sum)) < TOLERANCE * OFFSET * count);
+			isTrue("Mean is incorrect", Math.abs(window.getMean() - OFFSET - mean) < 1e-6);
+			isTrue("Variance is incorrect", Math.abs(window.getVariance() - squares / count) < 1e-6);
+		}
+
+		window.clear();
+		equals("Mean should be zero once the queue is empty", 0.0, window.getMean());
+		equals("Variance should be zero once the queue is empty", 0.0, window.getVariance());
+	}
+}
@@ -0,0 +1,115 @@
+package tests;
+
+import org.junit.Test;
+import structures.concurrent.SpscTwoWayQueue;
+import exceptions.EmptyQueueException;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class SpscDequeTests extends TestFacade
+{
+	@Test
+	public void testSingleThreadOperations()
+	{
+		SpscTwoWayQueue<Integer> queue = new SpscTwoWayQueue<>(3);
+		equals("capacity() should round up to a power of two", 4, queue.capacity());
+
+		queue.enqueueLast(1);
+		queue.enqueueAllLast(new Integer[] { 2, 3, null });
+		equals("size() is incorrect after adding elements", 4, queue.size());
+		isFalse("offerLast() should fail on a full queue", queue.offerLast(5));
+
+		int expected = 4;
+		for (Integer element : queue)
+		{
+			equals("Unexpected element found using an iterator", expected == 4 ? null : expected, element);
+			expected--;
+		}
+
+		equals("Elements are not returned in FIFO order", 1, queue.dequeueFirst());
+		equals("Elements are not returned in FIFO order", 2, queue.pollFirst());
+
+		List<Integer> all = queue.dequeueAll();
+		equals("number of elements returned from dequeueAll() is incorrect", 2, all.size());
+		equals("Elements returned from dequeueAll() are incorrect", null, all.get(0));
+		equals("Elements returned from dequeueAll() are incorrect", 3, all.get(1));
+
+		isTrue("Queue should be empty after calling dequeueAll()", queue.isEmpty());
+		equals("pollFirst() should return null for an empty queue", null, queue.pollFirst());
+		try
+		{
+			queue.dequeueFirst();
+			fail("No exception thrown after invoking dequeueFirst() on an empty queue");
+		} catch (EmptyQueueException ex)
+		{
+			// do nothing...
+		}
+	}
+
+	@Test
+	public void testUnsupportedEnds()
+	{
+		SpscTwoWayQueue<Integer> queue = new SpscTwoWayQueue<>(4);
+		try
+		{
+			queue.enqueueFirst(1);
+			fail("enqueueFirst() should not be supported");
+		} catch (UnsupportedOperationException ex)
+		{
+			// do nothing...
+		}
+		try
+		{
+			queue.dequeueLast();
+			fail("dequeueLast() should not be supported");
+		} catch (UnsupportedOperationException ex)
+		{
+			// do nothing...
+		}
+	}
+
+	@Test(timeout = 60000)
+	public void testProducerConsumerHandoff() throws InterruptedException
+	{
+		final int NUM_ELEMENTS = 2_000_000;
+		final SpscTwoWayQueue<Integer> queue = new SpscTwoWayQueue<>(1024);
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+		Thread producer = new Thread(() -> {
+			for (int i = 0; i < NUM_ELEMENTS; i++)
+			{
+				while (!queue.offerLast(i))
+				{
+					Thread.yield();
+				}
+			}
+		});
+		Thread consumer = new Thread(() -> {
+			for (int i = 0; i < NUM_ELEMENTS; i++)
+			{
+				Integer element;
+				while ((element = queue.pollFirst()) == null)
+				{
+					Thread.yield();
+				}
+				if (element != i)
+				{
+					throw new AssertionError("Expected " + i + " but was " + element);
+				}
+			}
+		});
+		producer.setUncaughtExceptionHandler((t, ex) -> failure.compareAndSet(null, ex));
+		consumer.setUncaughtExceptionHandler((t, ex) -> failure.compareAndSet(null, ex));
+		producer.start();
+		consumer.start();
+		producer.join();
+		consumer.join();
+
+		if (failure.get() != null)
+		{
+			throw new AssertionError(failure.get());
+		}
+		isTrue("Queue should be empty after every element was consumed", queue.isEmpty());
+	}
+}
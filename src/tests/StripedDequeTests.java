@@ -0,0 +1,109 @@
+package tests;
+
+import org.junit.Test;
+import structures.ITwoWayQueue;
+import structures.concurrent.StripedTwoWayQueue;
+import exceptions.EmptyQueueException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs the stress tests against the striped queue, and checks the ordering it
+ * keeps within a lane.
+ */
+public class StripedDequeTests extends ConcurrentStressTests
+{
+	@Override
+	protected ITwoWayQueue<Integer> createQueue()
+	{
+		return new StripedTwoWayQueue<>(8);
+	}
+
+	@Test
+	public void testSingleThreadOperations()
+	{
+		StripedTwoWayQueue<Integer> queue = new StripedTwoWayQueue<>(3);
+		equals("lanes() should round up to a power of two", 4, queue.lanes());
+
+		// one thread only uses its home lane, so it sees an ordinary two-way queue
+		queue.enqueueLast(2);
+		queue.enqueueFirst(1);
+		queue.enqueueAllLast(new Integer[] { 3, null });
+		equals("size() is incorrect after adding elements", 4, queue.size());
+
+		int expected = 4;
+		for (Integer element : queue)
+		{
+			equals("Unexpected element found using an iterator", expected == 4 ? null : expected, element);
+			expected--;
+		}
+
+		equals("Elements are not returned in FIFO order", 1, queue.dequeueFirst());
+		equals("Elements are not returned in LIFO order", null, queue.dequeueLast());
+		List<Integer> all = queue.dequeueAll();
+		equals("number of elements returned from dequeueAll() is incorrect", 2, all.size());
+		equals("Elements returned from dequeueAll() are incorrect", 3, all.get(0));
+
+		isTrue("Queue should be empty after calling dequeueAll()", queue.isEmpty());
+		equals("pollFirst() should return null for an empty queue", null, queue.pollFirst());
+		try
+		{
+			queue.dequeueLast();
+			fail("No exception thrown after invoking dequeueLast() on an empty queue");
+		} catch (EmptyQueueException ex)
+		{
+			// do nothing...
+		}
+	}
+
+	@Test(timeout = 60000)
+	public void testPerThreadOrder() throws InterruptedException
+	{
+		final int THREADS = 8;
+		final int PER_THREAD = 10_000;
+		final StripedTwoWayQueue<Integer> queue = new StripedTwoWayQueue<>(4);
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++)
+		{
+			final int base = t * PER_THREAD;
+			threads.add(new Thread(() -> {
+				for (int i = 0; i < PER_THREAD; i++)
+				{
+					queue.enqueueLast(base + i);
+				}
+			}));
+		}
+		for (Thread thread : threads)
+		{
+			thread.setUncaughtExceptionHandler((th, ex) -> failure.compareAndSet(null, ex));
+			thread.start();
+		}
+		for (Thread thread : threads)
+		{
+			thread.join();
+		}
+		if (failure.get() != null)
+		{
+			throw new AssertionError(failure.get());
+		}
+
+		// elements from each thread come out in the order that thread added them
+		int[] last = new int[THREADS];
+		Arrays.fill(last, -1);
+		Integer element;
+		int count = 0;
+		while ((element = queue.pollFirst()) != null)
+		{
+			int thread = element / PER_THREAD;
+			isTrue("Elements from one thread are out of order", element % PER_THREAD > last[thread]);
+			last[thread] = element % PER_THREAD;
+			count++;
+		}
+		equals("Number of elements dequeued is incorrect", THREADS * PER_THREAD, count);
+	}
+}
@@ -0,0 +1,17 @@
+package tests;
+
+import structures.ITwoWayQueue;
+import structures.UnrolledTwoWayQueue;
+
+/**
+ * Runs the deque tests against the unrolled linked queue.
+ */
+public class UnrolledDequeTests extends DequeTests
+{
+	@Override
+	protected ITwoWayQueue<Integer> createQueue()
+	{
+		// tiny blocks so the tests cross block boundaries at both ends
+		return new UnrolledTwoWayQueue<>(2);
+	}
+}
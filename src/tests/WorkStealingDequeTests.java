@@ -0,0 +1,183 @@
+package tests;
+
+import org.junit.Test;
+import structures.concurrent.WorkStealingExecutor;
+import structures.concurrent.WorkStealingTwoWayQueue;
+import exceptions.EmptyQueueException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class WorkStealingDequeTests extends TestFacade
+{
+	@Test
+	public void testOwnerOperations()
+	{
+		WorkStealingTwoWayQueue<Integer> queue = new WorkStealingTwoWayQueue<>(2);
+		queue.enqueueFirst(1);
+		queue.enqueueAllFirst(new Integer[] { 2, 3, null });
+		for (int i = 5; i <= 10; i++)
+		{
+			queue.enqueueFirst(i);
+		}
+		equals("size() is incorrect after growing", 10, queue.size());
+
+		int expected = 1;
+		for (Integer element : queue)
+		{
+			equals("Unexpected element found using an iterator", expected == 4 ? null : expected, element);
+			expected++;
+		}
+
+		equals("The owner should take the newest element", 10, queue.dequeueFirst());
+		equals("A thief should take the oldest element", 1, queue.dequeueLast());
+		equals("A thief should take the oldest element", 2, queue.pollLast());
+
+		List<Integer> all = queue.dequeueAll();
+		equals("number of elements returned from dequeueAll() is incorrect", 7, all.size());
+		equals("Elements returned from dequeueAll() are incorrect", 3, all.get(0));
+		equals("Elements returned from dequeueAll() are incorrect", 9, all.get(6));
+
+		isTrue("Queue should be empty after calling dequeueAll()", queue.isEmpty());
+		equals("pollFirst() should return null for an empty queue", null, queue.pollFirst());
+		equals("pollLast() should return null for an empty queue", null, queue.pollLast());
+		try
+		{
+			queue.dequeueFirst();
+			fail("No exception thrown after invoking dequeueFirst() on an empty queue");
+		} catch (EmptyQueueException ex)
+		{
+			// do nothing...
+		}
+		try
+		{
+			queue.enqueueLast(1);
+			fail("enqueueLast() should not be supported");
+		} catch (UnsupportedOperationException ex)
+		{
+			// do nothing...
+		}
+	}
+
+	@Test(timeout = 60000)
+	public void testConcurrentStealing() throws InterruptedException
+	{
+		final int NUM_ELEMENTS = 1_000_000;
+		final int NUM_THIEVES = 3;
+		final WorkStealingTwoWayQueue<Integer> queue = new WorkStealingTwoWayQueue<>(16);
+		final AtomicIntegerArray taken = new AtomicIntegerArray(NUM_ELEMENTS);
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+		final CountDownLatch ownerDone = new CountDownLatch(1);
+
+		List<Thread> threads = new ArrayList<>();
+		threads.add(new Thread(() -> {
+			// push in bursts and pop some back, so the owner and thieves race for
+			// the last element as well as for stealing
+			for (int i = 0; i < NUM_ELEMENTS; i++)
+			{
+				queue.enqueueFirst(i);
+				if (i % 3 == 0)
+				{
+					Integer element = queue.pollFirst();
+					if (element != null && taken.getAndIncrement(element) != 0)
+					{
+						throw new AssertionError("Taken twice: " + element);
+					}
+				}
+			}
+			Integer element;
+			while ((element = queue.pollFirst()) != null)
+			{
+				if (taken.getAndIncrement(element) != 0)
+				{
+					throw new AssertionError("Taken twice: " + element);
+				}
+			}
+			ownerDone.countDown();
+		}));
+		for (int i = 0; i < NUM_THIEVES; i++)
+		{
+			threads.add(new Thread(() -> {
+				while (ownerDone.getCount() > 0 || !queue.isEmpty())
+				{
+					Integer element = queue.pollLast();
+					if (element != null && taken.getAndIncrement(element) != 0)
+					{
+						throw new AssertionError("Taken twice: " + element);
+					}
+				}
+			}));
+		}
+		for (Thread thread : threads)
+		{
+			thread.setUncaughtExceptionHandler((t, ex) -> failure.compareAndSet(null, ex));
+			thread.start();
+		}
+		for (Thread thread : threads)
+		{
+			thread.join();
+		}
+
+		if (failure.get() != null)
+		{
+			throw new AssertionError(failure.get());
+		}
+		for (int i = 0; i < NUM_ELEMENTS; i++)
+		{
+			equals("Every element should be taken exactly once", 1, taken.get(i));
+		}
+	}
+
+	@Test(timeout = 60000)
+	public void testExecutor() throws InterruptedException
+	{
+		final int DEPTH = 16;
+		WorkStealingExecutor executor = new WorkStealingExecutor(4);
+		CountDownLatch done = new CountDownLatch(1);
+		AtomicLong leaves = new AtomicLong();
+		AtomicLong pending = new AtomicLong(1);
+
+		executor.execute(() -> fork(executor, 0, DEPTH, leaves, pending, done));
+		isTrue("Tasks did not finish", done.await(30, TimeUnit.SECONDS));
+		equals("Every leaf task should run once", 1L << DEPTH, leaves.get());
+
+		executor.shutdown();
+		isTrue("Executor did not terminate", executor.awaitTermination(30, TimeUnit.SECONDS));
+		try
+		{
+			executor.execute(() -> {
+			});
+			fail("Tasks should be rejected after shutdown()");
+		} catch (RejectedExecutionException ex)
+		{
+			// do nothing...
+		}
+	}
+
+	/**
+	 * Splits into two tasks until the given depth, counting the leaves
+	 */
+	private static void fork(WorkStealingExecutor executor, int depth, int maxDepth, AtomicLong leaves,
+			AtomicLong pending, CountDownLatch done)
+	{
+		if (depth == maxDepth)
+		{
+			leaves.incrementAndGet();
+		} else
+		{
+			pending.addAndGet(2);
+			executor.execute(() -> fork(executor, depth + 1, maxDepth, leaves, pending, done));
+			executor.execute(() -> fork(executor, depth + 1, maxDepth, leaves, pending, done));
+		}
+		if (pending.decrementAndGet() == 0)
+		{
+			done.countDown();
+		}
+	}
+}